@@ -19,6 +19,10 @@ public class MMORPGPlugin extends JavaPlugin {
     private DatabaseManager databaseManager;
     private WorldDatabaseManager worldDatabaseManager;
     private LanguageManager languageManager;
+    private com.nightslayer.mmorpg.mobs.EntityOwnershipRegistry entityOwnershipRegistry;
+    private com.nightslayer.mmorpg.spawns.EntityCounters entityCounters;
+    private com.nightslayer.mmorpg.spawns.PlayerLevelIndex playerLevelIndex;
+    private com.nightslayer.mmorpg.spawns.SpawnQueue spawnQueue;
     
     // Phase 3 managers
     private com.nightslayer.mmorpg.npcs.NPCManager npcManager;
@@ -29,12 +33,16 @@ public class MMORPGPlugin extends JavaPlugin {
     
     // Phase 4 managers
     private com.nightslayer.mmorpg.crafting.CraftingManager craftingManager;
+    private com.nightslayer.mmorpg.crafting.CraftableIndex craftableIndex;
+    private com.nightslayer.mmorpg.crafting.CraftingGUI craftingGUI;
     private com.nightslayer.mmorpg.enchanting.EnchantmentManager enchantmentManager;
+    private com.nightslayer.mmorpg.enchanting.EnchantingGUI enchantingGUI;
     private com.nightslayer.mmorpg.respawn.RespawnManager respawnManager;
     private com.nightslayer.mmorpg.dungeons.DungeonManager dungeonManager;
     private com.nightslayer.mmorpg.invasions.InvasionManager invasionManager;
     private com.nightslayer.mmorpg.pets.PetManager petManager;
     private com.nightslayer.mmorpg.spawns.SpawnManager spawnManager;
+    private com.nightslayer.mmorpg.listeners.SpawnListener spawnListener;
     private com.nightslayer.mmorpg.ranks.RankManager rankManager;
     private com.nightslayer.mmorpg.achievements.AchievementManager achievementManager;
     private com.nightslayer.mmorpg.bestiary.BestiaryManager bestiaryManager;
@@ -127,6 +135,21 @@ public class MMORPGPlugin extends JavaPlugin {
         // TODO: Save all manager data
         // saveAllData();
         
+        // Drop queued spawns before the world state goes away
+        if (spawnQueue != null) {
+            spawnQueue.stop();
+        }
+        
+        // Summoned pets are not saved with the world
+        if (petManager != null) {
+            petManager.shutdown();
+        }
+        
+        // Write queued quest progress while the database is still open
+        if (questManager != null) {
+            questManager.stop();
+        }
+        
         // Close database connections
         if (databaseManager != null) {
             getLogger().info("Closing database connections...");
@@ -141,13 +164,41 @@ public class MMORPGPlugin extends JavaPlugin {
         instance = null;
     }
     
+    /**
+     * Reload config.yml and the content built from it (/mmorpgadmin reload).
+     * Custom mobs are reloaded before the spawn rules that reference them.
+     */
+    public void reloadContent() {
+        reloadConfig();
+        mobManager.reload();
+        spawnListener.reload();
+        getLogger().info("Configuration and custom mobs reloaded");
+    }
+    
     /**
      * Initialize all game managers.
      */
     private void initializeManagers() {
+        // Shared entity ownership index (persisted in entity PDC)
+        entityOwnershipRegistry = new com.nightslayer.mmorpg.mobs.EntityOwnershipRegistry(this);
+        entityOwnershipRegistry.rebuild();
+        
+        // Incremental living-entity counters for spawn limits
+        entityCounters = new com.nightslayer.mmorpg.spawns.EntityCounters(this);
+        entityCounters.start(getConfig().getLong("spawn-control.chunk-recount-interval-ticks", 200L));
+        
+        // Cached RPG levels of online players for spawn rules
+        playerLevelIndex = new com.nightslayer.mmorpg.spawns.PlayerLevelIndex(this, databaseManager);
+        playerLevelIndex.loadOnline();
+        
+        // Time-sliced, prioritized queue for all plugin spawns
+        spawnQueue = new com.nightslayer.mmorpg.spawns.SpawnQueue(this);
+        spawnQueue.start();
+        
         // Phase 3: Basic managers
         npcManager = new com.nightslayer.mmorpg.npcs.NPCManager(this);
         questManager = new com.nightslayer.mmorpg.quests.QuestManager(this);
+        questManager.start();
         itemManager = new com.nightslayer.mmorpg.items.ItemManager(this);
         mobManager = new com.nightslayer.mmorpg.mobs.MobManager(this);
         economyManager = new com.nightslayer.mmorpg.economy.EconomyManager(this);
@@ -155,16 +206,24 @@ public class MMORPGPlugin extends JavaPlugin {
         // Phase 4: Advanced managers
         getLogger().info("Initializing advanced managers...");
         craftingManager = new com.nightslayer.mmorpg.crafting.CraftingManager(databaseManager, languageManager);
+        craftingManager.loadRecipes();
+        craftableIndex = new com.nightslayer.mmorpg.crafting.CraftableIndex(this, craftingManager);
         enchantmentManager = new com.nightslayer.mmorpg.enchanting.EnchantmentManager(databaseManager, languageManager);
+        enchantmentManager.loadEnchantments();
         respawnManager = new com.nightslayer.mmorpg.respawn.RespawnManager(databaseManager);
-        dungeonManager = new com.nightslayer.mmorpg.dungeons.DungeonManager(databaseManager, languageManager);
-        invasionManager = new com.nightslayer.mmorpg.invasions.InvasionManager(databaseManager);
-        petManager = new com.nightslayer.mmorpg.pets.PetManager(databaseManager, languageManager);
-        spawnManager = new com.nightslayer.mmorpg.spawns.SpawnManager(databaseManager);
+        dungeonManager = new com.nightslayer.mmorpg.dungeons.DungeonManager(databaseManager, languageManager, spawnQueue,
+            entityOwnershipRegistry);
+        invasionManager = new com.nightslayer.mmorpg.invasions.InvasionManager(databaseManager, entityOwnershipRegistry,
+            spawnQueue);
+        petManager = new com.nightslayer.mmorpg.pets.PetManager(databaseManager, languageManager,
+            new com.nightslayer.mmorpg.pets.PetController(this));
+        spawnManager = new com.nightslayer.mmorpg.spawns.SpawnManager(databaseManager, entityOwnershipRegistry,
+            new com.nightslayer.mmorpg.spawns.SafeLocationService(this), spawnQueue);
         rankManager = new com.nightslayer.mmorpg.ranks.RankManager(databaseManager, languageManager);
+        rankManager.loadOnline();
         achievementManager = new com.nightslayer.mmorpg.achievements.AchievementManager(databaseManager, languageManager);
         bestiaryManager = new com.nightslayer.mmorpg.bestiary.BestiaryManager(databaseManager, languageManager);
-        adminAPI = new com.nightslayer.mmorpg.api.RPGAdminAPI(databaseManager);
+        adminAPI = new com.nightslayer.mmorpg.api.RPGAdminAPI(databaseManager, playerLevelIndex);
 
         // Post-launch managers
         guildManager = new com.nightslayer.mmorpg.social.GuildManager(databaseManager);
@@ -185,13 +244,26 @@ public class MMORPGPlugin extends JavaPlugin {
      */
     private void registerListeners() {
         // Phase 3: Basic listeners
+        getServer().getPluginManager().registerEvents(languageManager, this);
+        getServer().getPluginManager().registerEvents(entityOwnershipRegistry, this);
+        getServer().getPluginManager().registerEvents(entityCounters, this);
+        getServer().getPluginManager().registerEvents(playerLevelIndex, this);
+        getServer().getPluginManager().registerEvents(questManager, this);
+        getServer().getPluginManager().registerEvents(rankManager, this);
+        getServer().getPluginManager().registerEvents(petManager, this);
+        getServer().getPluginManager().registerEvents(spawnManager.getSafeLocationService(), this);
+        getServer().getPluginManager().registerEvents(mobManager.getNameplates(), this);
+        getServer().getPluginManager().registerEvents(mobManager.getStateStore(), this);
         getServer().getPluginManager().registerEvents(new com.nightslayer.mmorpg.listeners.MobDeathListener(this), this);
         getServer().getPluginManager().registerEvents(new com.nightslayer.mmorpg.listeners.PlayerListener(this), this);
-        getServer().getPluginManager().registerEvents(new com.nightslayer.mmorpg.listeners.SpawnListener(this), this);
+        spawnListener = new com.nightslayer.mmorpg.listeners.SpawnListener(this);
+        getServer().getPluginManager().registerEvents(spawnListener, this);
         
         // Phase 4: Advanced listeners (TODO)
-        getServer().getPluginManager().registerEvents(new com.nightslayer.mmorpg.crafting.CraftingGUI(this), this);
-        getServer().getPluginManager().registerEvents(new com.nightslayer.mmorpg.enchanting.EnchantingGUI(this), this);
+        getServer().getPluginManager().registerEvents(craftableIndex, this);
+        getServer().getPluginManager().registerEvents(new com.nightslayer.mmorpg.gui.GuiListener(), this);
+        craftingGUI = new com.nightslayer.mmorpg.crafting.CraftingGUI(this);
+        enchantingGUI = new com.nightslayer.mmorpg.enchanting.EnchantingGUI(this);
         // getServer().getPluginManager().registerEvents(new DungeonListener(this), this);
         // getServer().getPluginManager().registerEvents(new PetListener(this), this);
         // getServer().getPluginManager().registerEvents(new SquadListener(this), this);
@@ -210,12 +282,23 @@ public class MMORPGPlugin extends JavaPlugin {
         com.nightslayer.mmorpg.commands.QuestCommand questCommand = new com.nightslayer.mmorpg.commands.QuestCommand(this);
         getCommand("quest").setExecutor(questCommand);
         getCommand("quest").setTabCompleter(questCommand);
+        com.nightslayer.mmorpg.commands.LootSimCommand lootSimCommand = new com.nightslayer.mmorpg.commands.LootSimCommand(this);
+        getCommand("lootsim").setExecutor(lootSimCommand);
+        getCommand("lootsim").setTabCompleter(lootSimCommand);
+        com.nightslayer.mmorpg.commands.CraftCommand craftCommand = new com.nightslayer.mmorpg.commands.CraftCommand(this);
+        getCommand("craft").setExecutor(craftCommand);
+        getCommand("craft").setTabCompleter(craftCommand);
+        com.nightslayer.mmorpg.commands.LanguageCommand languageCommand = new com.nightslayer.mmorpg.commands.LanguageCommand(this);
+        getCommand("language").setExecutor(languageCommand);
+        getCommand("language").setTabCompleter(languageCommand);
         // getCommand("pay").setExecutor(new PayCommand(this));
         // getCommand("squad").setExecutor(new SquadCommand(this));
         // getCommand("pets").setExecutor(new PetsCommand(this));
         // getCommand("bestiary").setExecutor(new BestiaryCommand(this));
         // getCommand("achievements").setExecutor(new AchievementsCommand(this));
-        // getCommand("mmorpgadmin").setExecutor(new AdminCommand(this));
+        com.nightslayer.mmorpg.commands.AdminCommand adminCommand = new com.nightslayer.mmorpg.commands.AdminCommand(this);
+        getCommand("mmorpgadmin").setExecutor(adminCommand);
+        getCommand("mmorpgadmin").setTabCompleter(adminCommand);
     }
     
     // Getters for managers
@@ -236,6 +319,22 @@ public class MMORPGPlugin extends JavaPlugin {
         return languageManager;
     }
     
+    public com.nightslayer.mmorpg.mobs.EntityOwnershipRegistry getEntityOwnershipRegistry() {
+        return entityOwnershipRegistry;
+    }
+    
+    public com.nightslayer.mmorpg.spawns.EntityCounters getEntityCounters() {
+        return entityCounters;
+    }
+    
+    public com.nightslayer.mmorpg.spawns.PlayerLevelIndex getPlayerLevelIndex() {
+        return playerLevelIndex;
+    }
+    
+    public com.nightslayer.mmorpg.spawns.SpawnQueue getSpawnQueue() {
+        return spawnQueue;
+    }
+    
     public com.nightslayer.mmorpg.economy.EconomyManager getEconomyManager() {
         return economyManager;
     }
@@ -262,9 +361,21 @@ public class MMORPGPlugin extends JavaPlugin {
         return craftingManager;
     }
     
+    public com.nightslayer.mmorpg.crafting.CraftableIndex getCraftableIndex() {
+        return craftableIndex;
+    }
+    
+    public com.nightslayer.mmorpg.crafting.CraftingGUI getCraftingGUI() {
+        return craftingGUI;
+    }
+    
     public com.nightslayer.mmorpg.enchanting.EnchantmentManager getEnchantmentManager() {
         return enchantmentManager;
     }
+    
+    public com.nightslayer.mmorpg.enchanting.EnchantingGUI getEnchantingGUI() {
+        return enchantingGUI;
+    }
 
     public com.nightslayer.mmorpg.social.GuildManager getGuildManager() {
         return guildManager;
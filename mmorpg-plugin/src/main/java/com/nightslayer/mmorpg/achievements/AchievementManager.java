@@ -2,7 +2,6 @@ package com.nightslayer.mmorpg.achievements;
 
 import com.nightslayer.mmorpg.database.DatabaseManager;
 import com.nightslayer.mmorpg.i18n.LanguageManager;
-import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
@@ -26,7 +25,6 @@ public class AchievementManager {
     private final DatabaseManager dbManager;
     private final LanguageManager langManager;
     private final Map<String, Achievement> achievements;
-    private static final LegacyComponentSerializer LEGACY = LegacyComponentSerializer.legacySection();
     
     public AchievementManager(DatabaseManager dbManager, LanguageManager langManager) {
         this.dbManager = dbManager;
@@ -150,10 +148,10 @@ public class AchievementManager {
             giveRewards(player, achievement);
             
             // Announce
-            Bukkit.broadcast(LEGACY.deserialize(langManager.getMessage("achievement.unlocked",
-                player.getName(), achievement.getName())));
+            langManager.broadcast("achievement.unlocked",
+                player.getName(), achievement.getName());
             
-            player.sendMessage(langManager.getMessage("achievement.reward",
+            player.sendMessage(langManager.getMessage(player, "achievement.reward",
                 achievement.getCoinReward(), achievement.getExpReward()));
             
         } catch (SQLException e) {
@@ -1,6 +1,7 @@
 package com.nightslayer.mmorpg.api;
 
 import com.nightslayer.mmorpg.database.DatabaseManager;
+import com.nightslayer.mmorpg.spawns.PlayerLevelIndex;
 import org.bukkit.Bukkit;
 
 import java.sql.PreparedStatement;
@@ -22,9 +23,11 @@ import java.util.logging.Level;
 public class RPGAdminAPI {
     
     private final DatabaseManager dbManager;
+    private final PlayerLevelIndex levelIndex;
     
-    public RPGAdminAPI(DatabaseManager dbManager) {
+    public RPGAdminAPI(DatabaseManager dbManager, PlayerLevelIndex levelIndex) {
         this.dbManager = dbManager;
+        this.levelIndex = levelIndex;
     }
     
     // ==================== PLAYER MANAGEMENT ====================
@@ -123,7 +126,17 @@ public class RPGAdminAPI {
             stmt.setInt(1, level);
             stmt.setInt(2, experience);
             stmt.setString(3, uuid);
-            return stmt.executeUpdate() > 0;
+            if (stmt.executeUpdate() == 0) {
+                return false;
+            }
+            
+            // Keep the cached level of an online player in step
+            try {
+                levelIndex.updateLevel(UUID.fromString(uuid), level);
+            } catch (IllegalArgumentException ignored) {
+                // Not a UUID, so it can't be an indexed player
+            }
+            return true;
         } catch (SQLException e) {
             Bukkit.getLogger().log(Level.SEVERE, "[MMORPG API] Error updating level", e);
             return false;
@@ -121,7 +121,7 @@ public class BestiaryManager {
             // Give rewards
             giveRewards(player, entry);
             
-            player.sendMessage(langManager.getMessage("bestiary.completed",
+            player.sendMessage(langManager.getMessage(player, "bestiary.completed",
                 entry.getName(), entry.getCoinReward(), entry.getExpReward()));
             
         } catch (SQLException e) {
@@ -0,0 +1,50 @@
+package com.nightslayer.mmorpg.commands;
+
+import com.nightslayer.mmorpg.MMORPGPlugin;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plugin administration
+ * Usage: /mmorpgadmin reload
+ */
+public class AdminCommand implements CommandExecutor, TabCompleter {
+    private final MMORPGPlugin plugin;
+
+    public AdminCommand(MMORPGPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command,
+                            @NotNull String label, @NotNull String[] args) {
+        if (args.length == 0 || !args[0].equalsIgnoreCase("reload")) {
+            sender.sendMessage("§eUso: /" + label + " reload");
+            return true;
+        }
+        if (!sender.hasPermission("mmorpg.admin.reload")) {
+            sender.sendMessage("§cNo tienes permiso para usar este comando");
+            return true;
+        }
+
+        plugin.reloadContent();
+        sender.sendMessage("§aConfiguración y mobs personalizados recargados.");
+        return true;
+    }
+
+    @Override
+    public List<String> onTabComplete(@NotNull CommandSender sender, @NotNull Command command,
+                                      @NotNull String alias, @NotNull String[] args) {
+        List<String> completions = new ArrayList<>();
+        if (args.length == 1 && "reload".startsWith(args[0].toLowerCase())) {
+            completions.add("reload");
+        }
+        return completions;
+    }
+}
@@ -19,13 +19,13 @@ public class BalanceCommand implements CommandExecutor {
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         if (!(sender instanceof Player)) {
-            sender.sendMessage(lang.getMessage("general.player_only"));
+            sender.sendMessage(lang.getMessage(sender, "general.player_only"));
             return true;
         }
         
         Player player = (Player) sender;
         int balance = plugin.getEconomyManager().getBalance(player.getUniqueId());
-        player.sendMessage(lang.getMessage("economy.balance", "coins", balance));
+        player.sendMessage(lang.getMessage(player, "economy.balance", "coins", balance));
         
         return true;
     }
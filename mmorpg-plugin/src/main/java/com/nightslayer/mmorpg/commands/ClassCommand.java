@@ -19,20 +19,20 @@ public class ClassCommand implements CommandExecutor {
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         if (!(sender instanceof Player)) {
-            sender.sendMessage(lang.getMessage("general.player_only"));
+            sender.sendMessage(lang.getMessage(sender, "general.player_only"));
             return true;
         }
         
         Player player = (Player) sender;
         
         if (args.length == 0) {
-            player.sendMessage(lang.getMessage("classes.choose_prompt"));
+            player.sendMessage(lang.getMessage(player, "classes.choose_prompt"));
             return true;
         }
         
         String playerClass = args[0].toLowerCase();
         if (!playerClass.matches("warrior|mage|rogue|paladin")) {
-            player.sendMessage(lang.getMessage("classes.choose_prompt"));
+            player.sendMessage(lang.getMessage(player, "classes.choose_prompt"));
             return true;
         }
         
@@ -40,7 +40,7 @@ public class ClassCommand implements CommandExecutor {
         String sql = "UPDATE players SET player_class = ? WHERE uuid = ?";
         plugin.getDatabaseManager().executeUpdate(sql, playerClass, player.getUniqueId().toString());
         
-        player.sendMessage(lang.getMessage("classes.changed", "class", playerClass));
+        player.sendMessage(lang.getMessage(player, "classes.changed", "class", playerClass));
         return true;
     }
 }
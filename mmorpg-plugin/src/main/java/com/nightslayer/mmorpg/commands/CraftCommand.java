@@ -0,0 +1,127 @@
+package com.nightslayer.mmorpg.commands;
+
+import com.nightslayer.mmorpg.MMORPGPlugin;
+import com.nightslayer.mmorpg.crafting.CraftingManager;
+import com.nightslayer.mmorpg.crafting.CraftingPlanner;
+import org.bukkit.Material;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Crafts an item in one action, crafting intermediate materials as needed
+ * Usage: /craft [plan] <item> [amount]
+ */
+public class CraftCommand implements CommandExecutor, TabCompleter {
+    private static final int MAX_AMOUNT = 2304; // 36 stacks
+
+    private final MMORPGPlugin plugin;
+
+    public CraftCommand(MMORPGPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command,
+                            @NotNull String label, @NotNull String[] args) {
+        if (!(sender instanceof Player player)) {
+            sender.sendMessage(plugin.getLanguageManager().getMessage(sender, "general.player_only"));
+            return true;
+        }
+
+        boolean preview = args.length > 0 && args[0].equalsIgnoreCase("plan");
+        int offset = preview ? 1 : 0;
+        if (args.length <= offset) {
+            player.sendMessage("§eUso: /" + label + " [plan] <item> [cantidad]");
+            return true;
+        }
+
+        Material target = Material.matchMaterial(args[offset]);
+        if (target == null) {
+            player.sendMessage("§cItem desconocido: " + args[offset]);
+            return true;
+        }
+
+        int amount = 1;
+        if (args.length > offset + 1) {
+            try {
+                amount = Integer.parseInt(args[offset + 1]);
+            } catch (NumberFormatException e) {
+                player.sendMessage("§cCantidad inválida: " + args[offset + 1]);
+                return true;
+            }
+        }
+        if (amount <= 0 || amount > MAX_AMOUNT) {
+            player.sendMessage("§cLa cantidad debe estar entre 1 y " + MAX_AMOUNT);
+            return true;
+        }
+
+        CraftingManager craftingManager = plugin.getCraftingManager();
+        if (preview) {
+            showPlan(player, craftingManager.planCraft(player, target, amount));
+        } else {
+            if (craftingManager.craftPlanned(player, target, amount)) {
+                plugin.getCraftableIndex().markDirty(player);
+            }
+        }
+        return true;
+    }
+
+    private void showPlan(Player player, CraftingPlanner.Plan plan) {
+        String target = plan.getTarget().name().toLowerCase().replace('_', ' ');
+        if (!plan.isCraftable()) {
+            player.sendMessage(plugin.getLanguageManager().getMessage(player, "crafting.plan_impossible", "item", target));
+            return;
+        }
+
+        player.sendMessage("§6§l=== Plan: " + plan.getAmount() + "x " + target + " ===");
+        int step = 1;
+        for (CraftingPlanner.Step planStep : plan.getSteps()) {
+            CraftingManager.CraftingRecipe recipe = planStep.getRecipe();
+            player.sendMessage("§7" + step++ + ". §f" + recipe.getName() + " §7x" + planStep.getCrafts()
+                + " §8(" + recipe.getResultAmount() * planStep.getCrafts() + " " + recipe.getResultItem().toLowerCase() + ")");
+        }
+        if (plan.getCoinCost() > 0) {
+            player.sendMessage("§eCoste: " + plan.getCoinCost() + " monedas");
+        }
+        if (plan.isFeasible()) {
+            player.sendMessage("§aTienes todo lo necesario. Usa /craft " + plan.getTarget().name().toLowerCase()
+                + " " + plan.getAmount() + " para craftearlo.");
+        } else {
+            player.sendMessage("§cTe faltan:");
+            for (Map.Entry<Material, Integer> entry : plan.getMissing().entrySet()) {
+                player.sendMessage("§7- §f" + entry.getValue() + "x " + entry.getKey().name().toLowerCase().replace('_', ' '));
+            }
+        }
+    }
+
+    @Override
+    public List<String> onTabComplete(@NotNull CommandSender sender, @NotNull Command command,
+                                      @NotNull String alias, @NotNull String[] args) {
+        List<String> completions = new ArrayList<>();
+        int offset = args.length > 1 && args[0].equalsIgnoreCase("plan") ? 1 : 0;
+        if (args.length == offset + 1) {
+            String prefix = args[offset].toLowerCase();
+            if (offset == 0 && "plan".startsWith(prefix)) {
+                completions.add("plan");
+            }
+            CraftingManager craftingManager = plugin.getCraftingManager();
+            for (int i = 0; i < craftingManager.getRecipeCount(); i++) {
+                Material result = craftingManager.getRecipe(i).getResultMaterial();
+                if (result == null) continue;
+                String name = result.name().toLowerCase();
+                if (name.startsWith(prefix) && !completions.contains(name)) {
+                    completions.add(name);
+                }
+            }
+        }
+        return completions;
+    }
+}
@@ -0,0 +1,77 @@
+package com.nightslayer.mmorpg.commands;
+
+import com.nightslayer.mmorpg.MMORPGPlugin;
+import com.nightslayer.mmorpg.i18n.LanguageManager;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chooses the language a player receives messages in
+ * Usage: /language [code|auto]
+ */
+public class LanguageCommand implements CommandExecutor, TabCompleter {
+    private final LanguageManager lang;
+
+    public LanguageCommand(MMORPGPlugin plugin) {
+        this.lang = plugin.getLanguageManager();
+    }
+
+    @Override
+    public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command,
+                            @NotNull String label, @NotNull String[] args) {
+        if (!(sender instanceof Player player)) {
+            sender.sendMessage(lang.getMessage(sender, "general.player_only"));
+            return true;
+        }
+
+        if (args.length == 0) {
+            String code = lang.getLanguage(player);
+            player.sendMessage(lang.getMessage(player, "general.language_current",
+                "language", lang.getLanguageName(code), "code", code));
+            return true;
+        }
+
+        if (args[0].equalsIgnoreCase("auto")) {
+            lang.setPlayerLanguage(player, null);
+            player.sendMessage(lang.getMessage(player, "general.language_auto",
+                "language", lang.getLanguageName(lang.getLanguage(player))));
+            return true;
+        }
+
+        if (!lang.setPlayerLanguage(player, args[0])) {
+            player.sendMessage(lang.getMessage(player, "general.language_unknown",
+                "code", args[0], "languages", String.join(", ", lang.getAvailableLanguages())));
+            return true;
+        }
+
+        // Confirmation already comes in the new language
+        player.sendMessage(lang.getMessage(player, "general.language_changed",
+            "language", lang.getLanguageName(lang.getLanguage(player))));
+        return true;
+    }
+
+    @Override
+    public List<String> onTabComplete(@NotNull CommandSender sender, @NotNull Command command,
+                                      @NotNull String alias, @NotNull String[] args) {
+        List<String> completions = new ArrayList<>();
+        if (args.length == 1) {
+            String prefix = args[0].toLowerCase();
+            if ("auto".startsWith(prefix)) {
+                completions.add("auto");
+            }
+            for (String code : lang.getAvailableLanguages()) {
+                if (code.toLowerCase().startsWith(prefix)) {
+                    completions.add(code);
+                }
+            }
+        }
+        return completions;
+    }
+}
@@ -0,0 +1,107 @@
+package com.nightslayer.mmorpg.commands;
+
+import com.nightslayer.mmorpg.MMORPGPlugin;
+import com.nightslayer.mmorpg.mobs.LootSimulator;
+import com.nightslayer.mmorpg.mobs.LootTable;
+import com.nightslayer.mmorpg.mobs.MobDrops;
+import com.nightslayer.mmorpg.mobs.MobManager;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs a Monte Carlo simulation of a loot table off the main thread
+ * Usage: /lootsim <common|rare|boss|mob_id> [rolls] [luck] [kills_per_hour]
+ */
+public class LootSimCommand implements CommandExecutor, TabCompleter {
+    private static final long DEFAULT_ROLLS = 1_000_000L;
+    private static final long MAX_ROLLS = 100_000_000L;
+
+    private final MMORPGPlugin plugin;
+
+    public LootSimCommand(MMORPGPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command,
+                            @NotNull String label, @NotNull String[] args) {
+        if (args.length == 0) {
+            sender.sendMessage("§eUso: /" + label + " <common|rare|boss|mob_id> [tiradas] [suerte] [muertes_por_hora]");
+            return true;
+        }
+
+        String tableId = args[0];
+        LootTable table = resolveTable(tableId);
+        if (table == null) {
+            sender.sendMessage("§cTabla de botín desconocida: " + tableId);
+            return true;
+        }
+
+        long rolls;
+        int luck;
+        double killsPerHour;
+        try {
+            rolls = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_ROLLS;
+            luck = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+            killsPerHour = args.length > 3 ? Double.parseDouble(args[3]) : 600.0;
+        } catch (NumberFormatException e) {
+            sender.sendMessage("§cNúmero inválido: " + e.getMessage());
+            return true;
+        }
+        if (rolls <= 0 || rolls > MAX_ROLLS) {
+            sender.sendMessage("§cLas tiradas deben estar entre 1 y " + MAX_ROLLS);
+            return true;
+        }
+
+        sender.sendMessage("§7Simulando " + rolls + " tiradas de '" + tableId + "' (suerte " + luck + ")...");
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            LootSimulator.Result result = LootSimulator.simulate(table, rolls, luck);
+            plugin.getServer().getScheduler().runTask(plugin, () -> report(sender, tableId, result, killsPerHour));
+        });
+        return true;
+    }
+
+    private LootTable resolveTable(String tableId) {
+        switch (tableId.toLowerCase()) {
+            case "common": return MobDrops.common().getLootTable();
+            case "rare": return MobDrops.rare().getLootTable();
+            case "boss": return MobDrops.boss().getLootTable();
+            default:
+                MobManager.CustomMob mob = plugin.getMobManager().getCustomMob(tableId);
+                return mob != null ? mob.getLootTable() : null;
+        }
+    }
+
+    private void report(CommandSender sender, String tableId, LootSimulator.Result result, double killsPerHour) {
+        sender.sendMessage("§6§l=== Simulación de botín: " + tableId + " ===");
+        sender.sendMessage("§7" + result.getRolls() + " tiradas en " + result.getElapsedMillis() + " ms");
+        for (int i = 0; i < result.getItemCount(); i++) {
+            sender.sendMessage(String.format("§f%s§7: %.3f%% por muerte, %.3f por muerte",
+                result.getItem(i).name(), result.getDropRate(i) * 100, result.getAmountPerKill(i)));
+        }
+        sender.sendMessage(String.format("§eMonedas: %.2f por muerte, %.0f por hora (%.0f muertes/h)",
+            result.getCoinsPerKill(), result.getCoinsPerHour(killsPerHour), killsPerHour));
+    }
+
+    @Override
+    public List<String> onTabComplete(@NotNull CommandSender sender, @NotNull Command command,
+                                      @NotNull String alias, @NotNull String[] args) {
+        List<String> completions = new ArrayList<>();
+        if (args.length == 1) {
+            String prefix = args[0].toLowerCase();
+            for (String id : List.of("common", "rare", "boss")) {
+                if (id.startsWith(prefix)) completions.add(id);
+            }
+            for (MobManager.CustomMob mob : plugin.getMobManager().getCustomMobs()) {
+                if (mob.getId().toLowerCase().startsWith(prefix)) completions.add(mob.getId());
+            }
+        }
+        return completions;
+    }
+}
@@ -3,6 +3,8 @@ package com.nightslayer.mmorpg.commands;
 import com.nightslayer.mmorpg.MMORPGPlugin;
 import com.nightslayer.mmorpg.models.Quest;
 import com.nightslayer.mmorpg.quests.QuestManager;
+import com.nightslayer.mmorpg.quests.QuestObjective;
+import com.nightslayer.mmorpg.quests.QuestProgress;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.event.ClickEvent;
 import net.kyori.adventure.text.event.HoverEvent;
@@ -99,13 +101,7 @@ public class QuestCommand implements CommandExecutor, TabCompleter {
             return;
         }
         
-        int questId;
-        try {
-            questId = Integer.parseInt(args[1]);
-        } catch (NumberFormatException e) {
-            player.sendMessage(Component.text("ID de quest inválido.", NamedTextColor.RED));
-            return;
-        }
+        String questId = args[1];
         
         if (questManager.startQuest(player, questId)) {
             Quest quest = questManager.getQuestById(questId);
@@ -127,7 +123,7 @@ public class QuestCommand implements CommandExecutor, TabCompleter {
      * Shows quest progress
      */
     private void handleProgress(Player player) {
-        List<Quest> activeQuests = questManager.getActiveQuests(player.getUniqueId());
+        Collection<QuestProgress> activeQuests = questManager.getActiveProgress(player.getUniqueId());
         
         player.sendMessage(Component.text(""));
         player.sendMessage(Component.text("═══════════════════════════════════════", NamedTextColor.AQUA));
@@ -139,12 +135,18 @@ public class QuestCommand implements CommandExecutor, TabCompleter {
             player.sendMessage(Component.text("  No tienes quests activas.", NamedTextColor.GRAY));
             player.sendMessage(Component.text("  Usa /quest list para ver quests disponibles.", NamedTextColor.GRAY, TextDecoration.ITALIC));
         } else {
-            for (Quest quest : activeQuests) {
-                int progress = questManager.getQuestProgress(player.getUniqueId(), quest.getId());
+            for (QuestProgress questProgress : activeQuests) {
+                int progress = questProgress.getProgressPercentage();
                 String progressBar = createProgressBar(progress, 20);
                 
-                player.sendMessage(Component.text("  " + quest.getName(), NamedTextColor.GOLD, TextDecoration.BOLD));
+                player.sendMessage(Component.text("  " + questProgress.getQuest().getName(), NamedTextColor.GOLD, TextDecoration.BOLD));
                 player.sendMessage(Component.text("    " + progressBar + " " + progress + "%", NamedTextColor.YELLOW));
+                for (QuestObjective objective : questProgress.getObjectives()) {
+                    player.sendMessage(Component.text("    " + (objective.isCompleted() ? "✓ " : "• "),
+                            objective.isCompleted() ? NamedTextColor.GREEN : NamedTextColor.GRAY)
+                            .append(Component.text(objective.getDescription() + " ", NamedTextColor.WHITE))
+                            .append(Component.text(objective.getProgressString(), NamedTextColor.YELLOW)));
+                }
                 player.sendMessage(Component.text(""));
             }
         }
@@ -162,13 +164,7 @@ public class QuestCommand implements CommandExecutor, TabCompleter {
             return;
         }
         
-        int questId;
-        try {
-            questId = Integer.parseInt(args[1]);
-        } catch (NumberFormatException e) {
-            player.sendMessage(Component.text("ID de quest inválido.", NamedTextColor.RED));
-            return;
-        }
+        String questId = args[1];
         
         if (questManager.abandonQuest(player.getUniqueId(), questId)) {
             player.sendMessage(Component.text("✗ Quest abandonada.", NamedTextColor.YELLOW));
@@ -187,13 +183,7 @@ public class QuestCommand implements CommandExecutor, TabCompleter {
             return;
         }
         
-        int questId;
-        try {
-            questId = Integer.parseInt(args[1]);
-        } catch (NumberFormatException e) {
-            player.sendMessage(Component.text("ID de quest inválido.", NamedTextColor.RED));
-            return;
-        }
+        String questId = args[1];
         
         Quest quest = questManager.getQuestById(questId);
         if (quest == null) {
@@ -214,10 +204,11 @@ public class QuestCommand implements CommandExecutor, TabCompleter {
         player.sendMessage(Component.text(""));
         
         // Show start button if not started
-        boolean hasQuest = questManager.getActiveQuests(player.getUniqueId()).stream()
-            .anyMatch(q -> q.getId() == questId);
+        boolean hasQuest = questManager.getProgress(player.getUniqueId(), questId) != null;
         
-        if (!hasQuest) {
+        if (questManager.hasCompleted(player.getUniqueId(), questId)) {
+            player.sendMessage(Component.text("  ✓ Quest completada", NamedTextColor.GREEN));
+        } else if (!hasQuest) {
             Component startButton = Component.text("[INICIAR QUEST]", NamedTextColor.GREEN, TextDecoration.BOLD)
                     .hoverEvent(HoverEvent.showText(Component.text("Click para iniciar", NamedTextColor.GREEN)))
                     .clickEvent(ClickEvent.runCommand("/quest start " + questId));
@@ -279,8 +270,11 @@ public class QuestCommand implements CommandExecutor, TabCompleter {
         if (args.length == 2 && (args[0].equalsIgnoreCase("start") || 
                                   args[0].equalsIgnoreCase("info") || 
                                   args[0].equalsIgnoreCase("abandon"))) {
-            // Could return quest IDs here
-            return Collections.emptyList();
+            String prefix = args[1].toLowerCase();
+            return questManager.getAllQuests().stream()
+                    .map(Quest::getId)
+                    .filter(id -> id.toLowerCase().startsWith(prefix))
+                    .collect(Collectors.toList());
         }
         
         return Collections.emptyList();
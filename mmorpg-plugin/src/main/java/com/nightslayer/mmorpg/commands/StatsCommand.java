@@ -21,7 +21,7 @@ public class StatsCommand implements CommandExecutor {
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         if (!(sender instanceof Player)) {
-            sender.sendMessage(lang.getMessage("general.player_only"));
+            sender.sendMessage(lang.getMessage(sender, "general.player_only"));
             return true;
         }
         
@@ -30,12 +30,12 @@ public class StatsCommand implements CommandExecutor {
         
         try (ResultSet rs = plugin.getDatabaseManager().executeQuery(sql, player.getUniqueId().toString())) {
             if (rs.next()) {
-                player.sendMessage(lang.getMessage("stats.title", "player", player.getName()));
-                player.sendMessage(lang.getMessage("stats.level", "level", rs.getInt("level")));
-                player.sendMessage(lang.getMessage("stats.experience", "exp", rs.getInt("experience"), "max_exp", 1000));
+                player.sendMessage(lang.getMessage(player, "stats.title", "player", player.getName()));
+                player.sendMessage(lang.getMessage(player, "stats.level", "level", rs.getInt("level")));
+                player.sendMessage(lang.getMessage(player, "stats.experience", "exp", rs.getInt("experience"), "max_exp", 1000));
             }
         } catch (Exception e) {
-            player.sendMessage(lang.getMessage("general.error"));
+            player.sendMessage(lang.getMessage(player, "general.error"));
             e.printStackTrace();
         }
         
@@ -0,0 +1,237 @@
+package com.nightslayer.mmorpg.crafting;
+
+import com.nightslayer.mmorpg.MMORPGPlugin;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityPickupItemEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.PlayerDropItemEvent;
+import org.bukkit.event.player.PlayerItemConsumeEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Tracks which crafting recipes each player can craft with their inventory
+ *
+ * Features:
+ * - Per-player BitSet of craftable recipes, indexed by recipe index
+ * - Inventory events only mark a player dirty; one refresh next tick
+ *   diffs the inventory histogram against the previous one and
+ *   re-evaluates just the recipes using a changed material, through
+ *   CraftingManager's ingredient inverted index
+ * - Players are tracked from their first query (e.g. opening the crafting
+ *   GUI) until they quit, so nobody else pays for it
+ * - Opening the crafting GUI invalidates the player's set, covering
+ *   inventory changes made by the plugin itself, which fire no event
+ *
+ * A recipe reload invalidates every bitset; each is rebuilt in full on its
+ * next refresh.
+ */
+public class CraftableIndex implements Listener {
+
+    private final MMORPGPlugin plugin;
+    private final CraftingManager craftingManager;
+    private final Map<UUID, PlayerState> states;
+    private final List<PlayerState> pending;
+    private final InventoryHistogram scratch;
+    private final BitSet affected;
+    private boolean flushScheduled;
+
+    public CraftableIndex(MMORPGPlugin plugin, CraftingManager craftingManager) {
+        this.plugin = plugin;
+        this.craftingManager = craftingManager;
+        this.states = new HashMap<>();
+        this.pending = new ArrayList<>();
+        this.scratch = new InventoryHistogram();
+        this.affected = new BitSet();
+    }
+
+    /**
+     * Recipes the player can craft at least once right now, by recipe index
+     * (do not modify)
+     */
+    public BitSet getCraftable(Player player) {
+        return refreshed(player).craftable;
+    }
+
+    public boolean isCraftable(Player player, CraftingManager.CraftingRecipe recipe) {
+        return recipe.getIndex() >= 0 && getCraftable(player).get(recipe.getIndex());
+    }
+
+    /**
+     * Times the player can craft a recipe by materials alone
+     */
+    public int getMaxCrafts(Player player, CraftingManager.CraftingRecipe recipe) {
+        return recipe.getMaxCrafts(refreshed(player).counts);
+    }
+
+    /**
+     * Schedule a refresh of a tracked player's craftable set
+     */
+    public void markDirty(HumanEntity entity) {
+        PlayerState state = states.get(entity.getUniqueId());
+        if (state == null || state.dirty) return;
+
+        state.dirty = true;
+        pending.add(state);
+        if (!flushScheduled) {
+            flushScheduled = true;
+            // Inventory is final after the event, so refresh once next tick
+            plugin.getServer().getScheduler().runTask(plugin, this::flush);
+        }
+    }
+
+    /**
+     * Force a tracked player's next query to re-read their inventory. Plugin
+     * side changes (rewards, shop purchases, crafts, death drops) fire no
+     * inventory event, so callers showing the set do this first.
+     */
+    public void invalidate(Player player) {
+        PlayerState state = states.get(player.getUniqueId());
+        if (state != null) {
+            state.dirty = true;
+        }
+    }
+
+    private PlayerState refreshed(Player player) {
+        PlayerState state = states.get(player.getUniqueId());
+        if (state == null) {
+            state = new PlayerState(player);
+            states.put(player.getUniqueId(), state);
+            rebuild(state);
+        } else if (state.dirty || state.generation != craftingManager.getRecipeGeneration()) {
+            refresh(state);
+        }
+        return state;
+    }
+
+    private void flush() {
+        flushScheduled = false;
+        for (int i = 0; i < pending.size(); i++) {
+            PlayerState state = pending.get(i);
+            if (state.dirty && state.player.isOnline()) {
+                refresh(state);
+            }
+        }
+        pending.clear();
+    }
+
+    private void refresh(PlayerState state) {
+        state.dirty = false;
+        if (state.generation != craftingManager.getRecipeGeneration()) {
+            rebuild(state);
+            return;
+        }
+
+        scratch.fill(state.player.getInventory().getContents());
+        affected.clear();
+        collectChanged(state.counts, scratch);
+        collectChanged(scratch, state.counts);
+        state.counts.copyFrom(scratch);
+
+        for (int i = affected.nextSetBit(0); i >= 0; i = affected.nextSetBit(i + 1)) {
+            state.craftable.set(i, craftingManager.getRecipe(i).getMaxCrafts(state.counts) > 0);
+        }
+    }
+
+    /**
+     * Mark recipes using any material whose count differs between a and b
+     * (only materials touched in a are visited)
+     */
+    private void collectChanged(InventoryHistogram a, InventoryHistogram b) {
+        for (int i = 0; i < a.touchedCount(); i++) {
+            int ordinal = a.touchedAt(i);
+            if (a.count(ordinal) != b.count(ordinal)) {
+                for (int recipe : craftingManager.getRecipesUsing(ordinal)) {
+                    affected.set(recipe);
+                }
+            }
+        }
+    }
+
+    private void rebuild(PlayerState state) {
+        state.dirty = false;
+        state.generation = craftingManager.getRecipeGeneration();
+        state.counts.fill(state.player.getInventory().getContents());
+        state.craftable.clear();
+        for (int i = 0; i < craftingManager.getRecipeCount(); i++) {
+            if (craftingManager.getRecipe(i).getMaxCrafts(state.counts) > 0) {
+                state.craftable.set(i);
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryClick(InventoryClickEvent event) {
+        markDirty(event.getWhoClicked());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryDrag(InventoryDragEvent event) {
+        markDirty(event.getWhoClicked());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInventoryClose(InventoryCloseEvent event) {
+        markDirty(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPickup(EntityPickupItemEvent event) {
+        if (event.getEntity() instanceof Player player) {
+            markDirty(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDrop(PlayerDropItemEvent event) {
+        markDirty(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onConsume(PlayerItemConsumeEvent event) {
+        markDirty(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        markDirty(event.getPlayer());
+    }
+
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        PlayerState state = states.remove(event.getPlayer().getUniqueId());
+        if (state != null) {
+            state.dirty = false;
+        }
+    }
+
+    /**
+     * Craftability state of one tracked player
+     */
+    private static final class PlayerState {
+        private final Player player;
+        private final InventoryHistogram counts;
+        private final BitSet craftable;
+        private int generation = -1;
+        private boolean dirty;
+
+        private PlayerState(Player player) {
+            this.player = player;
+            this.counts = new InventoryHistogram();
+            this.craftable = new BitSet();
+        }
+    }
+}
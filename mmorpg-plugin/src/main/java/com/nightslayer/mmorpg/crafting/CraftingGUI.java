@@ -2,6 +2,8 @@ package com.nightslayer.mmorpg.crafting;
 
 import com.nightslayer.mmorpg.MMORPGPlugin;
 import com.nightslayer.mmorpg.economy.EconomyManager;
+import com.nightslayer.mmorpg.gui.GuiTemplate;
+import com.nightslayer.mmorpg.gui.GuiView;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextDecoration;
@@ -9,10 +11,8 @@ import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.Sound;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryClickEvent;
-import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 
@@ -20,42 +20,48 @@ import java.util.*;
 
 /**
  * GUI interface for the custom crafting system
+ *
+ * Besides the crafting grid, a row lists the recipes the player can craft
+ * right now from their inventory (most crafts first). Click crafts once,
+ * shift-click crafts as many as possible.
+ *
+ * Border, instructions and craft button come from one shared template;
+ * result preview and craftable icons are cached and only changed slots
+ * are sent on refresh.
  */
-public class CraftingGUI implements Listener {
-    
+public class CraftingGUI {
+
     private final MMORPGPlugin plugin;
     private final CraftingManager craftingManager;
     private final EconomyManager economyManager;
-    private final Map<UUID, Inventory> activeGUIs;
-    
+    private final CraftableIndex craftableIndex;
+    private final GuiTemplate template;
+
+    // Icon caches, valid for one recipe generation
+    private final Map<String, ItemStack> previewIcons;
+    private final Map<String, ItemStack> craftableIcons;
+    private int iconGeneration;
+
     // GUI slots
     private static final int[] RECIPE_SLOTS = {10, 11, 12, 19, 20, 21, 28, 29, 30};
     private static final int RESULT_SLOT = 24;
     private static final int INFO_SLOT = 4;
     private static final int CRAFT_BUTTON_SLOT = 49;
-    
+    private static final int[] CRAFTABLE_SLOTS = {37, 38, 39, 40, 41, 42, 43};
+    private static final int MAX_CACHED_ICONS = 512;
+
     public CraftingGUI(MMORPGPlugin plugin) {
         this.plugin = plugin;
         this.craftingManager = plugin.getCraftingManager();
         this.economyManager = plugin.getEconomyManager();
-        this.activeGUIs = new HashMap<>();
+        this.craftableIndex = plugin.getCraftableIndex();
+        this.template = buildTemplate();
+        this.previewIcons = new HashMap<>();
+        this.craftableIcons = new HashMap<>();
+        this.iconGeneration = craftingManager.getRecipeGeneration();
     }
-    
-    /**
-     * Opens the crafting GUI for a player
-     */
-    public void openCraftingGUI(Player player) {
-        Inventory gui = Bukkit.createInventory(null, 54, 
-                Component.text("Mesa de Crafteo RPG", NamedTextColor.DARK_PURPLE, TextDecoration.BOLD));
-        
-        // Fill borders with glass panes
-        ItemStack border = new ItemStack(Material.GRAY_STAINED_GLASS_PANE);
-        for (int i = 0; i < 54; i++) {
-            if (!isRecipeSlot(i) && i != RESULT_SLOT && i != CRAFT_BUTTON_SLOT) {
-                gui.setItem(i, border);
-            }
-        }
-        
+
+    private static GuiTemplate buildTemplate() {
         // Set info item
         ItemStack info = new ItemStack(Material.BOOK);
         info.editMeta(meta -> {
@@ -69,8 +75,7 @@ public class CraftingGUI implements Listener {
             lore.add(Component.text("Algunas recetas requieren coins o XP", NamedTextColor.GOLD));
             meta.lore(lore);
         });
-        gui.setItem(INFO_SLOT, info);
-        
+
         // Set craft button
         ItemStack craftButton = new ItemStack(Material.CRAFTING_TABLE);
         craftButton.editMeta(meta -> {
@@ -80,81 +85,76 @@ public class CraftingGUI implements Listener {
             lore.add(Component.text("Click para craftear el item", NamedTextColor.GRAY));
             meta.lore(lore);
         });
-        gui.setItem(CRAFT_BUTTON_SLOT, craftButton);
-        
-        activeGUIs.put(player.getUniqueId(), gui);
-        player.openInventory(gui);
-        player.playSound(player.getLocation(), Sound.BLOCK_CHEST_OPEN, 1.0f, 1.0f);
+
+        return GuiTemplate.builder(54,
+                        Component.text("Mesa de Crafteo RPG", NamedTextColor.DARK_PURPLE, TextDecoration.BOLD))
+                .fill(new ItemStack(Material.GRAY_STAINED_GLASS_PANE))
+                .clear(RECIPE_SLOTS)
+                .clear(RESULT_SLOT)
+                .set(INFO_SLOT, info)
+                .set(CRAFT_BUTTON_SLOT, craftButton)
+                .build();
     }
-    
+
     /**
-     * Checks if a slot is a recipe slot
+     * Opens the crafting GUI for a player
      */
-    private boolean isRecipeSlot(int slot) {
-        for (int recipeSlot : RECIPE_SLOTS) {
-            if (slot == recipeSlot) return true;
+    public void openCraftingGUI(Player player) {
+        // Rewards, purchases and deaths change the inventory without an event
+        craftableIndex.invalidate(player);
+        new CraftingView(player).open(player);
+        player.playSound(player.getLocation(), Sound.BLOCK_CHEST_OPEN, 1.0f, 1.0f);
+    }
+
+    private static int indexOf(int[] slots, int slot) {
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] == slot) return i;
         }
-        return false;
+        return -1;
     }
-    
+
     /**
-     * Handles GUI clicks
+     * Drops cached icons when recipes were reloaded or the cache grew too large
      */
-    @EventHandler
-    public void onInventoryClick(InventoryClickEvent event) {
-        if (!(event.getWhoClicked() instanceof Player player)) return;
-        if (!activeGUIs.containsKey(player.getUniqueId())) return;
-        
-        Inventory gui = activeGUIs.get(player.getUniqueId());
-        if (!event.getInventory().equals(gui)) return;
-        
-        int slot = event.getRawSlot();
-        
-        // Allow clicks in player inventory
-        if (slot >= 54) {
-            return;
-        }
-        
-        // Allow clicks in recipe slots
-        if (isRecipeSlot(slot)) {
-            // Update recipe preview after a tick
-            Bukkit.getScheduler().runTaskLater(plugin, () -> updateRecipePreview(player, gui), 1L);
-            return;
+    private void validateIconCache() {
+        int generation = craftingManager.getRecipeGeneration();
+        if (generation != iconGeneration || craftableIcons.size() > MAX_CACHED_ICONS) {
+            iconGeneration = generation;
+            previewIcons.clear();
+            craftableIcons.clear();
         }
-        
-        // Handle craft button click
-        if (slot == CRAFT_BUTTON_SLOT) {
-            event.setCancelled(true);
-            handleCraft(player, gui);
-            return;
-        }
-        
-        // Cancel all other clicks
-        event.setCancelled(true);
     }
-    
-    /**
-     * Updates the recipe preview based on current materials
-     */
-    private void updateRecipePreview(Player player, Inventory gui) {
-        // Get materials from recipe slots
-        Map<Material, Integer> materials = new HashMap<>();
-        for (int slot : RECIPE_SLOTS) {
-            ItemStack item = gui.getItem(slot);
-            if (item != null && item.getType() != Material.AIR) {
-                materials.put(item.getType(), materials.getOrDefault(item.getType(), 0) + item.getAmount());
+
+    private ItemStack getCraftableIcon(CraftingManager.CraftingRecipe recipe, int maxCrafts) {
+        return craftableIcons.computeIfAbsent(recipe.getRecipeId() + ":" + maxCrafts,
+                key -> createCraftableIcon(recipe, maxCrafts));
+    }
+
+    private ItemStack createCraftableIcon(CraftingManager.CraftingRecipe recipe, int maxCrafts) {
+        Material material = recipe.getResultMaterial() != null ? recipe.getResultMaterial() : Material.PAPER;
+        ItemStack icon = new ItemStack(material, Math.max(1, Math.min(material.getMaxStackSize(), recipe.getResultAmount())));
+        icon.editMeta(meta -> {
+            meta.displayName(Component.text(recipe.getName(), NamedTextColor.GREEN, TextDecoration.BOLD));
+            List<Component> lore = new ArrayList<>();
+            lore.add(Component.text(""));
+            lore.add(Component.text("Puedes craftear: x" + maxCrafts, NamedTextColor.YELLOW));
+            if (recipe.getCoinCost() > 0) {
+                lore.add(Component.text("Costo: " + recipe.getCoinCost() + " coins", NamedTextColor.GOLD));
             }
-        }
-        
-        // Find matching recipe
-        CraftingManager.CraftingRecipe recipe = findMatchingRecipe(player, materials);
-        
-        if (recipe != null) {
-            // Show result
-            Material resultMaterial = Material.getMaterial(recipe.getResultItem().toUpperCase());
+            lore.add(Component.text(""));
+            lore.add(Component.text("Click: craftear 1", NamedTextColor.GRAY));
+            lore.add(Component.text("Shift+Click: craftear el máximo", NamedTextColor.GRAY));
+            meta.lore(lore);
+        });
+        return icon;
+    }
+
+    private ItemStack getPreviewIcon(CraftingManager.CraftingRecipe recipe) {
+        // A null result material is cached too, as a missing entry would be rebuilt every refresh
+        ItemStack icon = previewIcons.computeIfAbsent(recipe.getRecipeId(), key -> {
+            Material resultMaterial = recipe.getResultMaterial();
             if (resultMaterial == null) {
-                gui.setItem(RESULT_SLOT, null);
-                return;
+                return new ItemStack(Material.AIR);
             }
             ItemStack result = new ItemStack(resultMaterial, recipe.getResultAmount());
             result.editMeta(meta -> {
@@ -168,122 +168,278 @@ public class CraftingGUI implements Listener {
                 }
                 meta.lore(lore);
             });
-            gui.setItem(RESULT_SLOT, result);
-        } else {
-            // No matching recipe
-            gui.setItem(RESULT_SLOT, null);
-        }
+            return result;
+        });
+        return icon.getType() == Material.AIR ? null : icon;
     }
-    
+
     /**
-     * Handles crafting attempt
+     * One player's session at the crafting table
      */
-    private void handleCraft(Player player, Inventory gui) {
-        // Get materials from recipe slots
-        Map<Material, Integer> materials = new HashMap<>();
-        for (int slot : RECIPE_SLOTS) {
-            ItemStack item = gui.getItem(slot);
-            if (item != null && item.getType() != Material.AIR) {
-                materials.put(item.getType(), materials.getOrDefault(item.getType(), 0) + item.getAmount());
-            }
+    private class CraftingView extends GuiView {
+        private final Player player;
+        // Level only changes between sessions at the table, so filter once
+        private final List<CraftingManager.CraftingRecipe> availableRecipes;
+        private final String[] shownRecipes;
+        private boolean refreshScheduled;
+
+        CraftingView(Player player) {
+            super(template);
+            this.player = player;
+            this.availableRecipes = craftingManager.getAvailableRecipes(player);
+            this.shownRecipes = new String[CRAFTABLE_SLOTS.length];
         }
-        
-        if (materials.isEmpty()) {
-            player.sendMessage(Component.text("Coloca materiales en la cuadrícula primero.", NamedTextColor.RED));
-            player.playSound(player.getLocation(), Sound.ENTITY_VILLAGER_NO, 1.0f, 1.0f);
-            return;
+
+        @Override
+        protected boolean isEditable(int slot) {
+            return indexOf(RECIPE_SLOTS, slot) >= 0;
         }
-        
-        // Find matching recipe
-        CraftingManager.CraftingRecipe recipe = findMatchingRecipe(player, materials);
-        
-        if (recipe == null) {
-            player.sendMessage(Component.text("Receta desconocida. Verifica los materiales.", NamedTextColor.RED));
-            player.playSound(player.getLocation(), Sound.ENTITY_VILLAGER_NO, 1.0f, 1.0f);
-            return;
+
+        @Override
+        protected void render(ItemStack[] frame) {
+            validateIconCache();
+
+            CraftingManager.CraftingRecipe recipe = findMatchingRecipe(getGridMaterials());
+            frame[RESULT_SLOT] = recipe != null ? getPreviewIcon(recipe) : null;
+
+            renderCraftable(frame);
         }
-        
-        // Check coin cost
-        if (recipe.getCoinCost() > 0) {
-            int balance = economyManager.getBalance(player.getUniqueId());
-            if (balance < recipe.getCoinCost()) {
-                player.sendMessage(Component.text("No tienes suficientes coins. Necesitas: " + recipe.getCoinCost(), NamedTextColor.RED));
-                player.playSound(player.getLocation(), Sound.ENTITY_VILLAGER_NO, 1.0f, 1.0f);
-                return;
+
+        /**
+         * Fills the craftable row from the player's craftable recipe set
+         */
+        private void renderCraftable(ItemStack[] frame) {
+            BitSet craftable = craftableIndex.getCraftable(player);
+            List<CraftingManager.CraftingRecipe> shown = new ArrayList<>();
+            for (CraftingManager.CraftingRecipe recipe : availableRecipes) {
+                if (recipe.getIndex() >= 0 && craftable.get(recipe.getIndex())) {
+                    shown.add(recipe);
+                }
+            }
+            shown.sort(Comparator.comparingInt((CraftingManager.CraftingRecipe recipe) ->
+                    craftableIndex.getMaxCrafts(player, recipe)).reversed()
+                    .thenComparing(CraftingManager.CraftingRecipe::getName));
+
+            // Empty positions keep the template border
+            Arrays.fill(shownRecipes, null);
+            for (int i = 0; i < CRAFTABLE_SLOTS.length && i < shown.size(); i++) {
+                CraftingManager.CraftingRecipe recipe = shown.get(i);
+                shownRecipes[i] = recipe.getRecipeId();
+                frame[CRAFTABLE_SLOTS[i]] = getCraftableIcon(recipe, craftableIndex.getMaxCrafts(player, recipe));
             }
         }
-        
-        // Check XP cost
-        if (recipe.getExpCost() > 0) {
-            if (player.getTotalExperience() < recipe.getExpCost()) {
-                player.sendMessage(Component.text("No tienes suficiente XP. Necesitas: " + recipe.getExpCost(), NamedTextColor.RED));
-                player.playSound(player.getLocation(), Sound.ENTITY_VILLAGER_NO, 1.0f, 1.0f);
+
+        /**
+         * Inventory contents are final after the event, so refresh once next tick
+         */
+        private void scheduleRefresh() {
+            if (refreshScheduled) return;
+            refreshScheduled = true;
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                refreshScheduled = false;
+                if (getInventory().getViewers().contains(player)) {
+                    refresh();
+                }
+            });
+        }
+
+        @Override
+        protected void onClick(InventoryClickEvent event, int slot) {
+            // Allow clicks in recipe slots, update preview after the move
+            if (isEditable(slot)) {
+                scheduleRefresh();
                 return;
             }
+
+            // Handle quick craft from the craftable row
+            int craftable = indexOf(CRAFTABLE_SLOTS, slot);
+            if (craftable >= 0) {
+                handleQuickCraft(craftable, event.isShiftClick());
+                return;
+            }
+
+            // Handle craft button click
+            if (slot == CRAFT_BUTTON_SLOT) {
+                handleCraft();
+                refresh();
+            }
         }
-        
-        // Check inventory space
-        if (player.getInventory().firstEmpty() == -1) {
-            player.sendMessage(Component.text("Tu inventario está lleno.", NamedTextColor.RED));
-            player.playSound(player.getLocation(), Sound.ENTITY_VILLAGER_NO, 1.0f, 1.0f);
-            return;
+
+        @Override
+        protected void onPlayerInventoryClick(InventoryClickEvent event) {
+            // GuiView cancelled the vanilla shift-click, which may stack into the border or the result slot
+            if (event.isShiftClick()) {
+                ItemStack item = event.getCurrentItem();
+                if (item == null || item.getType() == Material.AIR) return;
+                event.getClickedInventory().setItem(event.getSlot(), moveToGrid(item));
+            }
+            scheduleRefresh();
         }
-        
-        // Deduct costs
-        if (recipe.getCoinCost() > 0) {
-            economyManager.withdraw(player.getUniqueId(), recipe.getCoinCost());
+
+        @Override
+        protected void onDrag(InventoryDragEvent event) {
+            scheduleRefresh();
         }
-        if (recipe.getExpCost() > 0) {
-            player.giveExp(-recipe.getExpCost());
+
+        @Override
+        protected void onClose(Player player) {
+            // Return materials to player
+            Inventory gui = getInventory();
+            for (int slot : RECIPE_SLOTS) {
+                ItemStack item = gui.getItem(slot);
+                if (item != null && item.getType() != Material.AIR) {
+                    gui.setItem(slot, null);
+                    // Drop what no longer fits rather than losing it
+                    for (ItemStack leftover : player.getInventory().addItem(item).values()) {
+                        player.getWorld().dropItemNaturally(player.getLocation(), leftover);
+                    }
+                }
+            }
         }
-        
-        // Remove materials
-        for (int slot : RECIPE_SLOTS) {
-            gui.setItem(slot, null);
+
+        /**
+         * Moves a stack into the grid, topping up similar stacks before empty slots
+         *
+         * @return what did not fit, or null if everything was moved
+         */
+        private ItemStack moveToGrid(ItemStack item) {
+            Inventory gui = getInventory();
+            int remaining = item.getAmount();
+            for (int slot : RECIPE_SLOTS) {
+                ItemStack existing = gui.getItem(slot);
+                if (existing == null || !existing.isSimilar(item)) continue;
+
+                int moved = Math.min(remaining, existing.getMaxStackSize() - existing.getAmount());
+                if (moved <= 0) continue;
+                existing.setAmount(existing.getAmount() + moved);
+                gui.setItem(slot, existing);
+                remaining -= moved;
+                if (remaining == 0) return null;
+            }
+            for (int slot : RECIPE_SLOTS) {
+                ItemStack existing = gui.getItem(slot);
+                if (existing != null && existing.getType() != Material.AIR) continue;
+
+                int moved = Math.min(remaining, item.getMaxStackSize());
+                gui.setItem(slot, item.asQuantity(moved));
+                remaining -= moved;
+                if (remaining == 0) return null;
+            }
+            return item.asQuantity(remaining);
         }
-        
-        // Give result
-        Material resultMaterial = Material.getMaterial(recipe.getResultItem().toUpperCase());
-        if (resultMaterial != null) {
-            player.getInventory().addItem(new ItemStack(resultMaterial, recipe.getResultAmount()));
+
+        private Map<Material, Integer> getGridMaterials() {
+            Map<Material, Integer> materials = new HashMap<>();
+            for (int slot : RECIPE_SLOTS) {
+                ItemStack item = getInventory().getItem(slot);
+                if (item != null && item.getType() != Material.AIR) {
+                    materials.merge(item.getType(), item.getAmount(), Integer::sum);
+                }
+            }
+            return materials;
         }
-        
-        // Clear result preview
-        gui.setItem(RESULT_SLOT, null);
-        
-        // Send success message
-        player.sendMessage(Component.text("✓ ", NamedTextColor.GREEN, TextDecoration.BOLD)
-                .append(Component.text("Item crafteado: ", NamedTextColor.GREEN))
-                .append(Component.text(recipe.getResultItem().replace("_", " "), NamedTextColor.YELLOW)));
-        
-        player.playSound(player.getLocation(), Sound.BLOCK_ANVIL_USE, 1.0f, 1.2f);
-    }
-    
-    /**
-     * Handles GUI close
-     */
-    @EventHandler
-    public void onInventoryClose(InventoryCloseEvent event) {
-        if (!(event.getPlayer() instanceof Player player)) return;
-        
-        Inventory gui = activeGUIs.remove(player.getUniqueId());
-        if (gui == null) return;
-        
-        // Return materials to player
-        for (int slot : RECIPE_SLOTS) {
-            ItemStack item = gui.getItem(slot);
-            if (item != null && item.getType() != Material.AIR) {
-                player.getInventory().addItem(item);
+
+        private CraftingManager.CraftingRecipe findMatchingRecipe(Map<Material, Integer> materials) {
+            if (materials.isEmpty()) return null;
+            for (CraftingManager.CraftingRecipe recipe : availableRecipes) {
+                if (recipe.getParsedMaterials().equals(materials)) {
+                    return recipe;
+                }
             }
+            return null;
         }
-    }
 
-    private CraftingManager.CraftingRecipe findMatchingRecipe(Player player, Map<Material, Integer> materials) {
-        for (CraftingManager.CraftingRecipe recipe : craftingManager.getAvailableRecipes(player)) {
-            if (recipe.getParsedMaterials().equals(materials)) {
-                return recipe;
+        /**
+         * Crafts a recipe from the craftable row using the player's inventory
+         */
+        private void handleQuickCraft(int index, boolean all) {
+            String recipeId = shownRecipes[index];
+            if (recipeId == null) return;
+
+            int crafted = craftingManager.craftItem(player, recipeId, all ? Integer.MAX_VALUE : 1);
+            if (crafted > 0) {
+                player.playSound(player.getLocation(), Sound.BLOCK_ANVIL_USE, 1.0f, 1.2f);
+            } else {
+                player.playSound(player.getLocation(), Sound.ENTITY_VILLAGER_NO, 1.0f, 1.0f);
             }
+
+            // Cancelled clicks don't reach the index, so refresh it explicitly
+            craftableIndex.markDirty(player);
+            scheduleRefresh();
+        }
+
+        /**
+         * Handles crafting attempt
+         */
+        private void handleCraft() {
+            Map<Material, Integer> materials = getGridMaterials();
+            if (materials.isEmpty()) {
+                player.sendMessage(Component.text("Coloca materiales en la cuadrícula primero.", NamedTextColor.RED));
+                player.playSound(player.getLocation(), Sound.ENTITY_VILLAGER_NO, 1.0f, 1.0f);
+                return;
+            }
+
+            // Find matching recipe
+            CraftingManager.CraftingRecipe recipe = findMatchingRecipe(materials);
+
+            if (recipe == null) {
+                player.sendMessage(Component.text("Receta desconocida. Verifica los materiales.", NamedTextColor.RED));
+                player.playSound(player.getLocation(), Sound.ENTITY_VILLAGER_NO, 1.0f, 1.0f);
+                return;
+            }
+
+            // Check coin cost
+            if (recipe.getCoinCost() > 0) {
+                int balance = economyManager.getBalance(player.getUniqueId());
+                if (balance < recipe.getCoinCost()) {
+                    player.sendMessage(Component.text("No tienes suficientes coins. Necesitas: " + recipe.getCoinCost(), NamedTextColor.RED));
+                    player.playSound(player.getLocation(), Sound.ENTITY_VILLAGER_NO, 1.0f, 1.0f);
+                    return;
+                }
+            }
+
+            // Check XP cost
+            if (recipe.getExpCost() > 0) {
+                if (player.getTotalExperience() < recipe.getExpCost()) {
+                    player.sendMessage(Component.text("No tienes suficiente XP. Necesitas: " + recipe.getExpCost(), NamedTextColor.RED));
+                    player.playSound(player.getLocation(), Sound.ENTITY_VILLAGER_NO, 1.0f, 1.0f);
+                    return;
+                }
+            }
+
+            // Check inventory space
+            if (player.getInventory().firstEmpty() == -1) {
+                player.sendMessage(Component.text("Tu inventario está lleno.", NamedTextColor.RED));
+                player.playSound(player.getLocation(), Sound.ENTITY_VILLAGER_NO, 1.0f, 1.0f);
+                return;
+            }
+
+            // Deduct costs
+            if (recipe.getCoinCost() > 0) {
+                economyManager.withdraw(player.getUniqueId(), recipe.getCoinCost());
+            }
+            if (recipe.getExpCost() > 0) {
+                player.giveExp(-recipe.getExpCost());
+            }
+
+            // Remove materials
+            for (int slot : RECIPE_SLOTS) {
+                getInventory().setItem(slot, null);
+            }
+
+            // Give result
+            Material resultMaterial = recipe.getResultMaterial();
+            if (resultMaterial != null) {
+                player.getInventory().addItem(new ItemStack(resultMaterial, recipe.getResultAmount()));
+                craftableIndex.markDirty(player);
+            }
+
+            // Send success message
+            player.sendMessage(Component.text("✓ ", NamedTextColor.GREEN, TextDecoration.BOLD)
+                    .append(Component.text("Item crafteado: ", NamedTextColor.GREEN))
+                    .append(Component.text(recipe.getResultItem().replace("_", " "), NamedTextColor.YELLOW)));
+
+            player.playSound(player.getLocation(), Sound.BLOCK_ANVIL_USE, 1.0f, 1.2f);
         }
-        return null;
     }
 }
@@ -1,5 +1,8 @@
 package com.nightslayer.mmorpg.crafting;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.nightslayer.mmorpg.database.DatabaseManager;
 import com.nightslayer.mmorpg.i18n.LanguageManager;
 import org.bukkit.Bukkit;
@@ -21,6 +24,13 @@ import java.util.logging.Level;
  * - Validate materials
  * - Process crafting with costs
  * - Level requirements
+ * - Recipes compiled to Material-ordinal arrays at load
+ * - Material checks against a one-pass inventory histogram
+ * - Bulk crafting ("craft max N") with a single removal sweep
+ * - Ingredient-to-recipe inverted index for incremental craftability
+ *   tracking (see CraftableIndex)
+ * - Multi-step crafting of a target item through intermediate recipes,
+ *   executed as one batch (see CraftingPlanner)
  */
 public class CraftingManager {
     
@@ -28,10 +38,28 @@ public class CraftingManager {
     private final LanguageManager langManager;
     private final Map<String, CraftingRecipe> recipes;
     
+    // Recipes by dense index, and the recipe indices using/producing each Material ordinal
+    private static final int[] NO_RECIPES = new int[0];
+    private CraftingRecipe[] recipeArray;
+    private int[][] recipesByMaterial;
+    private int[][] recipesByResult;
+    private int recipeGeneration;
+    
+    // Main-thread scratch space reused by every crafting check
+    private final InventoryHistogram histogram;
+    private final int[] needed;
+    private final CraftingPlanner planner;
+    
     public CraftingManager(DatabaseManager dbManager, LanguageManager langManager) {
         this.dbManager = dbManager;
         this.langManager = langManager;
         this.recipes = new HashMap<>();
+        this.recipeArray = new CraftingRecipe[0];
+        this.recipesByMaterial = new int[Material.values().length][];
+        this.recipesByResult = new int[Material.values().length][];
+        this.histogram = new InventoryHistogram();
+        this.needed = new int[Material.values().length];
+        this.planner = new CraftingPlanner(this);
     }
     
     /**
@@ -39,23 +67,36 @@ public class CraftingManager {
      */
     public void loadRecipes() {
         recipes.clear();
-        String sql = "SELECT * FROM crafting_recipes";
+        String sql = "SELECT * FROM crafting_recipes WHERE enabled = 1";
         
         try (PreparedStatement stmt = dbManager.getConnection().prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
             
             while (rs.next()) {
-                CraftingRecipe recipe = new CraftingRecipe(
-                    rs.getString("recipe_id"),
-                    rs.getString("name"),
-                    rs.getString("result_item"),
-                    rs.getInt("result_amount"),
-                    rs.getString("materials"),
-                    rs.getInt("level_required"),
-                    rs.getInt("coin_cost"),
-                    rs.getInt("exp_cost"),
-                    rs.getInt("craft_exp_reward")
-                );
+                String id = rs.getString("id");
+                CraftingRecipe recipe;
+                try {
+                    JsonObject result = JsonParser.parseString(rs.getString("result")).getAsJsonObject();
+                    recipe = new CraftingRecipe(
+                        id,
+                        rs.getString("name"),
+                        result.get("material").getAsString(),
+                        result.has("amount") ? result.get("amount").getAsInt() : 1,
+                        toMaterialList(rs.getString("ingredients")),
+                        rs.getInt("required_level"),
+                        rs.getInt("cost_coins"),
+                        rs.getInt("cost_xp"),
+                        0 // No crafting exp reward column in the schema
+                    );
+                } catch (RuntimeException e) {
+                    Bukkit.getLogger().warning("[MMORPG] Skipping crafting recipe " + id + ": malformed JSON (" + e.getMessage() + ")");
+                    continue;
+                }
+                if (!recipe.isValid()) {
+                    Bukkit.getLogger().warning("[MMORPG] Skipping crafting recipe " + recipe.getRecipeId()
+                        + ": invalid materials '" + recipe.getMaterials() + "'");
+                    continue;
+                }
                 recipes.put(recipe.getRecipeId(), recipe);
             }
             
@@ -64,6 +105,102 @@ public class CraftingManager {
         } catch (SQLException e) {
             Bukkit.getLogger().log(Level.SEVERE, "[MMORPG] Error loading crafting recipes", e);
         }
+        
+        buildIndex();
+    }
+    
+    /**
+     * Convert the ingredients column ([{"material": "STICK", "amount": 1}, ...])
+     * to the "STICK:1,DIAMOND:2" form CraftingRecipe compiles
+     */
+    private static String toMaterialList(String ingredientsJson) {
+        StringBuilder materials = new StringBuilder();
+        for (JsonElement element : JsonParser.parseString(ingredientsJson).getAsJsonArray()) {
+            JsonObject ingredient = element.getAsJsonObject();
+            if (materials.length() > 0) {
+                materials.append(',');
+            }
+            materials.append(ingredient.get("material").getAsString()).append(':')
+                .append(ingredient.has("amount") ? ingredient.get("amount").getAsInt() : 1);
+        }
+        return materials.toString();
+    }
+    
+    /**
+     * Assign dense recipe indices and build the ingredient inverted index
+     */
+    private void buildIndex() {
+        recipeArray = recipes.values().toArray(new CraftingRecipe[0]);
+        Arrays.sort(recipeArray, Comparator.comparing(CraftingRecipe::getRecipeId));
+        
+        int[] sizes = new int[recipesByMaterial.length];
+        for (int i = 0; i < recipeArray.length; i++) {
+            recipeArray[i].index = i;
+            for (int ordinal : recipeArray[i].getIngredientOrdinals()) {
+                sizes[ordinal]++;
+            }
+        }
+        for (int ordinal = 0; ordinal < sizes.length; ordinal++) {
+            recipesByMaterial[ordinal] = sizes[ordinal] == 0 ? NO_RECIPES : new int[sizes[ordinal]];
+            sizes[ordinal] = 0;
+        }
+        for (int i = 0; i < recipeArray.length; i++) {
+            for (int ordinal : recipeArray[i].getIngredientOrdinals()) {
+                recipesByMaterial[ordinal][sizes[ordinal]++] = i;
+            }
+        }
+        
+        Arrays.fill(sizes, 0);
+        for (CraftingRecipe recipe : recipeArray) {
+            if (recipe.getResultMaterial() != null) {
+                sizes[recipe.getResultMaterial().ordinal()]++;
+            }
+        }
+        for (int ordinal = 0; ordinal < sizes.length; ordinal++) {
+            recipesByResult[ordinal] = sizes[ordinal] == 0 ? NO_RECIPES : new int[sizes[ordinal]];
+            sizes[ordinal] = 0;
+        }
+        for (int i = 0; i < recipeArray.length; i++) {
+            Material result = recipeArray[i].getResultMaterial();
+            if (result != null) {
+                recipesByResult[result.ordinal()][sizes[result.ordinal()]++] = i;
+            }
+        }
+        recipeGeneration++;
+    }
+    
+    public int getRecipeCount() {
+        return recipeArray.length;
+    }
+    
+    /**
+     * Recipe by dense index (see CraftingRecipe.getIndex)
+     */
+    public CraftingRecipe getRecipe(int index) {
+        return recipeArray[index];
+    }
+    
+    /**
+     * Indices of the recipes that use a material as an ingredient
+     */
+    public int[] getRecipesUsing(int materialOrdinal) {
+        int[] indices = recipesByMaterial[materialOrdinal];
+        return indices != null ? indices : NO_RECIPES;
+    }
+    
+    /**
+     * Indices of the recipes whose result is a material
+     */
+    public int[] getRecipesProducing(int materialOrdinal) {
+        int[] indices = recipesByResult[materialOrdinal];
+        return indices != null ? indices : NO_RECIPES;
+    }
+    
+    /**
+     * Bumped on every reload; recipe indices are only valid within one generation
+     */
+    public int getRecipeGeneration() {
+        return recipeGeneration;
     }
     
     /**
@@ -93,123 +230,202 @@ public class CraftingManager {
      * Attempt to craft an item
      */
     public boolean craftItem(Player player, String recipeId) {
+        return craftItem(player, recipeId, 1) > 0;
+    }
+    
+    /**
+     * Craft a recipe as many times as materials and coins allow, up to maxCrafts
+     * 
+     * @return Number of crafts performed
+     */
+    public int craftItem(Player player, String recipeId, int maxCrafts) {
         CraftingRecipe recipe = recipes.get(recipeId);
         if (recipe == null) {
-            player.sendMessage(langManager.getMessage("crafting.recipe_not_found"));
-            return false;
+            player.sendMessage(langManager.getMessage(player, "crafting.recipe_not_found"));
+            return 0;
+        }
+        if (maxCrafts <= 0) {
+            return 0;
         }
         
         // Check level requirement
         int playerLevel = getPlayerLevel(player);
         if (playerLevel < recipe.getLevelRequired()) {
-            player.sendMessage(langManager.getMessage("crafting.level_too_low", 
+            player.sendMessage(langManager.getMessage(player, "crafting.level_too_low", 
                 recipe.getLevelRequired()));
-            return false;
+            return 0;
         }
         
         // Check if player has materials
-        if (!hasMaterials(player, recipe)) {
-            player.sendMessage(langManager.getMessage("crafting.missing_materials"));
-            return false;
+        ItemStack[] contents = player.getInventory().getContents();
+        int crafts = Math.min(maxCrafts, recipe.getMaxCrafts(histogram.fill(contents)));
+        if (crafts == 0) {
+            player.sendMessage(langManager.getMessage(player, "crafting.missing_materials"));
+            return 0;
         }
         
         // Check if player has enough coins
-        int playerBalance = getPlayerBalance(player);
-        if (playerBalance < recipe.getCoinCost()) {
-            player.sendMessage(langManager.getMessage("crafting.insufficient_coins"));
-            return false;
+        if (recipe.getCoinCost() > 0) {
+            int playerBalance = getPlayerBalance(player);
+            crafts = Math.min(crafts, playerBalance / recipe.getCoinCost());
+            if (crafts == 0) {
+                player.sendMessage(langManager.getMessage(player, "crafting.insufficient_coins"));
+                return 0;
+            }
         }
         
         // Remove materials
-        removeMaterials(player, recipe);
+        removeMaterials(contents, recipe.getIngredientOrdinals(), recipe.getIngredientAmounts(), crafts);
         
         // Charge coin cost
         if (recipe.getCoinCost() > 0) {
-            chargeCoins(player, recipe.getCoinCost());
+            chargeCoins(player, recipe.getCoinCost() * crafts);
         }
         
         // Give result item
-        Material resultMaterial = Material.getMaterial(recipe.getResultItem().toUpperCase());
-        if (resultMaterial != null) {
-            ItemStack result = new ItemStack(resultMaterial, recipe.getResultAmount());
-            player.getInventory().addItem(result);
+        int resultAmount = recipe.getResultAmount() * crafts;
+        if (recipe.getResultMaterial() != null) {
+            ItemStack result = new ItemStack(recipe.getResultMaterial(), resultAmount);
+            for (ItemStack leftover : player.getInventory().addItem(result).values()) {
+                player.getWorld().dropItemNaturally(player.getLocation(), leftover);
+            }
         }
         
         // Give exp reward
         if (recipe.getCraftExpReward() > 0) {
-            giveExp(player, recipe.getCraftExpReward());
+            giveExp(player, recipe.getCraftExpReward() * crafts);
         }
         
-        player.sendMessage(langManager.getMessage("crafting.success", 
-            recipe.getName(), recipe.getResultAmount()));
+        player.sendMessage(langManager.getMessage(player, "crafting.success", 
+            recipe.getName(), resultAmount));
         
-        return true;
+        return crafts;
     }
     
     /**
-     * Check if player has required materials
+     * How many times a player could craft a recipe with their current inventory
      */
-    private boolean hasMaterials(Player player, CraftingRecipe recipe) {
-        Map<Material, Integer> required = recipe.getParsedMaterials();
-        
-        for (Map.Entry<Material, Integer> entry : required.entrySet()) {
-            Material material = entry.getKey();
-            int amount = entry.getValue();
-            
-            if (!hasItem(player, material, amount)) {
-                return false;
-            }
-        }
-        
-        return true;
+    public int getMaxCrafts(Player player, CraftingRecipe recipe) {
+        return recipe.getMaxCrafts(histogram.fill(player.getInventory().getContents()));
     }
     
     /**
-     * Check if player has specific item amount
+     * Plan crafting a target item through intermediate recipes from the player's inventory
      */
-    private boolean hasItem(Player player, Material material, int amount) {
-        int count = 0;
-        for (ItemStack item : player.getInventory().getContents()) {
-            if (item != null && item.getType() == material) {
-                count += item.getAmount();
-            }
-        }
-        return count >= amount;
+    public CraftingPlanner.Plan planCraft(Player player, Material target, int amount) {
+        return planner.plan(histogram.fill(player.getInventory().getContents()), target, amount,
+            getPlayerLevel(player));
     }
     
     /**
-     * Remove materials from player inventory
+     * Craft a target item, crafting missing intermediates along the way
+     * 
+     * The whole plan runs as one batch: coins and exp in a single
+     * transaction, then one sweep removing every consumed material.
      */
-    private void removeMaterials(Player player, CraftingRecipe recipe) {
-        Map<Material, Integer> required = recipe.getParsedMaterials();
+    public boolean craftPlanned(Player player, Material target, int amount) {
+        if (amount <= 0) {
+            return false;
+        }
         
-        for (Map.Entry<Material, Integer> entry : required.entrySet()) {
-            Material material = entry.getKey();
-            int amount = entry.getValue();
-            removeItem(player, material, amount);
+        ItemStack[] contents = player.getInventory().getContents();
+        CraftingPlanner.Plan plan = planner.plan(histogram.fill(contents), target, amount, getPlayerLevel(player));
+        if (!plan.isCraftable()) {
+            player.sendMessage(langManager.getMessage(player, "crafting.plan_impossible", "item", formatMaterial(target)));
+            return false;
+        }
+        if (!plan.isFeasible()) {
+            player.sendMessage(langManager.getMessage(player, "crafting.missing_materials",
+                "materials", formatMaterials(plan.getMissing())));
+            return false;
+        }
+        if (plan.getCoinCost() > Integer.MAX_VALUE || plan.getExpReward() > Integer.MAX_VALUE) {
+            player.sendMessage(langManager.getMessage(player, "crafting.failed"));
+            return false;
+        }
+        if (plan.getCoinCost() > 0 && getPlayerBalance(player) < plan.getCoinCost()) {
+            player.sendMessage(langManager.getMessage(player, "crafting.plan_insufficient_coins",
+                "coins", plan.getCoinCost()));
+            return false;
+        }
+        
+        // Coins and exp first, atomically; the inventory is only touched if they succeed
+        List<DatabaseManager.BatchStatement> batch = new ArrayList<>();
+        String uuid = player.getUniqueId().toString();
+        if (plan.getCoinCost() > 0) {
+            batch.add(new DatabaseManager.BatchStatement(
+                "UPDATE player_economy SET coins = coins - ? WHERE uuid = ?", (int) plan.getCoinCost(), uuid));
+        }
+        if (plan.getExpReward() > 0) {
+            batch.add(new DatabaseManager.BatchStatement(
+                "UPDATE players SET experience = experience + ? WHERE uuid = ?", (int) plan.getExpReward(), uuid));
+        }
+        if (!batch.isEmpty() && !dbManager.executeBatch(batch)) {
+            player.sendMessage(langManager.getMessage(player, "crafting.failed"));
+            return false;
+        }
+        
+        removeMaterials(contents, plan.getTakeOrdinals(), plan.getTakeAmounts(), 1);
+        
+        Material[] materials = Material.values();
+        int[] giveOrdinals = plan.getGiveOrdinals();
+        int[] giveAmounts = plan.getGiveAmounts();
+        for (int i = 0; i < giveOrdinals.length; i++) {
+            ItemStack result = new ItemStack(materials[giveOrdinals[i]], giveAmounts[i]);
+            for (ItemStack leftover : player.getInventory().addItem(result).values()) {
+                player.getWorld().dropItemNaturally(player.getLocation(), leftover);
+            }
+        }
+        
+        player.sendMessage(langManager.getMessage(player, "crafting.plan_success",
+            "amount", amount, "item", formatMaterial(target), "steps", plan.getSteps().size()));
+        return true;
+    }
+    
+    private static String formatMaterial(Material material) {
+        return material.name().toLowerCase().replace('_', ' ');
+    }
+    
+    private static String formatMaterials(Map<Material, Integer> materials) {
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<Material, Integer> entry : materials.entrySet()) {
+            if (text.length() > 0) text.append('\n');
+            text.append("§7- §f").append(entry.getValue()).append("x ").append(formatMaterial(entry.getKey()));
         }
+        return text.toString();
     }
     
     /**
-     * Remove specific amount of item from player
+     * Remove materials times a multiplier in one sweep over the inventory
      */
-    private void removeItem(Player player, Material material, int amount) {
-        int remaining = amount;
-        
-        for (ItemStack item : player.getInventory().getContents()) {
-            if (item != null && item.getType() == material) {
-                int itemAmount = item.getAmount();
-                
-                if (itemAmount <= remaining) {
-                    remaining -= itemAmount;
-                    item.setAmount(0);
-                } else {
-                    item.setAmount(itemAmount - remaining);
-                    remaining = 0;
-                }
-                
-                if (remaining == 0) break;
+    private void removeMaterials(ItemStack[] contents, int[] ordinals, int[] amounts, int crafts) {
+        for (int i = 0; i < ordinals.length; i++) {
+            needed[ordinals[i]] = amounts[i] * crafts;
+        }
+        
+        int remaining = ordinals.length;
+        for (ItemStack item : contents) {
+            if (remaining == 0) break;
+            if (item == null) continue;
+            
+            int ordinal = item.getType().ordinal();
+            int amount = needed[ordinal];
+            if (amount == 0) continue;
+            
+            int itemAmount = item.getAmount();
+            if (itemAmount <= amount) {
+                needed[ordinal] = amount - itemAmount;
+                item.setAmount(0);
+            } else {
+                needed[ordinal] = 0;
+                item.setAmount(itemAmount - amount);
             }
+            if (needed[ordinal] == 0) remaining--;
+        }
+        
+        // Leave the scratch array zeroed for the next craft
+        for (int ordinal : ordinals) {
+            needed[ordinal] = 0;
         }
     }
     
@@ -299,6 +515,14 @@ public class CraftingManager {
         private final int expCost;
         private final int craftExpReward;
         
+        // Compiled from materials/resultItem
+        private final Material resultMaterial;
+        private Map<Material, Integer> parsedMaterials;
+        private int[] ingredientOrdinals;
+        private int[] ingredientAmounts;
+        private boolean valid;
+        private int index = -1;
+        
         public CraftingRecipe(String recipeId, String name, String resultItem, int resultAmount,
                              String materials, int levelRequired, int coinCost, int expCost,
                              int craftExpReward) {
@@ -311,31 +535,83 @@ public class CraftingManager {
             this.coinCost = coinCost;
             this.expCost = expCost;
             this.craftExpReward = craftExpReward;
+            this.resultMaterial = resultItem != null ? Material.getMaterial(resultItem.toUpperCase()) : null;
+            compile();
         }
         
         /**
-         * Parse materials string into Map
+         * Materials as a Map (compiled once, unmodifiable)
          * Format: "DIAMOND:2,STICK:3"
          */
         public Map<Material, Integer> getParsedMaterials() {
-            Map<Material, Integer> parsed = new HashMap<>();
-            String[] parts = materials.split(",");
-            
-            for (String part : parts) {
-                String[] itemParts = part.trim().split(":");
-                if (itemParts.length == 2) {
-                    Material material = Material.getMaterial(itemParts[0].toUpperCase());
-                    int amount = Integer.parseInt(itemParts[1]);
-                    
-                    if (material != null) {
-                        parsed.put(material, amount);
+            return parsedMaterials;
+        }
+        
+        /**
+         * Parse the materials string into ordinal/amount arrays; duplicate
+         * materials are merged
+         */
+        private void compile() {
+            Map<Material, Integer> parsed = new EnumMap<>(Material.class);
+            boolean ok = materials != null && !materials.isBlank();
+            if (ok) {
+                for (String part : materials.split(",")) {
+                    String[] itemParts = part.trim().split(":");
+                    Material material = itemParts.length == 2 ? Material.getMaterial(itemParts[0].trim().toUpperCase()) : null;
+                    int amount;
+                    try {
+                        amount = itemParts.length == 2 ? Integer.parseInt(itemParts[1].trim()) : 0;
+                    } catch (NumberFormatException e) {
+                        amount = 0;
+                    }
+                    if (material == null || amount <= 0) {
+                        ok = false;
+                        continue;
                     }
+                    parsed.merge(material, amount, Integer::sum);
                 }
             }
             
-            return parsed;
+            parsedMaterials = Collections.unmodifiableMap(parsed);
+            ingredientOrdinals = new int[parsed.size()];
+            ingredientAmounts = new int[parsed.size()];
+            int i = 0;
+            for (Map.Entry<Material, Integer> entry : parsed.entrySet()) {
+                ingredientOrdinals[i] = entry.getKey().ordinal();
+                ingredientAmounts[i] = entry.getValue();
+                i++;
+            }
+            valid = ok && !parsed.isEmpty();
+        }
+        
+        /**
+         * Times this recipe fits in the given inventory counts
+         */
+        public int getMaxCrafts(InventoryHistogram inventory) {
+            int max = Integer.MAX_VALUE;
+            for (int i = 0; i < ingredientOrdinals.length && max > 0; i++) {
+                max = Math.min(max, inventory.count(ingredientOrdinals[i]) / ingredientAmounts[i]);
+            }
+            return ingredientOrdinals.length == 0 ? 0 : max;
         }
         
+        /**
+         * Whether the counts hold exactly this recipe's materials, nothing more
+         */
+        public boolean matchesExactly(InventoryHistogram inventory) {
+            if (inventory.size() != ingredientOrdinals.length) return false;
+            for (int i = 0; i < ingredientOrdinals.length; i++) {
+                if (inventory.count(ingredientOrdinals[i]) != ingredientAmounts[i]) return false;
+            }
+            return true;
+        }
+        
+        public boolean isValid() { return valid; }
+        public int getIndex() { return index; }
+        public int[] getIngredientOrdinals() { return ingredientOrdinals; }
+        public int[] getIngredientAmounts() { return ingredientAmounts; }
+        public Material getResultMaterial() { return resultMaterial; }
+        
         // Getters
         public String getRecipeId() { return recipeId; }
         public String getName() { return name; }
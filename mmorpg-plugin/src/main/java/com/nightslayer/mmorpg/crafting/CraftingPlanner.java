@@ -0,0 +1,264 @@
+package com.nightslayer.mmorpg.crafting;
+
+import org.bukkit.Material;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plans multi-step crafts through the recipe dependency graph
+ *
+ * Features:
+ * - Resolves a target item by crafting missing ingredients recursively,
+ *   using items already in the inventory first
+ * - Picks, per material, the producing recipe with the lowest unit cost
+ *   (coins plus raw materials consumed), memoized over the graph
+ * - Cycle-safe: a recipe needing a material that is still being resolved
+ *   further up the chain is never chosen
+ * - Simulated on a copy of the inventory histogram; the plan only lists
+ *   what to take from the inventory and what to give back, so it can be
+ *   executed as one batch
+ *
+ * Recipes above the player's level are ignored.
+ */
+public final class CraftingPlanner {
+
+    private static final Material[] MATERIALS = Material.values();
+    // Per-material resolution state; 0 = not visited yet
+    private static final byte VISITING = 1;
+    private static final byte DONE = 2;
+    private static final double RAW_COST = 1.0;
+
+    private final CraftingManager craftingManager;
+
+    CraftingPlanner(CraftingManager craftingManager) {
+        this.craftingManager = craftingManager;
+    }
+
+    /**
+     * Plan crafting an amount of a target item from an inventory
+     */
+    public Plan plan(InventoryHistogram inventory, Material target, int amount, int playerLevel) {
+        Resolver resolver = new Resolver(inventory, playerLevel);
+        int ordinal = target.ordinal();
+        // The target itself is always crafted, never taken from the inventory
+        if (resolver.bestRecipe(ordinal) < 0) {
+            return new Plan(target, amount, resolver, false);
+        }
+        resolver.craft(ordinal, amount);
+        return new Plan(target, amount, resolver, true);
+    }
+
+    /**
+     * Memoized resolution state for one plan
+     */
+    private final class Resolver {
+        private final int playerLevel;
+        private final byte[] state;
+        private final double[] unitCost;
+        private final int[] best;
+
+        private final InventoryHistogram available;
+        private final InventoryHistogram taken;
+        private final InventoryHistogram spare;
+        private final Map<Material, Integer> missing;
+        private final Map<CraftingManager.CraftingRecipe, Integer> steps;
+        private long coinCost;
+        private long expReward;
+
+        private Resolver(InventoryHistogram inventory, int playerLevel) {
+            this.playerLevel = playerLevel;
+            this.state = new byte[MATERIALS.length];
+            this.unitCost = new double[MATERIALS.length];
+            this.best = new int[MATERIALS.length];
+            this.available = new InventoryHistogram();
+            this.available.copyFrom(inventory);
+            this.taken = new InventoryHistogram();
+            this.spare = new InventoryHistogram();
+            this.missing = new EnumMap<>(Material.class);
+            this.steps = new LinkedHashMap<>();
+        }
+
+        /**
+         * Index of the cheapest usable recipe for a material, -1 if it must be gathered
+         */
+        private int bestRecipe(int ordinal) {
+            cost(ordinal);
+            return best[ordinal];
+        }
+
+        private double cost(int ordinal) {
+            if (state[ordinal] == DONE) return unitCost[ordinal];
+            if (state[ordinal] == VISITING) return Double.POSITIVE_INFINITY; // Cycle
+            state[ordinal] = VISITING;
+
+            double bestCost = Double.POSITIVE_INFINITY;
+            int bestIndex = -1;
+            for (int index : craftingManager.getRecipesProducing(ordinal)) {
+                CraftingManager.CraftingRecipe recipe = craftingManager.getRecipe(index);
+                if (recipe.getLevelRequired() > playerLevel) continue;
+
+                double recipeCost = recipe.getCoinCost();
+                int[] ordinals = recipe.getIngredientOrdinals();
+                int[] amounts = recipe.getIngredientAmounts();
+                for (int i = 0; i < ordinals.length && recipeCost < bestCost; i++) {
+                    recipeCost += amounts[i] * cost(ordinals[i]);
+                }
+                recipeCost /= Math.max(1, recipe.getResultAmount());
+                if (recipeCost < bestCost) {
+                    bestCost = recipeCost;
+                    bestIndex = index;
+                }
+            }
+
+            // Nothing usable produces it: it has to come from the inventory
+            unitCost[ordinal] = bestIndex >= 0 ? bestCost : RAW_COST;
+            best[ordinal] = bestIndex;
+            state[ordinal] = DONE;
+            return unitCost[ordinal];
+        }
+
+        /**
+         * Obtain an amount of a material: leftovers of earlier crafts, then
+         * the inventory, then crafting the rest
+         */
+        private void need(int ordinal, int amount) {
+            int fromSpare = Math.min(amount, spare.count(ordinal));
+            if (fromSpare > 0) {
+                spare.add(ordinal, -fromSpare);
+                amount -= fromSpare;
+            }
+            int fromInventory = Math.min(amount, available.count(ordinal));
+            if (fromInventory > 0) {
+                available.add(ordinal, -fromInventory);
+                taken.add(ordinal, fromInventory);
+                amount -= fromInventory;
+            }
+            if (amount == 0) return;
+
+            if (bestRecipe(ordinal) < 0) {
+                missing.merge(MATERIALS[ordinal], amount, Integer::sum);
+                return;
+            }
+            craft(ordinal, amount);
+        }
+
+        private void craft(int ordinal, int amount) {
+            CraftingManager.CraftingRecipe recipe = craftingManager.getRecipe(best[ordinal]);
+            int resultAmount = Math.max(1, recipe.getResultAmount());
+            int crafts = (amount + resultAmount - 1) / resultAmount;
+
+            int[] ordinals = recipe.getIngredientOrdinals();
+            int[] amounts = recipe.getIngredientAmounts();
+            for (int i = 0; i < ordinals.length; i++) {
+                need(ordinals[i], amounts[i] * crafts);
+            }
+
+            // Post-order: ingredients are listed before what they're used for
+            steps.merge(recipe, crafts, Integer::sum);
+            coinCost += (long) recipe.getCoinCost() * crafts;
+            expReward += (long) recipe.getCraftExpReward() * crafts;
+            spare.add(ordinal, crafts * resultAmount - amount);
+        }
+    }
+
+    /**
+     * A resolved crafting plan
+     */
+    public static final class Plan {
+        private final Material target;
+        private final int amount;
+        private final boolean craftable;
+        private final List<Step> steps;
+        private final Map<Material, Integer> missing;
+        private final long coinCost;
+        private final long expReward;
+        private final int[] takeOrdinals;
+        private final int[] takeAmounts;
+        private final int[] giveOrdinals;
+        private final int[] giveAmounts;
+
+        private Plan(Material target, int amount, Resolver resolver, boolean craftable) {
+            this.target = target;
+            this.amount = amount;
+            this.craftable = craftable;
+            List<Step> list = new ArrayList<>(resolver.steps.size());
+            for (Map.Entry<CraftingManager.CraftingRecipe, Integer> entry : resolver.steps.entrySet()) {
+                list.add(new Step(entry.getKey(), entry.getValue()));
+            }
+            this.steps = Collections.unmodifiableList(list);
+            this.missing = Collections.unmodifiableMap(resolver.missing);
+            this.coinCost = resolver.coinCost;
+            this.expReward = resolver.expReward;
+
+            this.takeOrdinals = new int[resolver.taken.size()];
+            this.takeAmounts = new int[takeOrdinals.length];
+            flatten(resolver.taken, takeOrdinals, takeAmounts);
+
+            // The target plus whatever rounding up left over
+            if (craftable) {
+                resolver.spare.add(target.ordinal(), amount);
+            }
+            this.giveOrdinals = new int[resolver.spare.size()];
+            this.giveAmounts = new int[giveOrdinals.length];
+            flatten(resolver.spare, giveOrdinals, giveAmounts);
+        }
+
+        private static void flatten(InventoryHistogram histogram, int[] ordinals, int[] amounts) {
+            int n = 0;
+            for (int i = 0; i < histogram.touchedCount() && n < ordinals.length; i++) {
+                int ordinal = histogram.touchedAt(i);
+                int count = histogram.count(ordinal);
+                if (count <= 0) continue;
+                ordinals[n] = ordinal;
+                amounts[n] = count;
+                n++;
+            }
+        }
+
+        /**
+         * Whether some recipe chain for the target exists at the player's level
+         */
+        public boolean isCraftable() { return craftable; }
+
+        /**
+         * Craftable and nothing missing from the inventory
+         */
+        public boolean isFeasible() { return craftable && missing.isEmpty(); }
+
+        public Material getTarget() { return target; }
+        public int getAmount() { return amount; }
+        public List<Step> getSteps() { return steps; }
+        public Map<Material, Integer> getMissing() { return missing; }
+        public long getCoinCost() { return coinCost; }
+        public long getExpReward() { return expReward; }
+
+        /** Materials (ordinal/amount) to remove from the inventory */
+        public int[] getTakeOrdinals() { return takeOrdinals; }
+        public int[] getTakeAmounts() { return takeAmounts; }
+
+        /** Items (ordinal/amount) to hand out: the target and leftovers */
+        public int[] getGiveOrdinals() { return giveOrdinals; }
+        public int[] getGiveAmounts() { return giveAmounts; }
+    }
+
+    /**
+     * One recipe of a plan and how many times it is crafted
+     */
+    public static final class Step {
+        private final CraftingManager.CraftingRecipe recipe;
+        private final int crafts;
+
+        private Step(CraftingManager.CraftingRecipe recipe, int crafts) {
+            this.recipe = recipe;
+            this.crafts = crafts;
+        }
+
+        public CraftingManager.CraftingRecipe getRecipe() { return recipe; }
+        public int getCrafts() { return crafts; }
+    }
+}
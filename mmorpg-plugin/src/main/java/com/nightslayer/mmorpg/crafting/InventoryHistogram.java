@@ -0,0 +1,111 @@
+package com.nightslayer.mmorpg.crafting;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Arrays;
+
+/**
+ * Reusable per-Material item counts of an inventory
+ *
+ * Features:
+ * - Built in one pass over the inventory contents
+ * - Counts indexed by Material ordinal, read in O(1)
+ * - Only the touched entries are cleared between uses, so one instance
+ *   can be refilled for every crafting check without reallocating
+ *
+ * Not thread-safe; meant to be reused on the main thread.
+ */
+public final class InventoryHistogram {
+
+    private static final int MATERIAL_COUNT = Material.values().length;
+
+    private final int[] counts;
+    private final boolean[] tracked;
+    private int[] touched;
+    private int touchedCount;
+
+    public InventoryHistogram() {
+        this.counts = new int[MATERIAL_COUNT];
+        this.tracked = new boolean[MATERIAL_COUNT];
+        this.touched = new int[64];
+    }
+
+    /**
+     * Replace the counts with the given inventory contents
+     */
+    public InventoryHistogram fill(ItemStack[] contents) {
+        clear();
+        for (ItemStack item : contents) {
+            if (item != null && !item.getType().isAir()) {
+                add(item.getType().ordinal(), item.getAmount());
+            }
+        }
+        return this;
+    }
+
+    public void add(int materialOrdinal, int amount) {
+        if (!tracked[materialOrdinal]) {
+            tracked[materialOrdinal] = true;
+            if (touchedCount == touched.length) {
+                touched = Arrays.copyOf(touched, touchedCount * 2);
+            }
+            touched[touchedCount++] = materialOrdinal;
+        }
+        counts[materialOrdinal] += amount;
+    }
+
+    public int count(int materialOrdinal) {
+        return counts[materialOrdinal];
+    }
+
+    public int count(Material material) {
+        return counts[material.ordinal()];
+    }
+
+    /**
+     * Number of distinct materials present
+     */
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < touchedCount; i++) {
+            if (counts[touched[i]] > 0) size++;
+        }
+        return size;
+    }
+
+    /**
+     * Number of distinct materials touched since the last clear (some may be back to 0)
+     */
+    public int touchedCount() {
+        return touchedCount;
+    }
+
+    /**
+     * Material ordinal of the i-th touched entry, for iterating with touchedCount()
+     */
+    public int touchedAt(int index) {
+        return touched[index];
+    }
+
+    /**
+     * Replace the counts with a copy of another histogram's
+     */
+    public void copyFrom(InventoryHistogram other) {
+        clear();
+        for (int i = 0; i < other.touchedCount; i++) {
+            int ordinal = other.touched[i];
+            if (other.counts[ordinal] != 0) {
+                add(ordinal, other.counts[ordinal]);
+            }
+        }
+    }
+
+    public void clear() {
+        for (int i = 0; i < touchedCount; i++) {
+            counts[touched[i]] = 0;
+            tracked[touched[i]] = false;
+        }
+        touchedCount = 0;
+    }
+}
@@ -9,6 +9,7 @@ import java.io.File;
 import java.io.FileReader;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
@@ -95,6 +96,7 @@ public class DatabaseMigration {
                 quest_id TEXT NOT NULL,
                 status TEXT DEFAULT 'active',
                 progress INTEGER DEFAULT 0,
+                objectives_json TEXT,
                 started_at INTEGER,
                 completed_at INTEGER,
                 FOREIGN KEY (player_uuid) REFERENCES players(uuid) ON DELETE CASCADE
@@ -652,9 +654,31 @@ public class DatabaseMigration {
             }
         }
         
+        // Columns added after the table was first created
+        addColumnIfMissing(conn, "player_quests", "objectives_json", "TEXT");
+        
         plugin.getLogger().info("Database tables created successfully!");
     }
     
+    /**
+     * Add a column to an existing table unless it is already there.
+     */
+    private void addColumnIfMissing(Connection conn, String table, String column, String type) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("PRAGMA table_info(" + table + ")");
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return;
+                }
+            }
+        }
+        
+        try (PreparedStatement stmt = conn.prepareStatement("ALTER TABLE " + table + " ADD COLUMN " + column + " " + type)) {
+            stmt.execute();
+        }
+        plugin.getLogger().info("Added column " + table + "." + column);
+    }
+    
     /**
      * Migrate data from JSON config files to database.
      */
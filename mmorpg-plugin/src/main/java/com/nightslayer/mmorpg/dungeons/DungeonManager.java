@@ -2,9 +2,12 @@ package com.nightslayer.mmorpg.dungeons;
 
 import com.nightslayer.mmorpg.database.DatabaseManager;
 import com.nightslayer.mmorpg.i18n.LanguageManager;
+import com.nightslayer.mmorpg.mobs.EntityOwnershipRegistry;
+import com.nightslayer.mmorpg.spawns.SpawnQueue;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
@@ -29,12 +32,17 @@ public class DungeonManager {
     
     private final DatabaseManager dbManager;
     private final LanguageManager langManager;
+    private final SpawnQueue spawnQueue;
+    private final EntityOwnershipRegistry ownershipRegistry;
     private final Map<String, Dungeon> dungeons;
     private final Map<UUID, DungeonInstance> activeInstances;
     
-    public DungeonManager(DatabaseManager dbManager, LanguageManager langManager) {
+    public DungeonManager(DatabaseManager dbManager, LanguageManager langManager, SpawnQueue spawnQueue,
+                          EntityOwnershipRegistry ownershipRegistry) {
         this.dbManager = dbManager;
         this.langManager = langManager;
+        this.spawnQueue = spawnQueue;
+        this.ownershipRegistry = ownershipRegistry;
         this.dungeons = new HashMap<>();
         this.activeInstances = new HashMap<>();
     }
@@ -101,7 +109,7 @@ public class DungeonManager {
         for (Player player : party) {
             int level = getPlayerLevel(player);
             if (level < dungeon.getMinLevel()) {
-                player.sendMessage(langManager.getMessage("dungeon.level_too_low", 
+                player.sendMessage(langManager.getMessage(player, "dungeon.level_too_low", 
                     dungeon.getMinLevel()));
                 return null;
             }
@@ -117,7 +125,7 @@ public class DungeonManager {
         if (spawnLoc != null) {
             for (Player player : party) {
                 player.teleport(spawnLoc);
-                player.sendMessage(langManager.getMessage("dungeon.entered", dungeon.getName()));
+                player.sendMessage(langManager.getMessage(player, "dungeon.entered", dungeon.getName()));
             }
         }
         
@@ -139,6 +147,13 @@ public class DungeonManager {
         return null;
     }
     
+    /**
+     * Check if an instance is still running (mobs of ended instances are orphans)
+     */
+    public boolean isInstanceActive(UUID instanceId) {
+        return activeInstances.containsKey(instanceId);
+    }
+    
     /**
      * Complete a dungeon instance
      */
@@ -152,12 +167,13 @@ public class DungeonManager {
         for (Player player : instance.getParty()) {
             if (player.isOnline()) {
                 giveReward(player, dungeon.getCoinReward(), dungeon.getExpReward());
-                player.sendMessage(langManager.getMessage("dungeon.completed", dungeon.getName()));
+                player.sendMessage(langManager.getMessage(player, "dungeon.completed", dungeon.getName()));
             }
         }
         
         // Remove instance
         activeInstances.remove(instanceId);
+        instance.removeMonsters();
     }
     
     /**
@@ -170,12 +186,13 @@ public class DungeonManager {
         // Notify party
         for (Player player : instance.getParty()) {
             if (player.isOnline()) {
-                player.sendMessage(langManager.getMessage("dungeon.failed"));
+                player.sendMessage(langManager.getMessage(player, "dungeon.failed"));
             }
         }
         
         // Remove instance
         activeInstances.remove(instanceId);
+        instance.removeMonsters();
     }
     
     /**
@@ -227,7 +244,7 @@ public class DungeonManager {
             stmt2.setString(2, player.getUniqueId().toString());
             stmt2.executeUpdate();
             
-            player.sendMessage(langManager.getMessage("dungeon.reward", coins, exp));
+            player.sendMessage(langManager.getMessage(player, "dungeon.reward", coins, exp));
             
         } catch (SQLException e) {
             Bukkit.getLogger().log(Level.SEVERE, "[MMORPG] Error giving dungeon reward", e);
@@ -252,6 +269,7 @@ public class DungeonManager {
         private final int bossHealthMultiplier;
         private final int coinReward;
         private final int expReward;
+        private net.kyori.adventure.text.Component bossName;
         
         public Dungeon(String dungeonId, String name, String worldName, double spawnX, double spawnY,
                       double spawnZ, int minLevel, int maxPlayers, int waves, String mobsPerWave,
@@ -278,6 +296,17 @@ public class DungeonManager {
             return new Location(world, spawnX, spawnY, spawnZ);
         }
         
+        /**
+         * Boss nameplate, rendered once per dungeon
+         */
+        public net.kyori.adventure.text.Component getBossName() {
+            if (bossName == null) {
+                bossName = net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer
+                    .legacySection().deserialize("§c§l" + name + " Boss");
+            }
+            return bossName;
+        }
+        
         // Getters
         public String getDungeonId() { return dungeonId; }
         public String getName() { return name; }
@@ -300,9 +329,13 @@ public class DungeonManager {
         private final List<Player> party;
         private int currentWave;
         private final Set<UUID> aliveMonsters;
+        private final EntityOwnershipRegistry.Owner owner;
+        private int pendingMonsters;
         
         public DungeonInstance(UUID instanceId, Dungeon dungeon, List<Player> party) {
             this.instanceId = instanceId;
+            this.owner = ownershipRegistry.getHandle(
+                EntityOwnershipRegistry.owner("dungeon", instanceId.toString()));
             this.dungeon = dungeon;
             this.party = new ArrayList<>(party);
             this.currentWave = 0;
@@ -324,7 +357,7 @@ public class DungeonManager {
             // Notify party
             for (Player player : party) {
                 if (player.isOnline()) {
-                    player.sendMessage(langManager.getMessage("dungeon.wave_start", 
+                    player.sendMessage(langManager.getMessage(player, "dungeon.wave_start", 
                         currentWave, dungeon.getWaves()));
                 }
             }
@@ -355,12 +388,32 @@ public class DungeonManager {
                         Math.random() * 10 - 5
                     );
                     
-                    LivingEntity entity = (LivingEntity) spawnLoc.getWorld().spawnEntity(loc, type);
-                    aliveMonsters.add(entity.getUniqueId());
+                    pendingMonsters++;
+                    spawnQueue.enqueue(SpawnQueue.Priority.DUNGEON, loc, type, this::onMonsterSpawned);
                 }
             }
         }
         
+        /**
+         * Track a queued monster once it is in the world
+         */
+        private void onMonsterSpawned(LivingEntity entity) {
+            pendingMonsters--;
+            
+            if (activeInstances.get(instanceId) != this) {
+                // Instance finished while the spawn was queued
+                if (entity != null) entity.remove();
+                return;
+            }
+            if (entity != null) {
+                // Tag so the monster can be recognised as an orphan after the instance ends
+                ownershipRegistry.tag(entity, owner);
+                aliveMonsters.add(entity.getUniqueId());
+            } else {
+                checkWaveComplete();
+            }
+        }
+        
         /**
          * Spawn boss
          */
@@ -371,26 +424,27 @@ public class DungeonManager {
             // Notify party
             for (Player player : party) {
                 if (player.isOnline()) {
-                    player.sendMessage(langManager.getMessage("dungeon.boss_spawn"));
+                    player.sendMessage(langManager.getMessage(player, "dungeon.boss_spawn"));
                 }
             }
             
             // Spawn boss
             EntityType bossType = EntityType.valueOf(dungeon.getBossMob().toUpperCase());
-            LivingEntity boss = (LivingEntity) spawnLoc.getWorld().spawnEntity(spawnLoc, bossType);
-            
-            // Apply boss multipliers
-            if (boss.getAttribute(org.bukkit.attribute.Attribute.GENERIC_MAX_HEALTH) != null) {
-                double newMax = boss.getAttribute(org.bukkit.attribute.Attribute.GENERIC_MAX_HEALTH)
-                    .getBaseValue() * dungeon.getBossHealthMultiplier();
-                boss.getAttribute(org.bukkit.attribute.Attribute.GENERIC_MAX_HEALTH).setBaseValue(newMax);
-                boss.setHealth(newMax);
-            }
-            boss.customName(net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer
-                .legacySection().deserialize("§c§l" + dungeon.getName() + " Boss"));
-            boss.setCustomNameVisible(true);
-            
-            aliveMonsters.add(boss.getUniqueId());
+            pendingMonsters++;
+            spawnQueue.enqueue(SpawnQueue.Priority.BOSS, spawnLoc, bossType, boss -> {
+                if (boss != null && activeInstances.get(instanceId) == this) {
+                    // Apply boss multipliers
+                    if (boss.getAttribute(org.bukkit.attribute.Attribute.GENERIC_MAX_HEALTH) != null) {
+                        double newMax = boss.getAttribute(org.bukkit.attribute.Attribute.GENERIC_MAX_HEALTH)
+                            .getBaseValue() * dungeon.getBossHealthMultiplier();
+                        boss.getAttribute(org.bukkit.attribute.Attribute.GENERIC_MAX_HEALTH).setBaseValue(newMax);
+                        boss.setHealth(newMax);
+                    }
+                    boss.customName(dungeon.getBossName());
+                    boss.setCustomNameVisible(true);
+                }
+                onMonsterSpawned(boss);
+            });
         }
         
         /**
@@ -398,9 +452,26 @@ public class DungeonManager {
          */
         public void onMobKilled(LivingEntity entity) {
             aliveMonsters.remove(entity.getUniqueId());
-            
-            // Check if wave is complete
-            if (aliveMonsters.isEmpty()) {
+            checkWaveComplete();
+        }
+        
+        /**
+         * Remove the loaded monsters of an ended instance; unloaded ones are
+         * culled as orphans when their chunk loads
+         */
+        private void removeMonsters() {
+            for (UUID monsterId : aliveMonsters) {
+                Entity monster = Bukkit.getEntity(monsterId);
+                if (monster != null) monster.remove();
+            }
+            aliveMonsters.clear();
+        }
+        
+        /**
+         * Advance once every monster of the wave has spawned and died
+         */
+        private void checkWaveComplete() {
+            if (aliveMonsters.isEmpty() && pendingMonsters <= 0) {
                 if (currentWave < dungeon.getWaves()) {
                     // Start next wave after delay
                     Bukkit.getScheduler().runTaskLater(
@@ -2,6 +2,8 @@ package com.nightslayer.mmorpg.enchanting;
 
 import com.nightslayer.mmorpg.MMORPGPlugin;
 import com.nightslayer.mmorpg.economy.EconomyManager;
+import com.nightslayer.mmorpg.gui.GuiTemplate;
+import com.nightslayer.mmorpg.gui.GuiView;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextDecoration;
@@ -9,53 +11,40 @@ import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.Sound;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryClickEvent;
-import org.bukkit.event.inventory.InventoryCloseEvent;
-import org.bukkit.inventory.Inventory;
+import org.bukkit.event.inventory.InventoryDragEvent;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.*;
 
 /**
  * GUI interface for the enchantment system
+ *
+ * The item slot is a plain editable slot; options are rendered from
+ * whatever it holds, with one cached icon per enchantment.
  */
-public class EnchantingGUI implements Listener {
-    
+public class EnchantingGUI {
+
     private final MMORPGPlugin plugin;
     private final EnchantmentManager enchantmentManager;
     private final EconomyManager economyManager;
-    private final Map<UUID, Inventory> activeGUIs;
-    private final Map<UUID, ItemStack> itemsToEnchant;
-    
+    private final GuiTemplate template;
+    // Keyed by instance: a reload creates new enchantments, so stale icons simply fall out
+    private final Map<EnchantmentManager.RPGEnchantment, ItemStack> optionIcons;
+
     private static final int ITEM_SLOT = 13;
     private static final int INFO_SLOT = 4;
     private static final int[] ENCHANT_SLOTS = {29, 30, 31, 32, 33};
-    
+
     public EnchantingGUI(MMORPGPlugin plugin) {
         this.plugin = plugin;
         this.enchantmentManager = plugin.getEnchantmentManager();
         this.economyManager = plugin.getEconomyManager();
-        this.activeGUIs = new HashMap<>();
-        this.itemsToEnchant = new HashMap<>();
+        this.template = buildTemplate();
+        this.optionIcons = new WeakHashMap<>();
     }
-    
-    /**
-     * Opens the enchanting GUI
-     */
-    public void openEnchantingGUI(Player player) {
-        Inventory gui = Bukkit.createInventory(null, 54,
-                Component.text("Mesa de Encantamientos RPG", NamedTextColor.LIGHT_PURPLE, TextDecoration.BOLD));
-        
-        // Fill borders
-        ItemStack border = new ItemStack(Material.PURPLE_STAINED_GLASS_PANE);
-        for (int i = 0; i < 54; i++) {
-            if (i != ITEM_SLOT && i != INFO_SLOT && !isEnchantSlot(i)) {
-                gui.setItem(i, border);
-            }
-        }
-        
+
+    private static GuiTemplate buildTemplate() {
         // Set info item
         ItemStack info = new ItemStack(Material.ENCHANTED_BOOK);
         info.editMeta(meta -> {
@@ -69,86 +58,26 @@ public class EnchantingGUI implements Listener {
             lore.add(Component.text("Los encantamientos requieren nivel", NamedTextColor.YELLOW));
             meta.lore(lore);
         });
-        gui.setItem(INFO_SLOT, info);
-        
-        // Set item slot placeholder
-        ItemStack placeholder = new ItemStack(Material.BARRIER);
-        placeholder.editMeta(meta -> {
-            meta.displayName(Component.text("Coloca un item aquí", NamedTextColor.RED));
-        });
-        gui.setItem(ITEM_SLOT, placeholder);
-        
-        activeGUIs.put(player.getUniqueId(), gui);
-        player.openInventory(gui);
-        player.playSound(player.getLocation(), Sound.BLOCK_ENCHANTMENT_TABLE_USE, 1.0f, 1.0f);
-    }
-    
-    private boolean isEnchantSlot(int slot) {
-        for (int enchantSlot : ENCHANT_SLOTS) {
-            if (slot == enchantSlot) return true;
-        }
-        return false;
+
+        return GuiTemplate.builder(54,
+                        Component.text("Mesa de Encantamientos RPG", NamedTextColor.LIGHT_PURPLE, TextDecoration.BOLD))
+                .fill(new ItemStack(Material.PURPLE_STAINED_GLASS_PANE))
+                .clear(ITEM_SLOT)
+                .clear(ENCHANT_SLOTS)
+                .set(INFO_SLOT, info)
+                .build();
     }
-    
-    @EventHandler
-    public void onInventoryClick(InventoryClickEvent event) {
-        if (!(event.getWhoClicked() instanceof Player player)) return;
-        if (!activeGUIs.containsKey(player.getUniqueId())) return;
-        
-        Inventory gui = activeGUIs.get(player.getUniqueId());
-        if (!event.getInventory().equals(gui)) return;
-        
-        int slot = event.getRawSlot();
-        
-        // Allow clicks in player inventory
-        if (slot >= 54) {
-            return;
-        }
-        
-        // Handle item slot
-        if (slot == ITEM_SLOT) {
-            ItemStack cursor = event.getCursor();
-            ItemStack current = event.getCurrentItem();
-            
-            if (cursor != null && cursor.getType() != Material.AIR) {
-                // Placing item
-                itemsToEnchant.put(player.getUniqueId(), cursor.clone());
-                Bukkit.getScheduler().runTaskLater(plugin, () -> updateEnchantmentOptions(player, gui), 1L);
-            } else if (current != null && current.getType() != Material.AIR && current.getType() != Material.BARRIER) {
-                // Taking item back
-                itemsToEnchant.remove(player.getUniqueId());
-                clearEnchantmentOptions(gui);
-            }
-            return;
-        }
-        
-        // Handle enchantment selection
-        if (isEnchantSlot(slot)) {
-            event.setCancelled(true);
-            handleEnchantmentClick(player, gui, slot);
-            return;
-        }
-        
-        event.setCancelled(true);
+
+    /**
+     * Opens the enchanting GUI
+     */
+    public void openEnchantingGUI(Player player) {
+        new EnchantingView(player).open(player);
+        player.playSound(player.getLocation(), Sound.BLOCK_ENCHANTMENT_TABLE_USE, 1.0f, 1.0f);
     }
-    
-    private void updateEnchantmentOptions(Player player, Inventory gui) {
-        ItemStack item = itemsToEnchant.get(player.getUniqueId());
-        if (item == null) return;
-        
-        List<EnchantmentManager.RPGEnchantment> available = enchantmentManager.getAvailableEnchantments(player);
-        
-        // Clear previous options
-        clearEnchantmentOptions(gui);
-        
-        // Show available enchantments
-        int slotIndex = 0;
-        for (EnchantmentManager.RPGEnchantment enchant : available) {
-            if (!enchant.isApplicable(item)) {
-                continue;
-            }
-            if (slotIndex >= ENCHANT_SLOTS.length) break;
-            
+
+    private ItemStack getOptionIcon(EnchantmentManager.RPGEnchantment enchant) {
+        return optionIcons.computeIfAbsent(enchant, key -> {
             ItemStack enchantOption = new ItemStack(Material.ENCHANTED_BOOK);
             enchantOption.editMeta(meta -> {
                 meta.displayName(Component.text(enchant.getName(), NamedTextColor.LIGHT_PURPLE, TextDecoration.BOLD));
@@ -163,80 +92,153 @@ public class EnchantingGUI implements Listener {
                 lore.add(Component.text("Click para aplicar", NamedTextColor.GREEN));
                 meta.lore(lore);
             });
-            
-            gui.setItem(ENCHANT_SLOTS[slotIndex], enchantOption);
-            slotIndex++;
-        }
+            return enchantOption;
+        });
     }
-    
-    private void clearEnchantmentOptions(Inventory gui) {
-        for (int slot : ENCHANT_SLOTS) {
-            gui.setItem(slot, null);
+
+    private static int indexOf(int[] slots, int slot) {
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] == slot) return i;
         }
+        return -1;
     }
-    
-    private void handleEnchantmentClick(Player player, Inventory gui, int slot) {
-        ItemStack item = itemsToEnchant.get(player.getUniqueId());
-        if (item == null) {
-            player.sendMessage(Component.text("Primero coloca un item.", NamedTextColor.RED));
-            return;
+
+    private static boolean isEmpty(ItemStack item) {
+        return item == null || item.getType() == Material.AIR;
+    }
+
+    /**
+     * One player's session at the enchanting table
+     */
+    private class EnchantingView extends GuiView {
+        private final Player player;
+        // One level lookup per session; options are then pure index lookups
+        private final int playerLevel;
+        private final String[] shownEnchantments;
+        private boolean refreshScheduled;
+
+        EnchantingView(Player player) {
+            super(template);
+            this.player = player;
+            this.playerLevel = enchantmentManager.getPlayerLevel(player);
+            this.shownEnchantments = new String[ENCHANT_SLOTS.length];
         }
-        
-        ItemStack enchantOption = gui.getItem(slot);
-        if (enchantOption == null) return;
-        
-        // Get enchantment from display name
-        String enchantName = net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer.plainText()
-                .serialize(enchantOption.getItemMeta().displayName());
-        
-        // Find enchantment
-        EnchantmentManager.RPGEnchantment enchant = enchantmentManager.getAvailableEnchantments(player)
-                .stream()
-                .filter(e -> e.getName().equals(enchantName))
-                .findFirst()
-                .orElse(null);
-        
-        if (enchant == null) return;
-        
-        // Check balance
-        int balance = economyManager.getBalance(player.getUniqueId());
-        if (balance < enchant.getCoinCostPerLevel()) {
-            player.sendMessage(Component.text("No tienes suficientes coins. Necesitas: " + enchant.getCoinCostPerLevel(), NamedTextColor.RED));
-            player.playSound(player.getLocation(), Sound.ENTITY_VILLAGER_NO, 1.0f, 1.0f);
-            return;
+
+        @Override
+        protected boolean isEditable(int slot) {
+            return slot == ITEM_SLOT;
         }
-        
-        // Apply enchantment
-        if (enchantmentManager.applyEnchantment(player, item, enchant.getEnchantmentId(), 1)) {
-            // Deduct cost
-            economyManager.withdraw(player.getUniqueId(), enchant.getCoinCostPerLevel());
-            
-            // Update item in slot
-            gui.setItem(ITEM_SLOT, item);
-            
-            player.sendMessage(Component.text("✓ Encantamiento aplicado: ", NamedTextColor.GREEN)
-                    .append(Component.text(enchant.getName(), NamedTextColor.LIGHT_PURPLE, TextDecoration.BOLD)));
-            player.playSound(player.getLocation(), Sound.BLOCK_ENCHANTMENT_TABLE_USE, 1.0f, 1.5f);
-            
-            // Refresh options
-            updateEnchantmentOptions(player, gui);
-        } else {
-            player.sendMessage(Component.text("No se pudo aplicar el encantamiento.", NamedTextColor.RED));
-            player.playSound(player.getLocation(), Sound.ENTITY_VILLAGER_NO, 1.0f, 1.0f);
+
+        @Override
+        protected void render(ItemStack[] frame) {
+            Arrays.fill(shownEnchantments, null);
+            ItemStack item = getInventory().getItem(ITEM_SLOT);
+            if (isEmpty(item)) return;
+
+            List<EnchantmentManager.RPGEnchantment> available =
+                    enchantmentManager.getAvailableEnchantments(item.getType(), playerLevel);
+            for (int i = 0; i < ENCHANT_SLOTS.length && i < available.size(); i++) {
+                EnchantmentManager.RPGEnchantment enchant = available.get(i);
+                shownEnchantments[i] = enchant.getEnchantmentId();
+                frame[ENCHANT_SLOTS[i]] = getOptionIcon(enchant);
+            }
         }
-    }
-    
-    @EventHandler
-    public void onInventoryClose(InventoryCloseEvent event) {
-        if (!(event.getPlayer() instanceof Player player)) return;
-        
-        Inventory gui = activeGUIs.remove(player.getUniqueId());
-        if (gui == null) return;
-        
-        // Return item
-        ItemStack item = itemsToEnchant.remove(player.getUniqueId());
-        if (item != null) {
-            player.getInventory().addItem(item);
+
+        private void scheduleRefresh() {
+            if (refreshScheduled) return;
+            refreshScheduled = true;
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                refreshScheduled = false;
+                if (getInventory().getViewers().contains(player)) {
+                    refresh();
+                }
+            });
+        }
+
+        @Override
+        protected void onClick(InventoryClickEvent event, int slot) {
+            // Placing or taking the item, update options after the move
+            if (slot == ITEM_SLOT) {
+                scheduleRefresh();
+                return;
+            }
+
+            // Handle enchantment selection
+            int index = indexOf(ENCHANT_SLOTS, slot);
+            if (index >= 0) {
+                handleEnchantmentClick(index);
+            }
+        }
+
+        @Override
+        protected void onPlayerInventoryClick(InventoryClickEvent event) {
+            // GuiView cancelled the vanilla shift-click, which may stack into the border
+            if (event.isShiftClick()) {
+                ItemStack item = event.getCurrentItem();
+                if (isEmpty(item) || !isEmpty(getInventory().getItem(ITEM_SLOT))) return;
+                getInventory().setItem(ITEM_SLOT, item);
+                event.getClickedInventory().setItem(event.getSlot(), null);
+            }
+            scheduleRefresh();
+        }
+
+        @Override
+        protected void onDrag(InventoryDragEvent event) {
+            scheduleRefresh();
+        }
+
+        private void handleEnchantmentClick(int index) {
+            ItemStack item = getInventory().getItem(ITEM_SLOT);
+            if (isEmpty(item)) {
+                player.sendMessage(Component.text("Primero coloca un item.", NamedTextColor.RED));
+                return;
+            }
+
+            // Find the enchantment shown in this slot
+            if (shownEnchantments[index] == null) return;
+            EnchantmentManager.RPGEnchantment enchant = enchantmentManager.getEnchantment(shownEnchantments[index]);
+            if (enchant == null) return;
+
+            // Check balance
+            int balance = economyManager.getBalance(player.getUniqueId());
+            if (balance < enchant.getCoinCostPerLevel()) {
+                player.sendMessage(Component.text("No tienes suficientes coins. Necesitas: " + enchant.getCoinCostPerLevel(), NamedTextColor.RED));
+                player.playSound(player.getLocation(), Sound.ENTITY_VILLAGER_NO, 1.0f, 1.0f);
+                return;
+            }
+
+            // Apply enchantment
+            ItemStack enchanted = item.clone();
+            if (enchantmentManager.applyEnchantment(player, enchanted, enchant.getEnchantmentId(), 1)) {
+                // Deduct cost
+                economyManager.withdraw(player.getUniqueId(), enchant.getCoinCostPerLevel());
+
+                // Update item in slot
+                getInventory().setItem(ITEM_SLOT, enchanted);
+
+                player.sendMessage(Component.text("✓ Encantamiento aplicado: ", NamedTextColor.GREEN)
+                        .append(Component.text(enchant.getName(), NamedTextColor.LIGHT_PURPLE, TextDecoration.BOLD)));
+                player.playSound(player.getLocation(), Sound.BLOCK_ENCHANTMENT_TABLE_USE, 1.0f, 1.5f);
+
+                // Refresh options
+                refresh();
+            } else {
+                player.sendMessage(Component.text("No se pudo aplicar el encantamiento.", NamedTextColor.RED));
+                player.playSound(player.getLocation(), Sound.ENTITY_VILLAGER_NO, 1.0f, 1.0f);
+            }
+        }
+
+        @Override
+        protected void onClose(Player player) {
+            // Return item
+            ItemStack item = getInventory().getItem(ITEM_SLOT);
+            if (!isEmpty(item)) {
+                getInventory().setItem(ITEM_SLOT, null);
+                // Drop what no longer fits rather than losing it
+                for (ItemStack leftover : player.getInventory().addItem(item).values()) {
+                    player.getWorld().dropItemNaturally(player.getLocation(), leftover);
+                }
+            }
         }
     }
 }
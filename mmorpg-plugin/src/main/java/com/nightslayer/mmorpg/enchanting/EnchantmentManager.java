@@ -1,8 +1,11 @@
 package com.nightslayer.mmorpg.enchanting;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
 import com.nightslayer.mmorpg.database.DatabaseManager;
 import com.nightslayer.mmorpg.i18n.LanguageManager;
 import org.bukkit.Bukkit;
+import org.bukkit.Material;
 import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
@@ -22,6 +25,8 @@ import java.util.logging.Level;
  * - Apply enchantments to items
  * - Validate level requirements
  * - Cost system (coins + exp)
+ * - Applicability compiled to a Material-ordinal bitset per enchantment,
+ *   with a reverse index from material to applicable enchantments
  */
 public class EnchantmentManager {
     
@@ -29,10 +34,15 @@ public class EnchantmentManager {
     private final LanguageManager langManager;
     private final Map<String, RPGEnchantment> enchantments;
     
+    // Enchantments applicable to each Material ordinal, by level required
+    private static final RPGEnchantment[] NONE = new RPGEnchantment[0];
+    private final RPGEnchantment[][] byMaterial;
+    
     public EnchantmentManager(DatabaseManager dbManager, LanguageManager langManager) {
         this.dbManager = dbManager;
         this.langManager = langManager;
         this.enchantments = new HashMap<>();
+        this.byMaterial = new RPGEnchantment[Material.values().length][];
     }
     
     /**
@@ -40,21 +50,32 @@ public class EnchantmentManager {
      */
     public void loadEnchantments() {
         enchantments.clear();
-        String sql = "SELECT * FROM enchantments";
+        String sql = "SELECT * FROM enchantments WHERE enabled = 1";
         
         try (PreparedStatement stmt = dbManager.getConnection().prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
             
             while (rs.next()) {
+                String id = rs.getString("id");
+                String applicableItems;
+                try {
+                    applicableItems = toTokenList(rs.getString("applicable_items"));
+                } catch (RuntimeException e) {
+                    Bukkit.getLogger().warning("[MMORPG] Skipping enchantment " + id + ": malformed applicable_items (" + e.getMessage() + ")");
+                    continue;
+                }
+                
+                // The model has a single per-level price; never price a level below base_cost
+                int coinCost = Math.max(rs.getInt("base_cost"), rs.getInt("cost_per_level"));
                 RPGEnchantment ench = new RPGEnchantment(
-                    rs.getString("enchantment_id"),
+                    id,
                     rs.getString("name"),
                     rs.getString("type"),
                     rs.getInt("max_level"),
-                    rs.getInt("level_required"),
-                    rs.getInt("coin_cost_per_level"),
-                    rs.getInt("exp_cost_per_level"),
-                    rs.getString("applicable_items")
+                    rs.getInt("min_level_required"),
+                    coinCost,
+                    0, // No exp cost column in the schema
+                    applicableItems
                 );
                 enchantments.put(ench.getEnchantmentId(), ench);
             }
@@ -64,6 +85,62 @@ public class EnchantmentManager {
         } catch (SQLException e) {
             Bukkit.getLogger().log(Level.SEVERE, "[MMORPG] Error loading enchantments", e);
         }
+        
+        buildIndex();
+    }
+    
+    /**
+     * Convert the applicable_items column (["SWORD", "AXE"]) to "SWORD,AXE"
+     */
+    private static String toTokenList(String json) {
+        if (json == null || json.isBlank()) return "";
+        
+        StringJoiner tokens = new StringJoiner(",");
+        for (JsonElement element : JsonParser.parseString(json).getAsJsonArray()) {
+            tokens.add(element.getAsString());
+        }
+        return tokens.toString();
+    }
+    
+    /**
+     * Build the material -> applicable enchantments reverse index
+     */
+    private void buildIndex() {
+        List<RPGEnchantment> sorted = new ArrayList<>(enchantments.values());
+        sorted.sort(Comparator.comparingInt(RPGEnchantment::getLevelRequired)
+            .thenComparing(RPGEnchantment::getEnchantmentId));
+        
+        List<RPGEnchantment> applicable = new ArrayList<>();
+        for (int ordinal = 0; ordinal < byMaterial.length; ordinal++) {
+            applicable.clear();
+            for (RPGEnchantment ench : sorted) {
+                if (ench.applicable.get(ordinal)) {
+                    applicable.add(ench);
+                }
+            }
+            byMaterial[ordinal] = applicable.isEmpty() ? NONE : applicable.toArray(NONE);
+        }
+    }
+    
+    /**
+     * Enchantments applicable to a material, ordered by level required
+     * (do not modify)
+     */
+    public RPGEnchantment[] getApplicableEnchantments(Material material) {
+        RPGEnchantment[] applicable = byMaterial[material.ordinal()];
+        return applicable != null ? applicable : NONE;
+    }
+    
+    /**
+     * Enchantments applicable to a material that a player of the given level can use
+     */
+    public List<RPGEnchantment> getAvailableEnchantments(Material material, int playerLevel) {
+        List<RPGEnchantment> available = new ArrayList<>();
+        for (RPGEnchantment ench : getApplicableEnchantments(material)) {
+            if (ench.getLevelRequired() > playerLevel) break;
+            available.add(ench);
+        }
+        return available;
     }
     
     /**
@@ -95,28 +172,28 @@ public class EnchantmentManager {
     public boolean applyEnchantment(Player player, ItemStack item, String enchantmentId, int level) {
         RPGEnchantment rpgEnch = enchantments.get(enchantmentId);
         if (rpgEnch == null) {
-            player.sendMessage(langManager.getMessage("enchanting.not_found"));
+            player.sendMessage(langManager.getMessage(player, "enchanting.not_found"));
             return false;
         }
         
         // Check player level
         int playerLevel = getPlayerLevel(player);
         if (playerLevel < rpgEnch.getLevelRequired()) {
-            player.sendMessage(langManager.getMessage("enchanting.level_too_low", 
+            player.sendMessage(langManager.getMessage(player, "enchanting.level_too_low", 
                 rpgEnch.getLevelRequired()));
             return false;
         }
         
         // Check enchantment level
         if (level < 1 || level > rpgEnch.getMaxLevel()) {
-            player.sendMessage(langManager.getMessage("enchanting.invalid_level", 
+            player.sendMessage(langManager.getMessage(player, "enchanting.invalid_level", 
                 rpgEnch.getMaxLevel()));
             return false;
         }
         
         // Check if item is applicable
         if (!rpgEnch.isApplicable(item)) {
-            player.sendMessage(langManager.getMessage("enchanting.not_applicable"));
+            player.sendMessage(langManager.getMessage(player, "enchanting.not_applicable"));
             return false;
         }
         
@@ -127,19 +204,19 @@ public class EnchantmentManager {
         // Check player balance
         int playerBalance = getPlayerBalance(player);
         if (playerBalance < coinCost) {
-            player.sendMessage(langManager.getMessage("enchanting.insufficient_coins"));
+            player.sendMessage(langManager.getMessage(player, "enchanting.insufficient_coins"));
             return false;
         }
         
         // Check player exp
         int playerExp = getPlayerExp(player);
         if (playerExp < expCost) {
-            player.sendMessage(langManager.getMessage("enchanting.insufficient_exp"));
+            player.sendMessage(langManager.getMessage(player, "enchanting.insufficient_exp"));
             return false;
         }
         
         // Apply vanilla enchantment
-        Enchantment vanillaEnch = getVanillaEnchantment(rpgEnch.getType());
+        Enchantment vanillaEnch = rpgEnch.getVanillaEnchantment();
         if (vanillaEnch != null) {
             ItemMeta meta = item.getItemMeta();
             if (meta != null) {
@@ -152,7 +229,7 @@ public class EnchantmentManager {
         chargeCoins(player, coinCost);
         chargeExp(player, expCost);
         
-        player.sendMessage(langManager.getMessage("enchanting.success", 
+        player.sendMessage(langManager.getMessage(player, "enchanting.success", 
             rpgEnch.getName(), level));
         
         return true;
@@ -161,7 +238,8 @@ public class EnchantmentManager {
     /**
      * Map RPG enchantment type to vanilla enchantment
      */
-    private Enchantment getVanillaEnchantment(String type) {
+    private static Enchantment resolveVanillaEnchantment(String type) {
+        if (type == null) return null;
         return switch (type.toUpperCase()) {
             case "SHARPNESS" -> Enchantment.SHARPNESS;
             case "PROTECTION" -> Enchantment.PROTECTION;
@@ -182,7 +260,7 @@ public class EnchantmentManager {
     /**
      * Get player level from database
      */
-    private int getPlayerLevel(Player player) {
+    public int getPlayerLevel(Player player) {
         String sql = "SELECT level FROM players WHERE uuid = ?";
         
         try (PreparedStatement stmt = dbManager.getConnection().prepareStatement(sql)) {
@@ -285,6 +363,10 @@ public class EnchantmentManager {
         private final int expCostPerLevel;
         private final String applicableItems;
         
+        // Compiled at construction
+        private final BitSet applicable;
+        private final Enchantment vanillaEnchantment;
+        
         public RPGEnchantment(String enchantmentId, String name, String type, int maxLevel,
                              int levelRequired, int coinCostPerLevel, int expCostPerLevel,
                              String applicableItems) {
@@ -296,24 +378,47 @@ public class EnchantmentManager {
             this.coinCostPerLevel = coinCostPerLevel;
             this.expCostPerLevel = expCostPerLevel;
             this.applicableItems = applicableItems;
+            this.applicable = compileApplicable(applicableItems);
+            this.vanillaEnchantment = resolveVanillaEnchantment(type);
         }
         
         /**
-         * Check if enchantment can be applied to item
+         * Materials whose name contains any comma-separated token (e.g. "SWORD,AXE");
+         * "ALL" matches every item
          */
-        public boolean isApplicable(ItemStack item) {
-            String itemType = item.getType().name();
-            String[] applicable = applicableItems.split(",");
+        private static BitSet compileApplicable(String applicableItems) {
+            BitSet bits = new BitSet();
+            if (applicableItems == null) return bits;
             
-            for (String type : applicable) {
-                if (itemType.contains(type.trim().toUpperCase())) {
-                    return true;
+            for (String token : applicableItems.split(",")) {
+                String type = token.trim().toUpperCase();
+                if (type.isEmpty()) continue;
+                boolean all = type.equals("ALL");
+                for (Material material : Material.values()) {
+                    if (!material.isLegacy() && (all ? material.isItem() : material.name().contains(type))) {
+                        bits.set(material.ordinal());
+                    }
                 }
             }
-            
-            return false;
+            return bits;
         }
         
+        /**
+         * Check if enchantment can be applied to item
+         */
+        public boolean isApplicable(ItemStack item) {
+            return applicable.get(item.getType().ordinal());
+        }
+        
+        public boolean isApplicable(Material material) {
+            return applicable.get(material.ordinal());
+        }
+        
+        /**
+         * Vanilla enchantment applied for this type, or null if none
+         */
+        public Enchantment getVanillaEnchantment() { return vanillaEnchantment; }
+        
         // Getters
         public String getEnchantmentId() { return enchantmentId; }
         public String getName() { return name; }
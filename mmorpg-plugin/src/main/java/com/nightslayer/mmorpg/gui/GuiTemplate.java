@@ -0,0 +1,91 @@
+package com.nightslayer.mmorpg.gui;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Arrays;
+
+/**
+ * Immutable, pre-rendered contents of a GUI's static slots
+ *
+ * Built once and shared by every view of the same GUI. Items are never
+ * modified after build(), so views hand the same instances to
+ * Inventory.setItem (the server copies them on set).
+ */
+public final class GuiTemplate {
+
+    private final int size;
+    private final Component title;
+    private final ItemStack[] slots;
+
+    private GuiTemplate(int size, Component title, ItemStack[] slots) {
+        this.size = size;
+        this.title = title;
+        this.slots = slots;
+    }
+
+    public static Builder builder(int size, Component title) {
+        return new Builder(size, title);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public Component getTitle() {
+        return title;
+    }
+
+    public ItemStack getItem(int slot) {
+        return slots[slot];
+    }
+
+    /**
+     * Copy the static slots into a frame (references only, no item copies)
+     */
+    void copyInto(ItemStack[] frame) {
+        System.arraycopy(slots, 0, frame, 0, size);
+    }
+
+    /**
+     * Builder for GUI templates
+     */
+    public static final class Builder {
+        private final int size;
+        private final Component title;
+        private final ItemStack[] slots;
+
+        private Builder(int size, Component title) {
+            if (size <= 0 || size > 54 || size % 9 != 0) {
+                throw new IllegalArgumentException("GUI size must be a multiple of 9 up to 54: " + size);
+            }
+            this.size = size;
+            this.title = title;
+            this.slots = new ItemStack[size];
+        }
+
+        /**
+         * Put an item in every slot (e.g. a border pane), to be cleared or overridden
+         */
+        public Builder fill(ItemStack item) {
+            Arrays.fill(slots, item);
+            return this;
+        }
+
+        public Builder set(int slot, ItemStack item) {
+            slots[slot] = item;
+            return this;
+        }
+
+        public Builder clear(int... clearSlots) {
+            for (int slot : clearSlots) {
+                slots[slot] = null;
+            }
+            return this;
+        }
+
+        public GuiTemplate build() {
+            return new GuiTemplate(size, title, slots.clone());
+        }
+    }
+}
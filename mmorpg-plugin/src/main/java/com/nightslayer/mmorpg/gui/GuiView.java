@@ -0,0 +1,131 @@
+package com.nightslayer.mmorpg.gui;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * One open instance of a GUI, owning its inventory as the InventoryHolder
+ *
+ * Features:
+ * - Events are routed by GuiListener through the inventory holder, with no
+ *   title checks or per-player lookup maps
+ * - Each refresh renders into a frame pre-filled from the shared template;
+ *   only slots whose item differs from the last render are set
+ * - Editable slots (where players place items) are never rendered over and
+ *   clicks on them are not cancelled; every other click is
+ * - Shift-clicks from the player's inventory and double-click collects are
+ *   always cancelled, as vanilla would move items into or out of any top
+ *   slot; views with editable slots move items themselves
+ */
+public abstract class GuiView implements InventoryHolder {
+
+    private final GuiTemplate template;
+    private final Inventory inventory;
+    private final ItemStack[] frame;
+    private final ItemStack[] rendered;
+
+    protected GuiView(GuiTemplate template) {
+        this.template = template;
+        this.inventory = Bukkit.createInventory(this, template.getSize(), template.getTitle());
+        this.frame = new ItemStack[template.getSize()];
+        this.rendered = new ItemStack[template.getSize()];
+    }
+
+    @Override
+    public @NotNull Inventory getInventory() {
+        return inventory;
+    }
+
+    public void open(Player player) {
+        refresh();
+        player.openInventory(inventory);
+    }
+
+    /**
+     * Re-render the view, updating only the slots that changed
+     */
+    public final void refresh() {
+        template.copyInto(frame);
+        render(frame);
+        for (int slot = 0; slot < frame.length; slot++) {
+            if (isEditable(slot)) continue;
+
+            ItemStack item = frame[slot];
+            ItemStack previous = rendered[slot];
+            if (item == previous) continue;
+            rendered[slot] = item;
+            if (item != null && item.equals(previous)) continue;
+            inventory.setItem(slot, item);
+        }
+    }
+
+    /**
+     * Fill the dynamic slots; the frame already holds the template items
+     */
+    protected abstract void render(ItemStack[] frame);
+
+    /**
+     * Whether players may place and take items in a slot
+     */
+    protected boolean isEditable(int slot) {
+        return false;
+    }
+
+    /**
+     * Click on a slot of this GUI (already cancelled unless editable)
+     */
+    protected void onClick(InventoryClickEvent event, int slot) {
+    }
+
+    /**
+     * Click in the player's own inventory while this GUI is open
+     * (already cancelled for shift-clicks and collects)
+     */
+    protected void onPlayerInventoryClick(InventoryClickEvent event) {
+    }
+
+    /**
+     * Drag that only touches editable slots or the player's inventory
+     */
+    protected void onDrag(InventoryDragEvent event) {
+    }
+
+    protected void onClose(Player player) {
+    }
+
+    final void handleClick(InventoryClickEvent event) {
+        int slot = event.getRawSlot();
+        if (slot < 0) return;
+
+        InventoryAction action = event.getAction();
+        if (action == InventoryAction.COLLECT_TO_CURSOR
+                || (slot >= inventory.getSize() && action == InventoryAction.MOVE_TO_OTHER_INVENTORY)) {
+            event.setCancelled(true);
+        }
+        if (slot >= inventory.getSize()) {
+            onPlayerInventoryClick(event);
+            return;
+        }
+        if (!isEditable(slot)) {
+            event.setCancelled(true);
+        }
+        onClick(event, slot);
+    }
+
+    final void handleDrag(InventoryDragEvent event) {
+        for (int slot : event.getRawSlots()) {
+            if (slot < inventory.getSize() && !isEditable(slot)) {
+                event.setCancelled(true);
+                return;
+            }
+        }
+        onDrag(event);
+    }
+}
@@ -0,0 +1,127 @@
+package com.nightslayer.mmorpg.gui;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.Material;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * GuiView listing entries across pages
+ *
+ * Only the entries of the current page are fetched and rendered; the
+ * previous/next buttons appear when there is a page in that direction.
+ */
+public abstract class PagedGuiView<T> extends GuiView {
+
+    private static ItemStack previousButton;
+    private static ItemStack nextButton;
+
+    private final int[] contentSlots;
+    private final int previousSlot;
+    private final int nextSlot;
+    private int page;
+
+    /**
+     * @param previousSlot Slot of the previous-page button, or -1 for single-page views
+     * @param nextSlot Slot of the next-page button, or -1 for single-page views
+     */
+    protected PagedGuiView(GuiTemplate template, int[] contentSlots, int previousSlot, int nextSlot) {
+        super(template);
+        this.contentSlots = contentSlots;
+        this.previousSlot = previousSlot;
+        this.nextSlot = nextSlot;
+    }
+
+    protected abstract int getEntryCount();
+
+    protected abstract T getEntry(int index);
+
+    /**
+     * Icon of an entry; return cached items where possible so unchanged
+     * slots are skipped by identity
+     */
+    protected abstract ItemStack renderEntry(T entry, int index);
+
+    protected void onEntryClick(InventoryClickEvent event, T entry, int index) {
+    }
+
+    /**
+     * Render anything besides the entries and page buttons
+     */
+    protected void renderExtras(ItemStack[] frame) {
+    }
+
+    @Override
+    protected final void render(ItemStack[] frame) {
+        int count = getEntryCount();
+        int pages = getPageCount(count);
+        page = Math.max(0, Math.min(page, pages - 1));
+
+        int first = page * contentSlots.length;
+        for (int i = 0; i < contentSlots.length; i++) {
+            int index = first + i;
+            if (index < count) {
+                frame[contentSlots[i]] = renderEntry(getEntry(index), index);
+            }
+        }
+        if (previousSlot >= 0 && page > 0) {
+            frame[previousSlot] = previousButton();
+        }
+        if (nextSlot >= 0 && page < pages - 1) {
+            frame[nextSlot] = nextButton();
+        }
+        renderExtras(frame);
+    }
+
+    @Override
+    protected void onClick(InventoryClickEvent event, int slot) {
+        if (slot == previousSlot && page > 0) {
+            page--;
+            refresh();
+            return;
+        }
+        if (slot == nextSlot && page < getPageCount(getEntryCount()) - 1) {
+            page++;
+            refresh();
+            return;
+        }
+        for (int i = 0; i < contentSlots.length; i++) {
+            if (contentSlots[i] == slot) {
+                int index = page * contentSlots.length + i;
+                if (index < getEntryCount()) {
+                    onEntryClick(event, getEntry(index), index);
+                }
+                return;
+            }
+        }
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    private int getPageCount(int count) {
+        return Math.max(1, (count + contentSlots.length - 1) / contentSlots.length);
+    }
+
+    private static ItemStack previousButton() {
+        if (previousButton == null) {
+            previousButton = button("« Anterior");
+        }
+        return previousButton;
+    }
+
+    private static ItemStack nextButton() {
+        if (nextButton == null) {
+            nextButton = button("Siguiente »");
+        }
+        return nextButton;
+    }
+
+    private static ItemStack button(String label) {
+        ItemStack button = new ItemStack(Material.ARROW);
+        button.editMeta(meta -> meta.displayName(Component.text(label, NamedTextColor.YELLOW)));
+        return button;
+    }
+}
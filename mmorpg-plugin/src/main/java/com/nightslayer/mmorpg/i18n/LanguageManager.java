@@ -1,29 +1,60 @@
 package com.nightslayer.mmorpg.i18n;
 
 import com.nightslayer.mmorpg.MMORPGPlugin;
-import org.bukkit.configuration.file.FileConfiguration;
+import com.nightslayer.mmorpg.items.RPGItem;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
+import org.bukkit.NamespacedKey;
+import org.bukkit.command.CommandSender;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLocaleChangeEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.persistence.PersistentDataType;
 
 import java.io.File;
 import java.io.InputStream;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
 /**
  * Manages language files and translations for the plugin.
+ * 
+ * Features:
+ * - Messages are compiled into MessageTemplates, so a lookup is one map get
+ *   and rendering one builder pass
+ * - Language files are only listed at startup; a bundle is compiled the
+ *   first time someone needs it, so unused languages cost nothing
+ * - Each player gets messages in their chosen language (stored on the
+ *   player), else their client locale, else the server language
+ * - Broadcasts render once per language in use, not once per recipient
+ * - Reloads and language switches swap the bundle tables in one assignment
  */
-public class LanguageManager {
+public class LanguageManager implements Listener {
+    
+    private static final String FALLBACK_LANGUAGE = "es_ES";
     
     private final MMORPGPlugin plugin;
-    private final Map<String, FileConfiguration> languages;
+    private final NamespacedKey preferenceKey;
+    private final Map<UUID, String> playerLanguages;
+    private volatile Map<String, File> languageFiles;
+    private volatile Map<String, MessageBundle> bundles;
+    private volatile MessageBundle currentLang;
+    private volatile MessageBundle fallbackLang;
     private String defaultLanguage;
-    private FileConfiguration currentLang;
     
     public LanguageManager(MMORPGPlugin plugin) {
         this.plugin = plugin;
-        this.languages = new HashMap<>();
-        this.defaultLanguage = "es_ES";
+        this.preferenceKey = new NamespacedKey(plugin, "language");
+        this.playerLanguages = new ConcurrentHashMap<>();
+        this.languageFiles = Map.of();
+        this.bundles = new ConcurrentHashMap<>();
+        this.defaultLanguage = FALLBACK_LANGUAGE;
     }
     
     /**
@@ -40,26 +71,38 @@ public class LanguageManager {
         saveDefaultLanguage("es_ES");
         saveDefaultLanguage("en_US");
         
-        // Load all language files from disk
+        // Only list the files; bundles are compiled on first use
+        Map<String, File> files = new TreeMap<>();
         File[] langFiles = langDir.listFiles((dir, name) -> name.endsWith(".yml"));
         if (langFiles != null) {
             for (File file : langFiles) {
-                String langCode = file.getName().replace(".yml", "");
-                FileConfiguration config = YamlConfiguration.loadConfiguration(file);
-                languages.put(langCode, config);
-                plugin.getLogger().info("Loaded language: " + langCode);
+                files.put(file.getName().replace(".yml", ""), file);
             }
         }
+        plugin.getLogger().info("Available languages: " + String.join(", ", files.keySet()));
         
         // Set current language from config
-        defaultLanguage = plugin.getConfig().getString("language", "es_ES");
-        currentLang = languages.getOrDefault(defaultLanguage, languages.get("es_ES"));
+        defaultLanguage = plugin.getConfig().getString("language", FALLBACK_LANGUAGE);
+        languageFiles = files;
+        bundles = new ConcurrentHashMap<>();
+        fallbackLang = getBundle(FALLBACK_LANGUAGE);
+        MessageBundle current = getBundle(defaultLanguage);
+        currentLang = current != null ? current : fallbackLang;
         
         if (currentLang == null) {
             plugin.getLogger().severe("No language files loaded!");
         } else {
             plugin.getLogger().info("Using language: " + defaultLanguage);
         }
+        
+        // Languages may have been added or removed
+        playerLanguages.clear();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            resolvePlayerLanguage(player, null);
+        }
+        
+        // Cached item lore was rendered with the previous texts
+        RPGItem.invalidateTemplates();
     }
     
     /**
@@ -86,29 +129,73 @@ public class LanguageManager {
     }
     
     /**
-     * Get a message from the current language file.
+     * Get the compiled bundle of a language, compiling it on first use.
      * 
+     * @param langCode Language code (e.g., "en_US")
+     * @return Bundle, or null if there is no such language file
+     */
+    public MessageBundle getBundle(String langCode) {
+        if (langCode == null) {
+            return null;
+        }
+        MessageBundle bundle = bundles.get(langCode);
+        if (bundle != null) {
+            return bundle;
+        }
+        
+        File file = languageFiles.get(langCode);
+        if (file == null) {
+            return null;
+        }
+        return bundles.computeIfAbsent(langCode, code -> {
+            MessageBundle compiled = MessageBundle.compile(code, YamlConfiguration.loadConfiguration(file));
+            plugin.getLogger().info("Loaded language: " + code + " (" + compiled.size() + " messages)");
+            return compiled;
+        });
+    }
+    
+    /**
+     * Get the compiled template of a message in a language, falling back to es_ES.
+     * 
+     * @param bundle Language to look in (null for the server language)
      * @param key Message key
-     * @return Translated message
+     * @return Template, or null if no language defines the key
      */
-    public String getMessage(String key) {
-        if (currentLang == null) {
-            return key;
+    private MessageTemplate getTemplate(MessageBundle bundle, String key) {
+        MessageBundle lang = bundle != null ? bundle : currentLang;
+        if (lang == null) {
+            return null;
         }
         
-        String message = currentLang.getString(key);
-        if (message == null) {
-            // Try fallback to es_ES
-            FileConfiguration fallback = languages.get("es_ES");
+        MessageTemplate template = lang.get(key);
+        if (template == null) {
+            MessageBundle fallback = fallbackLang;
             if (fallback != null) {
-                message = fallback.getString(key);
-            }
-            if (message == null) {
-                return key;
+                template = fallback.get(key);
             }
         }
-        
-        return translateColors(message);
+        return template;
+    }
+    
+    /**
+     * Get the compiled template of a message in the server language.
+     * 
+     * @param key Message key
+     * @return Template, or null if no language defines the key
+     */
+    public MessageTemplate getTemplate(String key) {
+        return getTemplate(null, key);
+    }
+    
+    /**
+     * Get a message from the current language file.
+     * 
+     * @param key Message key
+     * @return Translated message
+     */
+    public String getMessage(String key) {
+        MessageTemplate template = getTemplate(key);
+        return template != null ? template.getText() : key;
     }
     
     /**
@@ -119,25 +206,217 @@ public class LanguageManager {
      * @return Translated message with placeholders replaced
      */
     public String getMessage(String key, Object... placeholders) {
-        String message = getMessage(key);
-        
-        for (int i = 0; i < placeholders.length - 1; i += 2) {
-            String placeholder = placeholders[i].toString();
-            String value = placeholders[i + 1].toString();
-            message = message.replace("{" + placeholder + "}", value);
+        MessageTemplate template = getTemplate(key);
+        return template != null ? template.render(placeholders) : key;
+    }
+    
+    /**
+     * Get a message in the recipient's language with placeholders replaced.
+     * 
+     * @param recipient Player or console the message is for
+     * @param key Message key
+     * @param placeholders Placeholder replacements (key1, value1, key2, value2, ...)
+     * @return Translated message with placeholders replaced
+     */
+    public String getMessage(CommandSender recipient, String key, Object... placeholders) {
+        MessageTemplate template = getTemplate(getBundle(recipient), key);
+        return template != null ? template.render(placeholders) : key;
+    }
+    
+    /**
+     * Get a message as a Component; constant messages are deserialized once.
+     * 
+     * @param key Message key
+     * @return Translated message
+     */
+    public Component getComponent(String key) {
+        MessageTemplate template = getTemplate(key);
+        return template != null ? template.asComponent() : Component.text(key);
+    }
+    
+    /**
+     * Get a message with placeholders replaced as a Component.
+     * 
+     * @param key Message key
+     * @param placeholders Placeholder replacements (key1, value1, key2, value2, ...)
+     * @return Translated message with placeholders replaced
+     */
+    public Component getComponent(String key, Object... placeholders) {
+        MessageTemplate template = getTemplate(key);
+        return template != null ? template.asComponent(placeholders) : Component.text(key);
+    }
+    
+    /**
+     * Get a message in the recipient's language as a Component.
+     * 
+     * @param recipient Player or console the message is for
+     * @param key Message key
+     * @param placeholders Placeholder replacements (key1, value1, key2, value2, ...)
+     * @return Translated message with placeholders replaced
+     */
+    public Component getComponent(CommandSender recipient, String key, Object... placeholders) {
+        MessageTemplate template = getTemplate(getBundle(recipient), key);
+        return template != null ? template.asComponent(placeholders) : Component.text(key);
+    }
+    
+    /**
+     * Send a message to every online player and the console, each in their
+     * own language. Rendered once per language in use.
+     * 
+     * @param key Message key
+     * @param placeholders Placeholder replacements (key1, value1, key2, value2, ...)
+     */
+    public void broadcast(String key, Object... placeholders) {
+        Map<MessageBundle, Component> rendered = new IdentityHashMap<>();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            player.sendMessage(render(rendered, getBundle(player), key, placeholders));
         }
-        
-        return message;
+        Bukkit.getConsoleSender().sendMessage(render(rendered, currentLang, key, placeholders));
+    }
+    
+    private Component render(Map<MessageBundle, Component> rendered, MessageBundle bundle,
+                             String key, Object[] placeholders) {
+        MessageBundle lang = bundle != null ? bundle : currentLang;
+        if (lang == null) {
+            return Component.text(key);
+        }
+        return rendered.computeIfAbsent(lang, l -> {
+            MessageTemplate template = getTemplate(l, key);
+            return template != null ? template.asComponent(placeholders) : Component.text(key);
+        });
+    }
+    
+    /**
+     * Language bundle used for a recipient (the server language for the console)
+     */
+    private MessageBundle getBundle(CommandSender recipient) {
+        if (recipient instanceof Player player) {
+            String langCode = playerLanguages.get(player.getUniqueId());
+            if (langCode == null) {
+                langCode = resolvePlayerLanguage(player, null);
+            }
+            MessageBundle bundle = getBundle(langCode);
+            if (bundle != null) {
+                return bundle;
+            }
+        }
+        return currentLang;
+    }
+    
+    /**
+     * Get the language code used for a recipient.
+     * 
+     * @return Language code (e.g., "es_ES")
+     */
+    public String getLanguage(CommandSender recipient) {
+        MessageBundle bundle = getBundle(recipient);
+        return bundle != null ? bundle.getCode() : defaultLanguage;
+    }
+    
+    /**
+     * Get the language code a player chose explicitly.
+     * 
+     * @return Language code, or null if the player follows their client locale
+     */
+    public String getPreferredLanguage(Player player) {
+        return player.getPersistentDataContainer().get(preferenceKey, PersistentDataType.STRING);
+    }
+    
+    /**
+     * Set the language a player receives messages in.
+     * 
+     * @param langCode Language code, or null to follow the client locale again
+     * @return true if the language exists (or was reset)
+     */
+    public boolean setPlayerLanguage(Player player, String langCode) {
+        if (langCode == null) {
+            player.getPersistentDataContainer().remove(preferenceKey);
+        } else {
+            String match = matchLanguage(langCode);
+            if (match == null) {
+                return false;
+            }
+            player.getPersistentDataContainer().set(preferenceKey, PersistentDataType.STRING, match);
+        }
+        resolvePlayerLanguage(player, null);
+        return true;
     }
     
     /**
-     * Translate color codes (&) to Minecraft color codes (§).
+     * Pick the language for a player: preference, then client locale, then server language
      * 
-     * @param text Text with & color codes
-     * @return Text with § color codes
+     * @param clientLocale Locale just reported by the client, or null to ask the player
      */
-    private String translateColors(String text) {
-        return text.replace('&', '§');
+    private String resolvePlayerLanguage(Player player, String clientLocale) {
+        String langCode = matchLanguage(getPreferredLanguage(player));
+        if (langCode == null) {
+            langCode = matchLanguage(clientLocale != null ? clientLocale : player.locale().toString());
+        }
+        if (langCode == null) {
+            langCode = defaultLanguage;
+        }
+        playerLanguages.put(player.getUniqueId(), langCode);
+        return langCode;
+    }
+    
+    /**
+     * Match a locale (e.g. "en_us", "en-GB", "es") to an available language file
+     * 
+     * @return Language code, or null if no file matches the language
+     */
+    public String matchLanguage(String locale) {
+        if (locale == null || locale.isEmpty()) {
+            return null;
+        }
+        
+        String[] parts = locale.replace('-', '_').split("_", 2);
+        String language = parts[0].toLowerCase(Locale.ROOT);
+        String exact = parts.length > 1 ? language + "_" + parts[1].toUpperCase(Locale.ROOT) : null;
+        
+        Map<String, File> files = languageFiles;
+        if (exact != null && files.containsKey(exact)) {
+            return exact;
+        }
+        // Same language, other region (es_MX -> es_ES); prefer the server language
+        if (defaultLanguage.toLowerCase(Locale.ROOT).startsWith(language + "_")) {
+            return defaultLanguage;
+        }
+        for (String code : files.keySet()) {
+            if (code.toLowerCase(Locale.ROOT).startsWith(language + "_") || code.equalsIgnoreCase(language)) {
+                return code;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Display name of a language (e.g. "Español"), or its code if unknown
+     */
+    public String getLanguageName(String langCode) {
+        MessageBundle bundle = getBundle(langCode);
+        return bundle != null ? bundle.getDisplayName() : langCode;
+    }
+    
+    /**
+     * Language codes of every language file
+     */
+    public Set<String> getAvailableLanguages() {
+        return languageFiles.keySet();
+    }
+    
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(PlayerJoinEvent event) {
+        resolvePlayerLanguage(event.getPlayer(), null);
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLocaleChange(PlayerLocaleChangeEvent event) {
+        resolvePlayerLanguage(event.getPlayer(), event.getLocale());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        playerLanguages.remove(event.getPlayer().getUniqueId());
     }
     
     /**
@@ -156,12 +435,18 @@ public class LanguageManager {
      * @return true if language was set successfully
      */
     public boolean setLanguage(String langCode) {
-        FileConfiguration lang = languages.get(langCode);
+        MessageBundle lang = getBundle(langCode);
         if (lang != null) {
             currentLang = lang;
             defaultLanguage = langCode;
             plugin.getConfig().set("language", langCode);
             plugin.saveConfig();
+            RPGItem.invalidateTemplates();
+            
+            // Players without a matching locale follow the server language
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                resolvePlayerLanguage(player, null);
+            }
             return true;
         }
         return false;
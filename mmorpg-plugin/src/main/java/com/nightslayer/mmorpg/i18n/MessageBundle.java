@@ -0,0 +1,62 @@
+package com.nightslayer.mmorpg.i18n;
+
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The compiled messages of one language.
+ *
+ * Keys are interned, so every loaded language shares one copy of each key
+ * string; the YAML tree is discarded once compiled and the table is
+ * immutable, so it can be read from any thread.
+ */
+public final class MessageBundle {
+
+    private final String code;
+    private final Map<String, MessageTemplate> templates;
+
+    private MessageBundle(String code, Map<String, MessageTemplate> templates) {
+        this.code = code;
+        this.templates = templates;
+    }
+
+    /**
+     * Compile every message of a language file.
+     */
+    static MessageBundle compile(String code, FileConfiguration config) {
+        Map<String, MessageTemplate> templates = new HashMap<>();
+        for (String key : config.getKeys(true)) {
+            if (config.isConfigurationSection(key)) continue;
+            String message = config.getString(key);
+            if (message != null) {
+                templates.put(key.intern(), MessageTemplate.compile(message));
+            }
+        }
+        return new MessageBundle(code, Map.copyOf(templates));
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * @return Template, or null if this language does not define the key
+     */
+    public MessageTemplate get(String key) {
+        return templates.get(key);
+    }
+
+    public int size() {
+        return templates.size();
+    }
+
+    /**
+     * Display name of the language (language.name), or its code
+     */
+    public String getDisplayName() {
+        MessageTemplate name = templates.get("language.name");
+        return name != null ? name.getText() : code;
+    }
+}
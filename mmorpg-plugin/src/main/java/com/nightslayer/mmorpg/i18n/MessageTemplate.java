@@ -0,0 +1,149 @@
+package com.nightslayer.mmorpg.i18n;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A language message parsed once into literal segments and placeholder slots.
+ *
+ * Features:
+ * - Color codes are translated at parse time
+ * - Rendering is a single StringBuilder pass; placeholders that were not
+ *   supplied stay as literal "{name}", like the old String.replace chain
+ * - Messages without placeholders return the same String and Component
+ *   every time
+ */
+public final class MessageTemplate {
+
+    private static final LegacyComponentSerializer LEGACY = LegacyComponentSerializer.legacySection();
+    private static final String[] NO_NAMES = new String[0];
+
+    // literals.length == names.length + 1, rendered as l0 n0 l1 n1 ... lN
+    private final String[] literals;
+    private final String[] names;
+    private final String text;
+    private volatile Component component;
+
+    private MessageTemplate(String[] literals, String[] names, String text) {
+        this.literals = literals;
+        this.names = names;
+        this.text = text;
+    }
+
+    /**
+     * Parse a raw message with & color codes and {name} placeholders.
+     */
+    public static MessageTemplate compile(String raw) {
+        String text = raw.replace('&', '§');
+
+        List<String> literals = null;
+        List<String> names = null;
+        int literalStart = 0;
+        int open = text.indexOf('{');
+        while (open >= 0) {
+            int close = text.indexOf('}', open + 1);
+            if (close < 0) break;
+
+            if (isPlaceholderName(text, open + 1, close)) {
+                if (literals == null) {
+                    literals = new ArrayList<>();
+                    names = new ArrayList<>();
+                }
+                literals.add(text.substring(literalStart, open));
+                names.add(text.substring(open + 1, close));
+                literalStart = close + 1;
+                open = text.indexOf('{', literalStart);
+            } else {
+                open = text.indexOf('{', open + 1);
+            }
+        }
+
+        if (literals == null) {
+            return new MessageTemplate(new String[] {text}, NO_NAMES, text);
+        }
+        literals.add(text.substring(literalStart));
+        return new MessageTemplate(literals.toArray(new String[0]), names.toArray(new String[0]), text);
+    }
+
+    private static boolean isPlaceholderName(String text, int start, int end) {
+        if (start == end) return false;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (!(Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.')) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Whether the message has no placeholders.
+     */
+    public boolean isConstant() {
+        return names.length == 0;
+    }
+
+    /**
+     * The message with color codes translated and placeholders unfilled.
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Render with placeholder values.
+     *
+     * @param placeholders Placeholder replacements (key1, value1, key2, value2, ...)
+     */
+    public String render(Object... placeholders) {
+        if (names.length == 0 || placeholders.length < 2) {
+            return text;
+        }
+
+        StringBuilder builder = new StringBuilder(text.length() + 16 * names.length);
+        for (int i = 0; i < names.length; i++) {
+            builder.append(literals[i]);
+            Object value = find(names[i], placeholders);
+            if (value != null) {
+                builder.append(value);
+            } else {
+                builder.append('{').append(names[i]).append('}');
+            }
+        }
+        builder.append(literals[names.length]);
+        return builder.toString();
+    }
+
+    private static Object find(String name, Object[] placeholders) {
+        for (int i = 0; i < placeholders.length - 1; i += 2) {
+            if (name.equals(String.valueOf(placeholders[i]))) {
+                Object value = placeholders[i + 1];
+                return value != null ? value : "null";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The message as a Component; built once for the lifetime of this template.
+     */
+    public Component asComponent() {
+        Component cached = component;
+        if (cached == null) {
+            cached = LEGACY.deserialize(text);
+            component = cached;
+        }
+        return cached;
+    }
+
+    /**
+     * Render with placeholder values as a Component.
+     */
+    public Component asComponent(Object... placeholders) {
+        if (names.length == 0 || placeholders.length < 2) {
+            return asComponent();
+        }
+        return LEGACY.deserialize(render(placeholders));
+    }
+}
@@ -1,10 +1,14 @@
 package com.nightslayer.mmorpg.invasions;
 
 import com.nightslayer.mmorpg.database.DatabaseManager;
+import com.nightslayer.mmorpg.mobs.EntityOwnershipRegistry;
+import com.nightslayer.mmorpg.spawns.SpawnQueue;
+import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
@@ -28,15 +32,25 @@ import java.util.logging.Level;
 public class InvasionManager {
     
     private final DatabaseManager dbManager;
+    private final EntityOwnershipRegistry ownershipRegistry;
+    private final SpawnQueue spawnQueue;
     private final Map<String, Invasion> invasions;
     private ActiveInvasion currentInvasion;
     private final Set<UUID> participants;
+    private final Map<EntityType, Component> mobNames;
     private static final LegacyComponentSerializer LEGACY = LegacyComponentSerializer.legacySection();
+    private static final Component DEFEND_MESSAGE = LEGACY.deserialize("§7Defiende el servidor y gana recompensas!");
+    private static final Component SUCCESS_MESSAGE = LEGACY.deserialize("§a§l[INVASIÓN] §f¡Invasión repelida con éxito!");
+    private static final Component FAILURE_MESSAGE = LEGACY.deserialize("§c§l[INVASIÓN] §fLa invasión ha sido demasiado fuerte...");
     
-    public InvasionManager(DatabaseManager dbManager) {
+    public InvasionManager(DatabaseManager dbManager, EntityOwnershipRegistry ownershipRegistry,
+                           SpawnQueue spawnQueue) {
         this.dbManager = dbManager;
+        this.ownershipRegistry = ownershipRegistry;
+        this.spawnQueue = spawnQueue;
         this.invasions = new HashMap<>();
         this.participants = new HashSet<>();
+        this.mobNames = new EnumMap<>(EntityType.class);
     }
     
     /**
@@ -109,7 +123,7 @@ public class InvasionManager {
         
         // Announce invasion
         Bukkit.broadcast(LEGACY.deserialize("§c§l[INVASIÓN] §f" + invasion.getName() + " ha comenzado!"));
-        Bukkit.broadcast(LEGACY.deserialize("§7Defiende el servidor y gana recompensas!"));
+        Bukkit.broadcast(DEFEND_MESSAGE);
         
         // Start first wave
         currentInvasion.startNextWave();
@@ -124,7 +138,7 @@ public class InvasionManager {
         if (currentInvasion == null) return;
         
         if (success) {
-            Bukkit.broadcast(LEGACY.deserialize("§a§l[INVASIÓN] §f¡Invasión repelida con éxito!"));
+            Bukkit.broadcast(SUCCESS_MESSAGE);
             
             // Distribute participation rewards
             for (UUID uuid : participants) {
@@ -137,9 +151,10 @@ public class InvasionManager {
                 }
             }
         } else {
-            Bukkit.broadcast(LEGACY.deserialize("§c§l[INVASIÓN] §fLa invasión ha sido demasiado fuerte..."));
+            Bukkit.broadcast(FAILURE_MESSAGE);
         }
         
+        currentInvasion.removeMobs();
         currentInvasion = null;
         participants.clear();
     }
@@ -153,12 +168,14 @@ public class InvasionManager {
         // Check if mob is part of invasion
         if (!currentInvasion.isInvasionMob(entity)) return;
         
-        // Track participant
-        participants.add(killer.getUniqueId());
-        
-        // Give kill rewards
-        Invasion invasion = currentInvasion.getInvasion();
-        giveReward(killer, invasion.getCoinRewardPerKill(), invasion.getExpRewardPerKill());
+        if (killer != null) {
+            // Track participant
+            participants.add(killer.getUniqueId());
+            
+            // Give kill rewards
+            Invasion invasion = currentInvasion.getInvasion();
+            giveReward(killer, invasion.getCoinRewardPerKill(), invasion.getExpRewardPerKill());
+        }
         
         // Update invasion state
         currentInvasion.onMobKilled(entity);
@@ -187,6 +204,13 @@ public class InvasionManager {
         }
     }
     
+    /**
+     * Check if an owner tag belongs to the running invasion
+     */
+    public boolean isActiveOwner(String ownerId) {
+        return currentInvasion != null && currentInvasion.owner.getId().equals(ownerId);
+    }
+    
     /**
      * Get current active invasion
      */
@@ -253,13 +277,19 @@ public class InvasionManager {
      */
     public class ActiveInvasion {
         private final Invasion invasion;
+        private final EntityOwnershipRegistry.Owner owner;
         private int currentWave;
-        private final Set<UUID> spawnedMobs;
+        private int aliveMobs;
+        private int pendingMobs;
+        private final Set<UUID> mobIds;
         
         public ActiveInvasion(Invasion invasion) {
             this.invasion = invasion;
+            this.owner = ownershipRegistry.getHandle(
+                EntityOwnershipRegistry.owner("invasion", invasion.getInvasionId()));
             this.currentWave = 0;
-            this.spawnedMobs = new HashSet<>();
+            this.aliveMobs = 0;
+            this.mobIds = new HashSet<>();
         }
         
         /**
@@ -303,31 +333,72 @@ public class InvasionManager {
                 double z = center.getZ() + distance * Math.sin(angle);
                 
                 Location spawnLoc = new Location(center.getWorld(), x, center.getY(), z);
-                LivingEntity entity = (LivingEntity) center.getWorld().spawnEntity(spawnLoc, type);
-                
-                // Mark as invasion mob
-                entity.customName(LEGACY.deserialize("§c[INVASIÓN] " + entity.getType().name()));
-                entity.setCustomNameVisible(true);
-                
-                spawnedMobs.add(entity.getUniqueId());
+                pendingMobs++;
+                spawnQueue.enqueue(SpawnQueue.Priority.INVASION, spawnLoc, type, this::onMobSpawned);
+            }
+        }
+        
+        /**
+         * Set up a queued invasion mob once it is in the world
+         */
+        private void onMobSpawned(LivingEntity entity) {
+            pendingMobs--;
+            
+            if (currentInvasion != this) {
+                // Invasion ended while the spawn was queued
+                if (entity != null) entity.remove();
+                return;
+            }
+            if (entity == null) {
+                checkWaveComplete();
+                return;
             }
+            
+            // Mark as invasion mob; keep it loaded in the world until killed
+            entity.customName(mobNames.computeIfAbsent(entity.getType(),
+                type -> LEGACY.deserialize("§c[INVASIÓN] " + type.name())));
+            entity.setCustomNameVisible(true);
+            entity.setRemoveWhenFarAway(false);
+            ownershipRegistry.tag(entity, owner);
+            mobIds.add(entity.getUniqueId());
+            
+            aliveMobs++;
+        }
+        
+        /**
+         * Remove the loaded mobs of an ended invasion; unloaded ones are
+         * culled as orphans when their chunk loads
+         */
+        private void removeMobs() {
+            for (UUID mobId : mobIds) {
+                Entity mob = Bukkit.getEntity(mobId);
+                if (mob != null) mob.remove();
+            }
+            mobIds.clear();
         }
         
         /**
          * Check if entity is part of this invasion
          */
         public boolean isInvasionMob(LivingEntity entity) {
-            return spawnedMobs.contains(entity.getUniqueId());
+            return ownershipRegistry.isOwnedBy(entity, owner);
         }
         
         /**
          * Handle mob death
          */
         public void onMobKilled(LivingEntity entity) {
-            spawnedMobs.remove(entity.getUniqueId());
-            
-            // Check if wave is complete
-            if (spawnedMobs.isEmpty()) {
+            ownershipRegistry.untag(entity);
+            mobIds.remove(entity.getUniqueId());
+            aliveMobs--;
+            checkWaveComplete();
+        }
+        
+        /**
+         * Start the next wave once every mob of this one has spawned and died
+         */
+        private void checkWaveComplete() {
+            if (aliveMobs <= 0 && pendingMobs <= 0) {
                 // Start next wave after delay
                 Bukkit.getScheduler().runTaskLater(
                     Bukkit.getPluginManager().getPlugin("MMORPGPlugin"),
@@ -340,5 +411,6 @@ public class InvasionManager {
         // Getters
         public Invasion getInvasion() { return invasion; }
         public int getCurrentWave() { return currentWave; }
+        public int getAliveMobs() { return aliveMobs; }
     }
 }
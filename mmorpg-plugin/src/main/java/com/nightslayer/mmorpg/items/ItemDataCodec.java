@@ -0,0 +1,377 @@
+package com.nightslayer.mmorpg.items;
+
+import com.nightslayer.mmorpg.MMORPGPlugin;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Packed binary encoding of RPG item data under a single PDC key
+ *
+ * Features:
+ * - One precomputed key ("rpg_data") instead of up to 14 separate tags
+ * - Versioned layout holding item id, rarity, required level and only the
+ *   non-zero stats, all varint-packed
+ * - Decoders walk the byte array in place, so a single stat, the rarity or
+ *   the level is read without building a String or an ItemStats
+ * - Items written before this format (rpg_* and stat_* keys) are read
+ *   through the legacy keys and rewritten packed on first access
+ *
+ * Layout (version 1):
+ *   byte    version
+ *   varint  rarity ordinal
+ *   varint  required level
+ *   varint  id length, followed by the id as UTF-8 (empty for stats only)
+ *   varint  stat mask, bit i set when stat i is present
+ *   zigzag varint per present stat, in index order
+ */
+public final class ItemDataCodec {
+
+    public static final byte VERSION = 1;
+
+    // Stat indices, in encoding order
+    public static final int DAMAGE = 0;
+    public static final int DEFENSE = 1;
+    public static final int HEALTH = 2;
+    public static final int MANA = 3;
+    public static final int CRIT_CHANCE = 4;
+    public static final int CRIT_DAMAGE = 5;
+    public static final int SPEED = 6;
+    public static final int MAGIC_DAMAGE = 7;
+    public static final int MAGIC_DEFENSE = 8;
+    public static final int LIFESTEAL = 9;
+    public static final int LUCK = 10;
+    public static final int STAT_COUNT = 11;
+
+    private static final String[] LEGACY_STAT_KEYS = {
+        "stat_damage", "stat_defense", "stat_health", "stat_mana", "stat_crit_chance", "stat_crit_damage",
+        "stat_speed", "stat_magic_damage", "stat_magic_defense", "stat_lifesteal", "stat_luck"
+    };
+
+    private static final RPGItem.ItemRarity[] RARITIES = RPGItem.ItemRarity.values();
+
+    private static volatile ItemDataCodec instance;
+
+    private final MMORPGPlugin plugin;
+    private final NamespacedKey key;
+    private final NamespacedKey legacyIdKey;
+    private final NamespacedKey legacyRarityKey;
+    private final NamespacedKey legacyLevelKey;
+    private final NamespacedKey[] legacyStatKeys;
+
+    private ItemDataCodec(MMORPGPlugin plugin) {
+        this.plugin = plugin;
+        this.key = new NamespacedKey(plugin, "rpg_data");
+        this.legacyIdKey = new NamespacedKey(plugin, "rpg_item_id");
+        this.legacyRarityKey = new NamespacedKey(plugin, "rpg_rarity");
+        this.legacyLevelKey = new NamespacedKey(plugin, "rpg_required_level");
+        this.legacyStatKeys = new NamespacedKey[STAT_COUNT];
+        for (int i = 0; i < STAT_COUNT; i++) {
+            legacyStatKeys[i] = new NamespacedKey(plugin, LEGACY_STAT_KEYS[i]);
+        }
+    }
+
+    /**
+     * Codec with keys bound to the given plugin instance
+     */
+    public static ItemDataCodec of(MMORPGPlugin plugin) {
+        ItemDataCodec codec = instance;
+        if (codec == null || codec.plugin != plugin) {
+            codec = new ItemDataCodec(plugin);
+            instance = codec;
+        }
+        return codec;
+    }
+
+    public NamespacedKey getKey() {
+        return key;
+    }
+
+    /**
+     * Store item data packed, dropping any legacy keys
+     */
+    public void write(PersistentDataContainer container, String itemId, RPGItem.ItemRarity rarity,
+                      int requiredLevel, ItemStats stats) {
+        container.set(key, PersistentDataType.BYTE_ARRAY, encode(itemId, rarity, requiredLevel, stats));
+        removeLegacy(container);
+    }
+
+    /**
+     * Packed data of a container, falling back to its legacy keys
+     *
+     * @return packed data, or null if the container holds no RPG item data,
+     *         was written by an unknown version or is truncated
+     */
+    public byte[] read(PersistentDataContainer container) {
+        byte[] data = container.get(key, PersistentDataType.BYTE_ARRAY);
+        if (data != null) {
+            return isSupported(data) ? data : null;
+        }
+        return readLegacy(container);
+    }
+
+    /**
+     * Packed data of an item, migrating legacy keys in place
+     *
+     * @return packed data, or null if the item holds no RPG item data
+     */
+    public byte[] read(ItemStack item) {
+        if (item == null || !item.hasItemMeta()) return null;
+
+        PersistentDataContainer container = item.getItemMeta().getPersistentDataContainer();
+        byte[] data = container.get(key, PersistentDataType.BYTE_ARRAY);
+        if (data != null) {
+            return isSupported(data) ? data : null;
+        }
+
+        byte[] legacy = readLegacy(container);
+        if (legacy != null) {
+            item.editMeta(meta -> {
+                PersistentDataContainer target = meta.getPersistentDataContainer();
+                target.set(key, PersistentDataType.BYTE_ARRAY, legacy);
+                removeLegacy(target);
+            });
+        }
+        return legacy;
+    }
+
+    private byte[] readLegacy(PersistentDataContainer container) {
+        String itemId = container.get(legacyIdKey, PersistentDataType.STRING);
+        ItemStats stats = new ItemStats();
+        boolean found = itemId != null;
+        for (int i = 0; i < STAT_COUNT; i++) {
+            Integer value = container.get(legacyStatKeys[i], PersistentDataType.INTEGER);
+            if (value != null) {
+                stats.set(i, value);
+                found = true;
+            }
+        }
+        if (!found) return null;
+
+        RPGItem.ItemRarity rarity = RPGItem.ItemRarity.COMMON;
+        String rarityName = container.get(legacyRarityKey, PersistentDataType.STRING);
+        if (rarityName != null) {
+            try {
+                rarity = RPGItem.ItemRarity.valueOf(rarityName);
+            } catch (IllegalArgumentException ignored) {
+                // Unknown rarity from an old build, keep COMMON
+            }
+        }
+        Integer level = container.get(legacyLevelKey, PersistentDataType.INTEGER);
+        return encode(itemId != null ? itemId : "", rarity, level != null ? level : 1, stats);
+    }
+
+    private void removeLegacy(PersistentDataContainer container) {
+        container.remove(legacyIdKey);
+        container.remove(legacyRarityKey);
+        container.remove(legacyLevelKey);
+        for (NamespacedKey statKey : legacyStatKeys) {
+            container.remove(statKey);
+        }
+    }
+
+    /**
+     * Encode item data in the current layout
+     */
+    public static byte[] encode(String itemId, RPGItem.ItemRarity rarity, int requiredLevel, ItemStats stats) {
+        byte[] id = itemId.getBytes(StandardCharsets.UTF_8);
+        int mask = 0;
+        int size = 1 + varintSize(rarity.ordinal()) + varintSize(requiredLevel) + varintSize(id.length) + id.length;
+        for (int i = 0; i < STAT_COUNT; i++) {
+            int value = stats.get(i);
+            if (value != 0) {
+                mask |= 1 << i;
+                size += varintSize(zigzag(value));
+            }
+        }
+        size += varintSize(mask);
+
+        byte[] data = new byte[size];
+        data[0] = VERSION;
+        int pos = writeVarint(data, 1, rarity.ordinal());
+        pos = writeVarint(data, pos, requiredLevel);
+        pos = writeVarint(data, pos, id.length);
+        System.arraycopy(id, 0, data, pos, id.length);
+        pos = writeVarint(data, pos + id.length, mask);
+        for (int i = 0; i < STAT_COUNT; i++) {
+            if ((mask & (1 << i)) != 0) {
+                pos = writeVarint(data, pos, zigzag(stats.get(i)));
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Whether the data is in the current layout and complete. Every varint
+     * and the id are checked against the array length here, so the decoders
+     * below can walk it without bounds checks.
+     */
+    public static boolean isSupported(byte[] data) {
+        if (data.length == 0 || data[0] != VERSION) return false;
+
+        int pos = checkVarint(data, 1); // Rarity
+        pos = checkVarint(data, pos); // Required level
+        int idLengthPos = pos;
+        pos = checkVarint(data, pos);
+        if (pos < 0) return false;
+
+        int idLength = readVarint(data, idLengthPos);
+        if (idLength < 0 || idLength > data.length - pos) return false;
+        pos += idLength;
+
+        int maskPos = pos;
+        pos = checkVarint(data, pos);
+        if (pos < 0) return false;
+        int mask = readVarint(data, maskPos);
+        if ((mask & ~((1 << STAT_COUNT) - 1)) != 0) return false;
+
+        for (int i = Integer.bitCount(mask); i > 0 && pos >= 0; i--) {
+            pos = checkVarint(data, pos);
+        }
+        return pos >= 0;
+    }
+
+    public static RPGItem.ItemRarity getRarity(byte[] data) {
+        int ordinal = readVarint(data, 1);
+        return ordinal >= 0 && ordinal < RARITIES.length ? RARITIES[ordinal] : RPGItem.ItemRarity.COMMON;
+    }
+
+    public static int getRequiredLevel(byte[] data) {
+        return readVarint(data, skipVarint(data, 1));
+    }
+
+    /**
+     * Whether the data belongs to an RPG item rather than bare stats
+     */
+    public static boolean hasItemId(byte[] data) {
+        return readVarint(data, idLengthOffset(data)) > 0;
+    }
+
+    /**
+     * Item id, or null when the data holds bare stats
+     */
+    public static String getItemId(byte[] data) {
+        int pos = idLengthOffset(data);
+        int length = readVarint(data, pos);
+        if (length == 0) return null;
+        return new String(data, skipVarint(data, pos), length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Value of one stat (see the index constants), 0 when absent
+     */
+    public static int getStat(byte[] data, int stat) {
+        int pos = statsOffset(data);
+        int mask = readVarint(data, pos);
+        if ((mask & (1 << stat)) == 0) return 0;
+
+        pos = skipVarint(data, pos);
+        // Skip the present stats encoded before this one
+        int before = Integer.bitCount(mask & ((1 << stat) - 1));
+        for (int i = 0; i < before; i++) {
+            pos = skipVarint(data, pos);
+        }
+        return unzigzag(readVarint(data, pos));
+    }
+
+    /**
+     * Decode every stat into a caller-owned array of STAT_COUNT values
+     */
+    public static void readStats(byte[] data, int[] out) {
+        int pos = statsOffset(data);
+        int mask = readVarint(data, pos);
+        pos = skipVarint(data, pos);
+        for (int i = 0; i < STAT_COUNT; i++) {
+            if ((mask & (1 << i)) != 0) {
+                out[i] = unzigzag(readVarint(data, pos));
+                pos = skipVarint(data, pos);
+            } else {
+                out[i] = 0;
+            }
+        }
+    }
+
+    public static ItemStats getStats(byte[] data) {
+        ItemStats stats = new ItemStats();
+        int pos = statsOffset(data);
+        int mask = readVarint(data, pos);
+        pos = skipVarint(data, pos);
+        for (int i = 0; i < STAT_COUNT; i++) {
+            if ((mask & (1 << i)) != 0) {
+                stats.set(i, unzigzag(readVarint(data, pos)));
+                pos = skipVarint(data, pos);
+            }
+        }
+        return stats;
+    }
+
+    private static int idLengthOffset(byte[] data) {
+        return skipVarint(data, skipVarint(data, 1));
+    }
+
+    private static int statsOffset(byte[] data) {
+        int pos = idLengthOffset(data);
+        int length = readVarint(data, pos);
+        return skipVarint(data, pos) + length;
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static int writeVarint(byte[] data, int pos, int value) {
+        while ((value & ~0x7F) != 0) {
+            data[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[pos++] = (byte) value;
+        return pos;
+    }
+
+    private static int readVarint(byte[] data, int pos) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[pos++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0 && shift < 35);
+        return value;
+    }
+
+    /**
+     * End of a varint of at most 5 bytes that fits in the array, or -1
+     * (also when pos is already -1, so checks can be chained)
+     */
+    private static int checkVarint(byte[] data, int pos) {
+        if (pos < 0) return -1;
+        for (int i = 0; i < 5 && pos < data.length; i++) {
+            if (data[pos++] >= 0) return pos;
+        }
+        return -1;
+    }
+
+    private static int skipVarint(byte[] data, int pos) {
+        while (data[pos++] < 0) {
+            // Continuation bit set
+        }
+        return pos;
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
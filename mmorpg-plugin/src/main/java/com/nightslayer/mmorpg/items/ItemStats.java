@@ -3,9 +3,7 @@ package com.nightslayer.mmorpg.items;
 import com.nightslayer.mmorpg.MMORPGPlugin;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
-import org.bukkit.NamespacedKey;
 import org.bukkit.persistence.PersistentDataContainer;
-import org.bukkit.persistence.PersistentDataType;
 
 import java.util.*;
 
@@ -104,84 +102,67 @@ public class ItemStats {
     }
     
     /**
-     * Saves stats to persistent data container
+     * Saves stats to persistent data container, packed alongside any item
+     * id, rarity and level already stored there (see ItemDataCodec)
      */
     public void saveToPersistentData(PersistentDataContainer container, MMORPGPlugin plugin) {
-        if (damage != 0) {
-            container.set(new NamespacedKey(plugin, "stat_damage"), PersistentDataType.INTEGER, damage);
-        }
-        if (defense != 0) {
-            container.set(new NamespacedKey(plugin, "stat_defense"), PersistentDataType.INTEGER, defense);
-        }
-        if (health != 0) {
-            container.set(new NamespacedKey(plugin, "stat_health"), PersistentDataType.INTEGER, health);
-        }
-        if (mana != 0) {
-            container.set(new NamespacedKey(plugin, "stat_mana"), PersistentDataType.INTEGER, mana);
-        }
-        if (critChance != 0) {
-            container.set(new NamespacedKey(plugin, "stat_crit_chance"), PersistentDataType.INTEGER, critChance);
-        }
-        if (critDamage != 0) {
-            container.set(new NamespacedKey(plugin, "stat_crit_damage"), PersistentDataType.INTEGER, critDamage);
-        }
-        if (speed != 0) {
-            container.set(new NamespacedKey(plugin, "stat_speed"), PersistentDataType.INTEGER, speed);
-        }
-        if (magicDamage != 0) {
-            container.set(new NamespacedKey(plugin, "stat_magic_damage"), PersistentDataType.INTEGER, magicDamage);
-        }
-        if (magicDefense != 0) {
-            container.set(new NamespacedKey(plugin, "stat_magic_defense"), PersistentDataType.INTEGER, magicDefense);
-        }
-        if (lifesteal != 0) {
-            container.set(new NamespacedKey(plugin, "stat_lifesteal"), PersistentDataType.INTEGER, lifesteal);
-        }
-        if (luck != 0) {
-            container.set(new NamespacedKey(plugin, "stat_luck"), PersistentDataType.INTEGER, luck);
+        ItemDataCodec codec = ItemDataCodec.of(plugin);
+        byte[] existing = codec.read(container);
+        if (existing != null) {
+            String itemId = ItemDataCodec.getItemId(existing);
+            codec.write(container, itemId != null ? itemId : "", ItemDataCodec.getRarity(existing),
+                    ItemDataCodec.getRequiredLevel(existing), this);
+        } else {
+            codec.write(container, "", RPGItem.ItemRarity.COMMON, 1, this);
         }
     }
     
     /**
-     * Loads stats from persistent data container
+     * Loads stats from persistent data container (packed or legacy stat_* keys)
      */
     public static ItemStats loadFromPersistentData(PersistentDataContainer container, MMORPGPlugin plugin) {
-        ItemStats stats = new ItemStats();
-        
-        Integer damage = container.get(new NamespacedKey(plugin, "stat_damage"), PersistentDataType.INTEGER);
-        if (damage != null) stats.damage = damage;
-        
-        Integer defense = container.get(new NamespacedKey(plugin, "stat_defense"), PersistentDataType.INTEGER);
-        if (defense != null) stats.defense = defense;
-        
-        Integer health = container.get(new NamespacedKey(plugin, "stat_health"), PersistentDataType.INTEGER);
-        if (health != null) stats.health = health;
-        
-        Integer mana = container.get(new NamespacedKey(plugin, "stat_mana"), PersistentDataType.INTEGER);
-        if (mana != null) stats.mana = mana;
-        
-        Integer critChance = container.get(new NamespacedKey(plugin, "stat_crit_chance"), PersistentDataType.INTEGER);
-        if (critChance != null) stats.critChance = critChance;
-        
-        Integer critDamage = container.get(new NamespacedKey(plugin, "stat_crit_damage"), PersistentDataType.INTEGER);
-        if (critDamage != null) stats.critDamage = critDamage;
-        
-        Integer speed = container.get(new NamespacedKey(plugin, "stat_speed"), PersistentDataType.INTEGER);
-        if (speed != null) stats.speed = speed;
-        
-        Integer magicDamage = container.get(new NamespacedKey(plugin, "stat_magic_damage"), PersistentDataType.INTEGER);
-        if (magicDamage != null) stats.magicDamage = magicDamage;
-        
-        Integer magicDefense = container.get(new NamespacedKey(plugin, "stat_magic_defense"), PersistentDataType.INTEGER);
-        if (magicDefense != null) stats.magicDefense = magicDefense;
-        
-        Integer lifesteal = container.get(new NamespacedKey(plugin, "stat_lifesteal"), PersistentDataType.INTEGER);
-        if (lifesteal != null) stats.lifesteal = lifesteal;
-        
-        Integer luck = container.get(new NamespacedKey(plugin, "stat_luck"), PersistentDataType.INTEGER);
-        if (luck != null) stats.luck = luck;
-        
-        return stats;
+        byte[] data = ItemDataCodec.of(plugin).read(container);
+        return data != null ? ItemDataCodec.getStats(data) : new ItemStats();
+    }
+    
+    /**
+     * Stat by ItemDataCodec index
+     */
+    int get(int stat) {
+        switch (stat) {
+            case ItemDataCodec.DAMAGE: return damage;
+            case ItemDataCodec.DEFENSE: return defense;
+            case ItemDataCodec.HEALTH: return health;
+            case ItemDataCodec.MANA: return mana;
+            case ItemDataCodec.CRIT_CHANCE: return critChance;
+            case ItemDataCodec.CRIT_DAMAGE: return critDamage;
+            case ItemDataCodec.SPEED: return speed;
+            case ItemDataCodec.MAGIC_DAMAGE: return magicDamage;
+            case ItemDataCodec.MAGIC_DEFENSE: return magicDefense;
+            case ItemDataCodec.LIFESTEAL: return lifesteal;
+            case ItemDataCodec.LUCK: return luck;
+            default: throw new IllegalArgumentException("Unknown stat index: " + stat);
+        }
+    }
+    
+    /**
+     * Set a stat by ItemDataCodec index
+     */
+    void set(int stat, int value) {
+        switch (stat) {
+            case ItemDataCodec.DAMAGE: damage = value; break;
+            case ItemDataCodec.DEFENSE: defense = value; break;
+            case ItemDataCodec.HEALTH: health = value; break;
+            case ItemDataCodec.MANA: mana = value; break;
+            case ItemDataCodec.CRIT_CHANCE: critChance = value; break;
+            case ItemDataCodec.CRIT_DAMAGE: critDamage = value; break;
+            case ItemDataCodec.SPEED: speed = value; break;
+            case ItemDataCodec.MAGIC_DAMAGE: magicDamage = value; break;
+            case ItemDataCodec.MAGIC_DEFENSE: magicDefense = value; break;
+            case ItemDataCodec.LIFESTEAL: lifesteal = value; break;
+            case ItemDataCodec.LUCK: luck = value; break;
+            default: throw new IllegalArgumentException("Unknown stat index: " + stat);
+        }
     }
     
     /**
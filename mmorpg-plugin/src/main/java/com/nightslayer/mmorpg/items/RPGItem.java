@@ -2,8 +2,6 @@ package com.nightslayer.mmorpg.items;
 
 import org.bukkit.Material;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.persistence.PersistentDataType;
-import org.bukkit.NamespacedKey;
 import com.nightslayer.mmorpg.MMORPGPlugin;
 
 import java.util.*;
@@ -22,6 +20,11 @@ public class RPGItem {
     private final List<String> abilities;
     private final String lore;
     
+    // Compiled ItemStack that new stacks are cloned from
+    private static volatile int templateGeneration;
+    private ItemStack prototype;
+    private int prototypeGeneration;
+    
     private RPGItem(Builder builder) {
         this.itemId = builder.itemId;
         this.name = builder.name;
@@ -37,6 +40,37 @@ public class RPGItem {
      * Creates an ItemStack from this RPG item
      */
     public ItemStack createItemStack(MMORPGPlugin plugin) {
+        return createItemStack(plugin, 1);
+    }
+    
+    /**
+     * Creates a stack of this RPG item by cloning its compiled prototype
+     */
+    public ItemStack createItemStack(MMORPGPlugin plugin, int amount) {
+        ItemStack template = prototype;
+        int generation = templateGeneration;
+        if (template == null || prototypeGeneration != generation) {
+            template = buildItemStack(plugin);
+            prototype = template;
+            prototypeGeneration = generation;
+        }
+        
+        ItemStack item = template.clone();
+        item.setAmount(amount);
+        return item;
+    }
+    
+    /**
+     * Drops the prototypes of every RPG item (language or definition reload)
+     */
+    public static void invalidateTemplates() {
+        templateGeneration++;
+    }
+    
+    /**
+     * Builds the full ItemStack: display name, lore and packed PDC data
+     */
+    private ItemStack buildItemStack(MMORPGPlugin plugin) {
         ItemStack item = new ItemStack(material);
         
         // Set display name with rarity color
@@ -84,17 +118,8 @@ public class RPGItem {
             
             meta.lore(loreLines);
             
-            // Store RPG data in persistent data
-            NamespacedKey itemIdKey = new NamespacedKey(plugin, "rpg_item_id");
-            NamespacedKey rarityKey = new NamespacedKey(plugin, "rpg_rarity");
-            NamespacedKey levelKey = new NamespacedKey(plugin, "rpg_required_level");
-            
-            meta.getPersistentDataContainer().set(itemIdKey, PersistentDataType.STRING, itemId);
-            meta.getPersistentDataContainer().set(rarityKey, PersistentDataType.STRING, rarity.name());
-            meta.getPersistentDataContainer().set(levelKey, PersistentDataType.INTEGER, requiredLevel);
-            
-            // Store stats
-            stats.saveToPersistentData(meta.getPersistentDataContainer(), plugin);
+            // Store RPG data and stats packed under one key
+            ItemDataCodec.of(plugin).write(meta.getPersistentDataContainer(), itemId, rarity, requiredLevel, stats);
         });
         
         return item;
@@ -104,47 +129,40 @@ public class RPGItem {
      * Checks if an ItemStack is an RPG item
      */
     public static boolean isRPGItem(ItemStack item, MMORPGPlugin plugin) {
-        if (item == null || !item.hasItemMeta()) return false;
-        
-        NamespacedKey itemIdKey = new NamespacedKey(plugin, "rpg_item_id");
-        return item.getItemMeta().getPersistentDataContainer().has(itemIdKey, PersistentDataType.STRING);
+        byte[] data = ItemDataCodec.of(plugin).read(item);
+        return data != null && ItemDataCodec.hasItemId(data);
     }
     
     /**
      * Gets the RPG item ID from an ItemStack
      */
     public static String getItemId(ItemStack item, MMORPGPlugin plugin) {
-        if (!isRPGItem(item, plugin)) return null;
-        
-        NamespacedKey itemIdKey = new NamespacedKey(plugin, "rpg_item_id");
-        return item.getItemMeta().getPersistentDataContainer().get(itemIdKey, PersistentDataType.STRING);
+        byte[] data = ItemDataCodec.of(plugin).read(item);
+        return data != null ? ItemDataCodec.getItemId(data) : null;
     }
     
     /**
      * Gets the rarity of an RPG item
      */
     public static ItemRarity getRarity(ItemStack item, MMORPGPlugin plugin) {
-        if (!isRPGItem(item, plugin)) return ItemRarity.COMMON;
-        
-        NamespacedKey rarityKey = new NamespacedKey(plugin, "rpg_rarity");
-        String rarityStr = item.getItemMeta().getPersistentDataContainer().get(rarityKey, PersistentDataType.STRING);
-        
-        try {
-            return ItemRarity.valueOf(rarityStr);
-        } catch (Exception e) {
-            return ItemRarity.COMMON;
-        }
+        byte[] data = ItemDataCodec.of(plugin).read(item);
+        return data != null && ItemDataCodec.hasItemId(data) ? ItemDataCodec.getRarity(data) : ItemRarity.COMMON;
     }
     
     /**
      * Gets the required level of an RPG item
      */
     public static int getRequiredLevel(ItemStack item, MMORPGPlugin plugin) {
-        if (!isRPGItem(item, plugin)) return 1;
-        
-        NamespacedKey levelKey = new NamespacedKey(plugin, "rpg_required_level");
-        Integer level = item.getItemMeta().getPersistentDataContainer().get(levelKey, PersistentDataType.INTEGER);
-        return level != null ? level : 1;
+        byte[] data = ItemDataCodec.of(plugin).read(item);
+        return data != null && ItemDataCodec.hasItemId(data) ? ItemDataCodec.getRequiredLevel(data) : 1;
+    }
+    
+    /**
+     * Gets the stats of an RPG item (empty stats for other items)
+     */
+    public static ItemStats getStats(ItemStack item, MMORPGPlugin plugin) {
+        byte[] data = ItemDataCodec.of(plugin).read(item);
+        return data != null ? ItemDataCodec.getStats(data) : new ItemStats();
     }
     
     // Getters
@@ -1,18 +1,34 @@
 package com.nightslayer.mmorpg.listeners;
 
 import com.nightslayer.mmorpg.MMORPGPlugin;
+import com.nightslayer.mmorpg.quests.QuestObjective;
+import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDeathEvent;
 
 public class MobDeathListener implements Listener {
+    private final MMORPGPlugin plugin;
+
     public MobDeathListener(MMORPGPlugin plugin) {
+        this.plugin = plugin;
     }
-    
+
     @EventHandler
     public void onMobDeath(EntityDeathEvent event) {
-        if (event.getEntity().getKiller() instanceof Player) {
+        LivingEntity entity = event.getEntity();
+        Player killer = entity.getKiller();
+
+        // Invasion waves count every death of a tagged mob, with or without a killer
+        plugin.getInvasionManager().handleMobDeath(entity, killer);
+
+        // Summons do not outlive their caster
+        plugin.getMobManager().getAbilityEngine().removeSummons(entity);
+
+        if (killer != null) {
+            plugin.getQuestManager().addProgress(killer, QuestObjective.ObjectiveType.KILL_MOBS, entity.getType().name(), 1);
+
             // TODO: Give experience and coins
             // TODO: Update bestiary
         }
@@ -2,9 +2,14 @@ package com.nightslayer.mmorpg.listeners;
 
 import com.nightslayer.mmorpg.MMORPGPlugin;
 import com.nightslayer.mmorpg.mobs.MobManager;
+import com.nightslayer.mmorpg.spawns.ChunkSurface;
+import com.nightslayer.mmorpg.spawns.EntityCounters;
+import com.nightslayer.mmorpg.spawns.SpawnRuleEngine;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.SpawnCategory;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
@@ -21,14 +26,23 @@ public class SpawnListener implements Listener {
     
     private final MMORPGPlugin plugin;
     private final MobManager mobManager;
+    private final EntityCounters entityCounters;
+    private final SpawnRuleEngine spawnRules;
     private final Set<EntityType> blockedMobs;
     private final Map<String, Integer> worldMobLimits;
+    private final int[] chunkCategoryLimits;
+    private int chunkLimit;
+    private final Random random;
     
     public SpawnListener(MMORPGPlugin plugin) {
         this.plugin = plugin;
         this.mobManager = plugin.getMobManager();
+        this.entityCounters = plugin.getEntityCounters();
+        this.spawnRules = new SpawnRuleEngine(plugin.getLogger(), plugin.getPlayerLevelIndex());
         this.blockedMobs = new HashSet<>();
         this.worldMobLimits = new HashMap<>();
+        this.chunkCategoryLimits = new int[SpawnCategory.values().length];
+        this.random = new Random();
         loadConfiguration();
     }
     
@@ -56,6 +70,23 @@ public class SpawnListener implements Listener {
                 }
             }
         }
+        
+        // Load chunk density caps (0 = unlimited)
+        chunkLimit = plugin.getConfig().getInt("spawn-control.chunk-limit", 0);
+        var categorySection = plugin.getConfig().getConfigurationSection("spawn-control.chunk-category-limits");
+        if (categorySection != null) {
+            for (String categoryName : categorySection.getKeys(false)) {
+                try {
+                    SpawnCategory category = SpawnCategory.valueOf(categoryName.toUpperCase());
+                    chunkCategoryLimits[category.ordinal()] = categorySection.getInt(categoryName);
+                } catch (IllegalArgumentException e) {
+                    plugin.getLogger().warning("Invalid spawn category in config: " + categoryName);
+                }
+            }
+        }
+        
+        // Compile custom mob replacement rules
+        spawnRules.compile(plugin.getConfig().getConfigurationSection("spawn-control"), mobManager.getCustomMobs());
     }
     
     /**
@@ -76,15 +107,16 @@ public class SpawnListener implements Listener {
         }
         
         // Check world mob limits
-        String worldName = location.getWorld().getName();
-        if (worldMobLimits.containsKey(worldName)) {
-            int limit = worldMobLimits.get(worldName);
-            int currentCount = location.getWorld().getLivingEntities().size();
-            
-            if (currentCount >= limit) {
-                event.setCancelled(true);
-                return;
-            }
+        Integer worldLimit = worldMobLimits.get(location.getWorld().getName());
+        if (worldLimit != null && entityCounters.getWorldCount(location.getWorld()) >= worldLimit) {
+            event.setCancelled(true);
+            return;
+        }
+        
+        // Check chunk density caps (plugin-driven spawns such as dungeon waves are exempt)
+        if (reason != SpawnReason.CUSTOM && exceedsChunkLimits(entity, location)) {
+            event.setCancelled(true);
+            return;
         }
         
         // Handle natural spawns vs custom spawns
@@ -95,18 +127,34 @@ public class SpawnListener implements Listener {
         }
     }
     
+    /**
+     * Checks the chunk-wide and per-category density caps for a spawn
+     */
+    private boolean exceedsChunkLimits(LivingEntity entity, Location location) {
+        int chunkX = location.getBlockX() >> 4;
+        int chunkZ = location.getBlockZ() >> 4;
+        
+        if (chunkLimit > 0 && entityCounters.getChunkCount(location.getWorld(), chunkX, chunkZ) >= chunkLimit) {
+            return true;
+        }
+        
+        SpawnCategory category = entity.getSpawnCategory();
+        int categoryLimit = chunkCategoryLimits[category.ordinal()];
+        return categoryLimit > 0
+            && entityCounters.getChunkCount(location.getWorld(), chunkX, chunkZ, category) >= categoryLimit;
+    }
+    
     /**
      * Handles natural mob spawns
      */
     private void handleNaturalSpawn(CreatureSpawnEvent event, LivingEntity entity, Location location) {
         // Check if we should replace this spawn with a custom mob
-        if (shouldReplaceWithCustomMob(location, entity.getType())) {
+        SpawnRuleEngine.SpawnRule rule = spawnRules.match(location, entity.getType());
+        if (rule != null && rule.roll()) {
             event.setCancelled(true);
             
-            // Spawn custom mob instead
-            plugin.getServer().getScheduler().runTask(plugin, () -> {
-                mobManager.spawnRandomCustomMob(location);
-            });
+            // Spawn custom mob instead (queued, so never inside this event)
+            mobManager.spawnCustomMob(location, rule.pickMob());
         }
     }
     
@@ -118,22 +166,6 @@ public class SpawnListener implements Listener {
         // This could include scaling based on location or world difficulty
     }
     
-    /**
-     * Determines if a natural spawn should be replaced with a custom mob
-     */
-    private boolean shouldReplaceWithCustomMob(Location location, EntityType type) {
-        // Get replacement chance from config
-        double chance = plugin.getConfig().getDouble("spawn-control.custom-mob-chance", 0.15);
-        
-        // Higher chance in certain biomes or at night
-        if (location.getWorld().getTime() > 13000 && location.getWorld().getTime() < 23000) {
-            chance *= 1.5; // Night time bonus
-        }
-        
-        // Random roll
-        return Math.random() < chance;
-    }
-    
     /**
      * Handles chunk load events for mob management
      */
@@ -145,46 +177,44 @@ public class SpawnListener implements Listener {
         boolean shouldPreSpawn = plugin.getConfig().getBoolean("spawn-control.pre-spawn-on-chunk-load", false);
         if (!shouldPreSpawn) return;
         
-        // Schedule spawn task
-        plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
+        // Scan the chunk surface off-thread, then spawn on precomputed safe columns
+        Chunk chunk = event.getChunk();
+        plugin.getSpawnManager().getSafeLocationService().scanChunk(chunk, surface -> {
+            if (!chunk.isLoaded()) return;
+            
             // Spawn a few custom mobs in the new chunk
             int spawnCount = plugin.getConfig().getInt("spawn-control.pre-spawn-count", 2);
             for (int i = 0; i < spawnCount; i++) {
-                Location randomLoc = getRandomLocationInChunk(event.getChunk());
+                Location randomLoc = surface.pick(chunk.getWorld(), random);
                 if (randomLoc != null && isValidSpawnLocation(randomLoc)) {
                     mobManager.spawnRandomCustomMob(randomLoc);
                 }
             }
-        }, 40L); // Wait 2 seconds after chunk load
-    }
-    
-    /**
-     * Gets a random valid location within a chunk
-     */
-    private Location getRandomLocationInChunk(org.bukkit.Chunk chunk) {
-        Random random = new Random();
-        int x = (chunk.getX() << 4) + random.nextInt(16);
-        int z = (chunk.getZ() << 4) + random.nextInt(16);
-        int y = chunk.getWorld().getHighestBlockYAt(x, z);
-        
-        return new Location(chunk.getWorld(), x, y, z);
+        });
     }
     
     /**
-     * Checks if a location is valid for spawning
+     * Checks if a location is valid for spawning.
+     * Uses precomputed chunk surfaces when available and falls back to block checks.
      */
     private boolean isValidSpawnLocation(Location location) {
         if (location == null) return false;
         
+        // Check if location is too high or too low
+        if (location.getY() < 0 || location.getY() > 250) return false;
+        
+        ChunkSurface surface = plugin.getSpawnManager().getSafeLocationService()
+            .getSurface(location.getWorld(), location.getBlockX() >> 4, location.getBlockZ() >> 4);
+        if (surface != null) {
+            return surface.isSafe(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+        }
+        
         // Check if location is in water
         if (location.getBlock().isLiquid()) return false;
         
         // Check if location has air above
         if (!location.clone().add(0, 1, 0).getBlock().isPassable()) return false;
         
-        // Check if location is too high or too low
-        if (location.getY() < 0 || location.getY() > 250) return false;
-        
         return true;
     }
     
@@ -194,6 +224,7 @@ public class SpawnListener implements Listener {
     public void reload() {
         blockedMobs.clear();
         worldMobLimits.clear();
+        Arrays.fill(chunkCategoryLimits, 0);
         loadConfiguration();
         plugin.getLogger().info("Spawn configuration reloaded");
     }
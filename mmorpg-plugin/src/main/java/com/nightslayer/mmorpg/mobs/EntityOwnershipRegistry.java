@@ -0,0 +1,194 @@
+package com.nightslayer.mmorpg.mobs;
+
+import com.destroystokyo.paper.event.entity.EntityRemoveFromWorldEvent;
+import com.nightslayer.mmorpg.MMORPGPlugin;
+import com.nightslayer.mmorpg.utils.IntObjectMap;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.EntitiesLoadEvent;
+import org.bukkit.persistence.PersistentDataType;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tracks which plugin system owns a spawned entity
+ *
+ * Features:
+ * - Owner tags stored in the entity's PersistentDataContainer
+ * - In-memory entity id index rebuilt when entities load
+ * - Ownership checks are a single primitive map lookup
+ * - Live loaded-entity count per owner, maintained from the same events
+ *
+ * Owners are plain strings of the form "type:id" (see {@link #owner}).
+ */
+public class EntityOwnershipRegistry implements Listener {
+
+    private final MMORPGPlugin plugin;
+    private final NamespacedKey ownerKey;
+    private final IntObjectMap<Owner> owners;
+    private final Map<String, Owner> ownerPool;
+
+    public EntityOwnershipRegistry(MMORPGPlugin plugin) {
+        this.plugin = plugin;
+        this.ownerKey = new NamespacedKey(plugin, "owner");
+        this.owners = new IntObjectMap<>(256);
+        this.ownerPool = new HashMap<>();
+    }
+
+    /**
+     * Build an owner tag from a system type and its id
+     */
+    public static String owner(String type, String id) {
+        return type + ":" + id;
+    }
+
+    /**
+     * Get the shared handle for an owner tag. Handles are stable for the
+     * lifetime of the registry unless discarded, so callers may keep them
+     * to read counts.
+     */
+    public Owner getHandle(String owner) {
+        return ownerPool.computeIfAbsent(owner, Owner::new);
+    }
+
+    /**
+     * Drop a short-lived owner (e.g. a dead summoner) from the pool once
+     * none of its entities are loaded. Its tag gets a new handle if an
+     * entity carrying it loads again.
+     */
+    public void discard(Owner owner) {
+        if (owner.loaded == 0) {
+            ownerPool.remove(owner.getId(), owner);
+        }
+    }
+
+    /**
+     * Tag an entity as owned by the given owner
+     */
+    public void tag(Entity entity, String owner) {
+        tag(entity, getHandle(owner));
+    }
+
+    /**
+     * Tag an entity with an owner handle obtained from {@link #getHandle}
+     */
+    public void tag(Entity entity, Owner owner) {
+        entity.getPersistentDataContainer().set(ownerKey, PersistentDataType.STRING, owner.getId());
+        track(entity.getEntityId(), owner);
+    }
+
+    /**
+     * Remove the owner tag from an entity
+     */
+    public void untag(Entity entity) {
+        entity.getPersistentDataContainer().remove(ownerKey);
+        release(entity.getEntityId());
+    }
+
+    /**
+     * Get the owner of a loaded entity, or null if it is not owned
+     */
+    public String getOwner(Entity entity) {
+        Owner owner = owners.get(entity.getEntityId());
+        return owner != null ? owner.getId() : null;
+    }
+
+    /**
+     * Check if a loaded entity belongs to the given owner
+     */
+    public boolean isOwnedBy(Entity entity, String owner) {
+        Owner current = owners.get(entity.getEntityId());
+        return current != null && current.getId().equals(owner);
+    }
+
+    /**
+     * Check if a loaded entity belongs to the given owner handle
+     */
+    public boolean isOwnedBy(Entity entity, Owner owner) {
+        return owners.get(entity.getEntityId()) == owner;
+    }
+
+    /**
+     * Number of loaded entities currently indexed
+     */
+    public int getTrackedCount() {
+        return owners.size();
+    }
+
+    /**
+     * Rebuild the index from every loaded world (used on enable and reload)
+     */
+    public void rebuild() {
+        owners.clear();
+        for (Owner owner : ownerPool.values()) {
+            owner.loaded = 0;
+        }
+        for (World world : plugin.getServer().getWorlds()) {
+            for (Entity entity : world.getEntities()) {
+                index(entity);
+            }
+        }
+        plugin.getLogger().info("Indexed " + owners.size() + " owned entities");
+    }
+
+    /**
+     * Re-index owned entities as their chunks load
+     */
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onEntitiesLoad(EntitiesLoadEvent event) {
+        for (Entity entity : event.getEntities()) {
+            index(entity);
+        }
+    }
+
+    /**
+     * Drop entities from the index on death, despawn or chunk unload.
+     * Entity ids are reassigned when an entity loads again.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityRemove(EntityRemoveFromWorldEvent event) {
+        release(event.getEntity().getEntityId());
+    }
+
+    private void index(Entity entity) {
+        String owner = entity.getPersistentDataContainer().get(ownerKey, PersistentDataType.STRING);
+        if (owner != null) {
+            track(entity.getEntityId(), getHandle(owner));
+        }
+    }
+
+    private void track(int entityId, Owner owner) {
+        Owner previous = owners.put(entityId, owner);
+        if (previous != null) {
+            previous.loaded--;
+        }
+        owner.loaded++;
+    }
+
+    private void release(int entityId) {
+        Owner previous = owners.remove(entityId);
+        if (previous != null) {
+            previous.loaded--;
+        }
+    }
+
+    /**
+     * Interned owner tag with its live loaded-entity count
+     */
+    public static final class Owner {
+        private final String id;
+        private int loaded;
+
+        private Owner(String id) {
+            this.id = id;
+        }
+
+        public String getId() { return id; }
+        public int getLoadedCount() { return loaded; }
+    }
+}
@@ -0,0 +1,129 @@
+package com.nightslayer.mmorpg.mobs;
+
+import org.bukkit.Material;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Monte Carlo simulation of a loot table
+ *
+ * Splits the requested rolls across all cores, each worker with its own
+ * SplittableRandom and primitive counters, then merges the totals. Used to
+ * check expected drop rates and coin inflation before shipping a table change.
+ * Pure computation; safe to run off the main thread.
+ */
+public final class LootSimulator {
+
+    private LootSimulator() {
+    }
+
+    /**
+     * Roll a table the given number of times with a fixed luck value
+     */
+    public static Result simulate(LootTable table, long rolls, int luck) {
+        int workers = (int) Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), rolls / 10_000 + 1));
+        int items = table.getItemCount();
+
+        // Split seeds up front; SplittableRandom itself is not thread-safe
+        SplittableRandom root = new SplittableRandom();
+        SplittableRandom[] randoms = new SplittableRandom[workers];
+        for (int i = 0; i < workers; i++) {
+            randoms[i] = root.split();
+        }
+
+        Counter[] counters = new Counter[workers];
+        long start = System.nanoTime();
+        IntStream.range(0, workers).parallel().forEach(worker -> {
+            long share = rolls / workers + (worker < rolls % workers ? 1 : 0);
+            Counter counter = new Counter(items);
+            SplittableRandom random = randoms[worker];
+            for (long i = 0; i < share; i++) {
+                table.roll(random, luck, counter);
+                counter.coins += table.rollCoins(random);
+            }
+            counters[worker] = counter;
+        });
+        long elapsedNanos = System.nanoTime() - start;
+
+        long[] drops = new long[items];
+        long[] amounts = new long[items];
+        long coins = 0;
+        for (Counter counter : counters) {
+            for (int i = 0; i < items; i++) {
+                drops[i] += counter.drops[i];
+                amounts[i] += counter.amounts[i];
+            }
+            coins += counter.coins;
+        }
+        return new Result(table.getItems(), rolls, drops, amounts, coins, elapsedNanos);
+    }
+
+    private static final class Counter implements LootTable.LootSink {
+        private final long[] drops;
+        private final long[] amounts;
+        private long coins;
+
+        private Counter(int items) {
+            this.drops = new long[items];
+            this.amounts = new long[items];
+        }
+
+        @Override
+        public void accept(int item, int amount) {
+            drops[item]++;
+            amounts[item] += amount;
+        }
+    }
+
+    /**
+     * Aggregated simulation totals
+     */
+    public static final class Result {
+        private final Material[] items;
+        private final long rolls;
+        private final long[] drops;
+        private final long[] amounts;
+        private final long coins;
+        private final long elapsedNanos;
+
+        private Result(Material[] items, long rolls, long[] drops, long[] amounts, long coins, long elapsedNanos) {
+            this.items = items;
+            this.rolls = rolls;
+            this.drops = drops;
+            this.amounts = amounts;
+            this.coins = coins;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getItemCount() { return items.length; }
+        public Material getItem(int index) { return items[index]; }
+        public long getRolls() { return rolls; }
+        public long getElapsedMillis() { return elapsedNanos / 1_000_000L; }
+
+        /**
+         * Fraction of kills that dropped the item (can exceed 1 if it drops from several entries)
+         */
+        public double getDropRate(int index) {
+            return rolls == 0 ? 0 : drops[index] / (double) rolls;
+        }
+
+        /**
+         * Expected amount of the item per kill
+         */
+        public double getAmountPerKill(int index) {
+            return rolls == 0 ? 0 : amounts[index] / (double) rolls;
+        }
+
+        public double getCoinsPerKill() {
+            return rolls == 0 ? 0 : coins / (double) rolls;
+        }
+
+        /**
+         * Coins entering the economy per hour at a given kill rate
+         */
+        public double getCoinsPerHour(double killsPerHour) {
+            return getCoinsPerKill() * killsPerHour;
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package com.nightslayer.mmorpg.mobs;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.nightslayer.mmorpg.utils.AliasTable;
+import org.bukkit.Material;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Immutable, compiled loot table
+ *
+ * Features:
+ * - Guaranteed drops, independent chance drops and weighted groups
+ * - Weighted groups sampled in O(1) through alias tables
+ * - Luck (ItemStats.getLuck()) scales every drop and group chance
+ * - Rolling writes into a LootSink and allocates nothing
+ *
+ * Everything is stored in primitive arrays indexed by drop; items are
+ * reported by their index in {@link #getItems()} so callers can count
+ * without hashing Materials. Safe to share between threads.
+ *
+ * drops_json format (chances in percent, like MobDrops.Drop):
+ * {
+ *   "coins": [1, 5],
+ *   "guaranteed": [{"material": "BONE", "min": 1, "max": 2}],
+ *   "drops": [{"material": "DIAMOND", "min": 1, "max": 2, "chance": 5.0}],
+ *   "groups": [{"chance": 50.0, "rolls": 1, "entries": [
+ *       {"material": "IRON_INGOT", "min": 1, "max": 3, "weight": 3},
+ *       {"material": "GOLD_INGOT", "weight": 1}]}]
+ * }
+ * A bare array is read as the "drops" list.
+ */
+public final class LootTable {
+
+    /**
+     * Relative chance bonus per luck point (1 luck = +1% of the base chance)
+     */
+    public static final double LUCK_PER_POINT = 0.01;
+
+    public static final LootTable EMPTY = new Builder().build();
+
+    /**
+     * Receives rolled drops as (item index, amount)
+     */
+    @FunctionalInterface
+    public interface LootSink {
+        void accept(int item, int amount);
+    }
+
+    private final Material[] items;
+
+    private final int[] guaranteedItem;
+    private final int[] guaranteedMin;
+    private final int[] guaranteedSpan;
+
+    private final int[] dropItem;
+    private final int[] dropMin;
+    private final int[] dropSpan;
+    private final double[] dropChance;
+
+    private final double[] groupChance;
+    private final int[] groupRolls;
+    private final AliasTable[] groupAlias;
+    private final int[][] groupItem;
+    private final int[][] groupMin;
+    private final int[][] groupSpan;
+
+    private final int minCoins;
+    private final int coinSpan;
+
+    private LootTable(Builder builder) {
+        Map<Material, Integer> indexes = new HashMap<>();
+        List<Material> itemList = new ArrayList<>();
+
+        int guaranteed = builder.guaranteed.size();
+        guaranteedItem = new int[guaranteed];
+        guaranteedMin = new int[guaranteed];
+        guaranteedSpan = new int[guaranteed];
+        for (int i = 0; i < guaranteed; i++) {
+            Entry entry = builder.guaranteed.get(i);
+            guaranteedItem[i] = index(entry.material, indexes, itemList);
+            guaranteedMin[i] = entry.min;
+            guaranteedSpan[i] = entry.max - entry.min + 1;
+        }
+
+        int drops = builder.drops.size();
+        dropItem = new int[drops];
+        dropMin = new int[drops];
+        dropSpan = new int[drops];
+        dropChance = new double[drops];
+        for (int i = 0; i < drops; i++) {
+            Entry entry = builder.drops.get(i);
+            dropItem[i] = index(entry.material, indexes, itemList);
+            dropMin[i] = entry.min;
+            dropSpan[i] = entry.max - entry.min + 1;
+            dropChance[i] = entry.value / 100.0;
+        }
+
+        int groups = builder.groups.size();
+        groupChance = new double[groups];
+        groupRolls = new int[groups];
+        groupAlias = new AliasTable[groups];
+        groupItem = new int[groups][];
+        groupMin = new int[groups][];
+        groupSpan = new int[groups][];
+        for (int g = 0; g < groups; g++) {
+            Group group = builder.groups.get(g);
+            int size = group.entries.size();
+            double[] weights = new double[size];
+            groupItem[g] = new int[size];
+            groupMin[g] = new int[size];
+            groupSpan[g] = new int[size];
+            for (int i = 0; i < size; i++) {
+                Entry entry = group.entries.get(i);
+                groupItem[g][i] = index(entry.material, indexes, itemList);
+                groupMin[g][i] = entry.min;
+                groupSpan[g][i] = entry.max - entry.min + 1;
+                weights[i] = entry.value;
+            }
+            groupChance[g] = group.chance / 100.0;
+            groupRolls[g] = group.rolls;
+            groupAlias[g] = new AliasTable(weights);
+        }
+
+        items = itemList.toArray(new Material[0]);
+        minCoins = builder.minCoins;
+        coinSpan = Math.max(1, builder.maxCoins - builder.minCoins + 1);
+    }
+
+    private static int index(Material material, Map<Material, Integer> indexes, List<Material> itemList) {
+        Integer index = indexes.get(material);
+        if (index == null) {
+            index = itemList.size();
+            indexes.put(material, index);
+            itemList.add(material);
+        }
+        return index;
+    }
+
+    /**
+     * Roll the table once for a killer with the given luck
+     */
+    public void roll(RandomGenerator random, int luck, LootSink sink) {
+        double luckScale = Math.max(0.0, 1.0 + luck * LUCK_PER_POINT);
+
+        for (int i = 0; i < guaranteedItem.length; i++) {
+            emit(sink, guaranteedItem[i], guaranteedMin[i], guaranteedSpan[i], random);
+        }
+
+        for (int i = 0; i < dropItem.length; i++) {
+            if (random.nextDouble() < dropChance[i] * luckScale) {
+                emit(sink, dropItem[i], dropMin[i], dropSpan[i], random);
+            }
+        }
+
+        for (int g = 0; g < groupAlias.length; g++) {
+            double chance = groupChance[g] * luckScale;
+            for (int r = 0; r < groupRolls[g]; r++) {
+                if (chance < 1.0 && random.nextDouble() >= chance) continue;
+                int pick = groupAlias[g].sample(random);
+                emit(sink, groupItem[g][pick], groupMin[g][pick], groupSpan[g][pick], random);
+            }
+        }
+    }
+
+    private static void emit(LootSink sink, int item, int min, int span, RandomGenerator random) {
+        int amount = span <= 1 ? min : min + random.nextInt(span);
+        if (amount > 0) {
+            sink.accept(item, amount);
+        }
+    }
+
+    /**
+     * Roll the coin reward
+     */
+    public int rollCoins(RandomGenerator random) {
+        return coinSpan <= 1 ? minCoins : minCoins + random.nextInt(coinSpan);
+    }
+
+    /**
+     * Distinct materials of this table; sinks receive indexes into this array
+     */
+    public Material[] getItems() {
+        return items.clone();
+    }
+
+    public Material getItem(int index) {
+        return items[index];
+    }
+
+    public int getItemCount() {
+        return items.length;
+    }
+
+    /**
+     * Compile a drops_json document
+     *
+     * @throws IllegalArgumentException on malformed JSON or unknown materials
+     */
+    public static LootTable fromJson(String json) {
+        if (json == null || json.isBlank()) {
+            return EMPTY;
+        }
+
+        JsonElement root;
+        try {
+            root = JsonParser.parseString(json);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed loot JSON: " + e.getMessage(), e);
+        }
+
+        Builder builder = new Builder();
+        if (root.isJsonArray()) {
+            for (JsonElement element : root.getAsJsonArray()) {
+                JsonObject drop = element.getAsJsonObject();
+                builder.addDrop(material(drop), getInt(drop, "min", 1), getInt(drop, "max", getInt(drop, "min", 1)),
+                    getDouble(drop, "chance", 100.0));
+            }
+            return builder.build();
+        }
+        if (!root.isJsonObject()) {
+            throw new IllegalArgumentException("Loot JSON must be an object or an array");
+        }
+
+        JsonObject object = root.getAsJsonObject();
+        if (object.has("coins")) {
+            JsonElement coins = object.get("coins");
+            if (coins.isJsonArray()) {
+                JsonArray range = coins.getAsJsonArray();
+                builder.coins(range.get(0).getAsInt(), range.size() > 1 ? range.get(1).getAsInt() : range.get(0).getAsInt());
+            } else {
+                builder.coins(coins.getAsInt(), coins.getAsInt());
+            }
+        }
+        if (object.has("guaranteed")) {
+            for (JsonElement element : object.getAsJsonArray("guaranteed")) {
+                JsonObject drop = element.getAsJsonObject();
+                builder.addGuaranteed(material(drop), getInt(drop, "min", 1), getInt(drop, "max", getInt(drop, "min", 1)));
+            }
+        }
+        if (object.has("drops")) {
+            for (JsonElement element : object.getAsJsonArray("drops")) {
+                JsonObject drop = element.getAsJsonObject();
+                builder.addDrop(material(drop), getInt(drop, "min", 1), getInt(drop, "max", getInt(drop, "min", 1)),
+                    getDouble(drop, "chance", 100.0));
+            }
+        }
+        if (object.has("groups")) {
+            for (JsonElement element : object.getAsJsonArray("groups")) {
+                JsonObject group = element.getAsJsonObject();
+                builder.addGroup(getDouble(group, "chance", 100.0), getInt(group, "rolls", 1));
+                for (JsonElement entryElement : group.getAsJsonArray("entries")) {
+                    JsonObject entry = entryElement.getAsJsonObject();
+                    builder.addGroupEntry(material(entry), getInt(entry, "min", 1),
+                        getInt(entry, "max", getInt(entry, "min", 1)), getDouble(entry, "weight", 1.0));
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private static Material material(JsonObject object) {
+        String name = object.has("material") ? object.get("material").getAsString() : null;
+        Material material = name != null ? Material.matchMaterial(name) : null;
+        if (material == null || !material.isItem()) {
+            throw new IllegalArgumentException("Unknown item material: " + name);
+        }
+        return material;
+    }
+
+    private static int getInt(JsonObject object, String key, int def) {
+        return object.has(key) ? object.get(key).getAsInt() : def;
+    }
+
+    private static double getDouble(JsonObject object, String key, double def) {
+        return object.has(key) ? object.get(key).getAsDouble() : def;
+    }
+
+    private static final class Entry {
+        private final Material material;
+        private final int min;
+        private final int max;
+        private final double value; // Chance in percent, or weight inside a group
+
+        private Entry(Material material, int min, int max, double value) {
+            this.material = material;
+            this.min = min;
+            this.max = max;
+            this.value = value;
+        }
+    }
+
+    private static final class Group {
+        private final double chance;
+        private final int rolls;
+        private final List<Entry> entries = new ArrayList<>();
+
+        private Group(double chance, int rolls) {
+            this.chance = chance;
+            this.rolls = rolls;
+        }
+    }
+
+    /**
+     * Builder for loot tables
+     */
+    public static class Builder {
+        private final List<Entry> guaranteed = new ArrayList<>();
+        private final List<Entry> drops = new ArrayList<>();
+        private final List<Group> groups = new ArrayList<>();
+        private int minCoins = 0;
+        private int maxCoins = 0;
+
+        /**
+         * Always dropped
+         */
+        public Builder addGuaranteed(Material material, int minAmount, int maxAmount) {
+            guaranteed.add(new Entry(material, minAmount, Math.max(minAmount, maxAmount), 100.0));
+            return this;
+        }
+
+        /**
+         * Dropped independently with a chance in percent (0-100); 100 or more is guaranteed
+         */
+        public Builder addDrop(Material material, int minAmount, int maxAmount, double chance) {
+            if (chance >= 100.0) {
+                return addGuaranteed(material, minAmount, maxAmount);
+            }
+            if (chance > 0) {
+                drops.add(new Entry(material, minAmount, Math.max(minAmount, maxAmount), chance));
+            }
+            return this;
+        }
+
+        /**
+         * Start a weighted group; each of its rolls yields one entry with the given chance
+         */
+        public Builder addGroup(double chance, int rolls) {
+            groups.add(new Group(chance, Math.max(1, rolls)));
+            return this;
+        }
+
+        /**
+         * Add a weighted entry to the last group
+         */
+        public Builder addGroupEntry(Material material, int minAmount, int maxAmount, double weight) {
+            if (groups.isEmpty()) {
+                throw new IllegalStateException("addGroup must be called before addGroupEntry");
+            }
+            if (weight > 0) {
+                groups.get(groups.size() - 1).entries.add(
+                    new Entry(material, minAmount, Math.max(minAmount, maxAmount), weight));
+            }
+            return this;
+        }
+
+        public Builder coins(int minCoins, int maxCoins) {
+            this.minCoins = minCoins;
+            this.maxCoins = Math.max(minCoins, maxCoins);
+            return this;
+        }
+
+        public LootTable build() {
+            groups.removeIf(group -> group.entries.isEmpty() || group.chance <= 0);
+            return new LootTable(this);
+        }
+    }
+}
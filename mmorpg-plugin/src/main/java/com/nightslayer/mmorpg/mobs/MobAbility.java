@@ -0,0 +1,151 @@
+package com.nightslayer.mmorpg.mobs;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Registry;
+import org.bukkit.entity.EntityType;
+import org.bukkit.potion.PotionEffectType;
+
+/**
+ * Compiled custom mob ability
+ *
+ * Abilities are parsed once from custom_mobs.abilities_json into flat,
+ * immutable definitions that MobAbilityEngine executes. Example:
+ * [
+ *   {"type": "FIREBALL", "cooldown": 100, "range": 16},
+ *   {"type": "HEAL", "cooldown": 200, "amount": 10, "below-health": 0.5},
+ *   {"type": "POTION", "cooldown": 160, "range": 8, "effect": "SLOWNESS", "duration": 60, "amplifier": 1},
+ *   {"type": "AURA", "cooldown": 40, "range": 4, "damage": 2},
+ *   {"type": "SUMMON", "cooldown": 400, "range": 16, "entity": "ZOMBIE", "count": 2}
+ * ]
+ * Cooldowns and durations are in ticks. Abilities with a range only fire
+ * while a player is within it.
+ */
+public final class MobAbility {
+
+    public static final MobAbility[] NONE = new MobAbility[0];
+
+    public enum Type {
+        FIREBALL,
+        HEAL,
+        POTION,
+        AURA,
+        SUMMON
+    }
+
+    private final Type type;
+    private final int cooldown;
+    private final double range;
+    private final double amount;
+    private final double belowHealth;
+    private final PotionEffectType effect;
+    private final int duration;
+    private final int amplifier;
+    private final EntityType summonType;
+    private final int count;
+
+    private MobAbility(Type type, int cooldown, double range, double amount, double belowHealth,
+                       PotionEffectType effect, int duration, int amplifier, EntityType summonType, int count) {
+        this.type = type;
+        this.cooldown = cooldown;
+        this.range = range;
+        this.amount = amount;
+        this.belowHealth = belowHealth;
+        this.effect = effect;
+        this.duration = duration;
+        this.amplifier = amplifier;
+        this.summonType = summonType;
+        this.count = count;
+    }
+
+    /**
+     * Compile an abilities_json document
+     *
+     * @throws IllegalArgumentException on malformed JSON, unknown types or effects
+     */
+    public static MobAbility[] compile(String json) {
+        if (json == null || json.isBlank()) {
+            return NONE;
+        }
+
+        JsonArray array;
+        try {
+            JsonElement root = JsonParser.parseString(json);
+            array = root.isJsonArray() ? root.getAsJsonArray() : new JsonArray();
+            if (root.isJsonObject()) {
+                array.add(root);
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed abilities JSON: " + e.getMessage(), e);
+        }
+
+        MobAbility[] abilities = new MobAbility[array.size()];
+        for (int i = 0; i < abilities.length; i++) {
+            abilities[i] = parse(array.get(i).getAsJsonObject());
+        }
+        return abilities;
+    }
+
+    private static MobAbility parse(JsonObject object) {
+        String typeName = object.has("type") ? object.get("type").getAsString() : "";
+        Type type;
+        try {
+            type = Type.valueOf(typeName.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown ability type: " + typeName);
+        }
+
+        int cooldown = Math.max(1, getInt(object, "cooldown", 100));
+        double range = getDouble(object, "range", type == Type.HEAL ? 0 : 16);
+        double amount = getDouble(object, type == Type.AURA ? "damage" : "amount", type == Type.AURA ? 2 : 4);
+        double belowHealth = getDouble(object, "below-health", 1.0);
+
+        PotionEffectType effect = null;
+        if (type == Type.POTION) {
+            String effectName = object.has("effect") ? object.get("effect").getAsString() : "";
+            effect = Registry.EFFECT.get(NamespacedKey.minecraft(effectName.toLowerCase()));
+            if (effect == null) {
+                throw new IllegalArgumentException("Unknown potion effect: " + effectName);
+            }
+        }
+
+        EntityType summonType = null;
+        if (type == Type.SUMMON) {
+            String entityName = object.has("entity") ? object.get("entity").getAsString() : "";
+            try {
+                summonType = EntityType.valueOf(entityName.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown summon entity: " + entityName);
+            }
+            if (!summonType.isSpawnable() || !summonType.isAlive()) {
+                throw new IllegalArgumentException("Summon entity cannot be spawned: " + entityName);
+            }
+        }
+
+        return new MobAbility(type, cooldown, range, amount, belowHealth, effect,
+            getInt(object, "duration", 60), getInt(object, "amplifier", 0), summonType,
+            Math.max(1, getInt(object, "count", 1)));
+    }
+
+    private static int getInt(JsonObject object, String key, int def) {
+        return object.has(key) ? object.get(key).getAsInt() : def;
+    }
+
+    private static double getDouble(JsonObject object, String key, double def) {
+        return object.has(key) ? object.get(key).getAsDouble() : def;
+    }
+
+    public Type getType() { return type; }
+    public int getCooldown() { return cooldown; }
+    public double getRange() { return range; }
+    public double getAmount() { return amount; }
+    public double getBelowHealth() { return belowHealth; }
+    public PotionEffectType getEffect() { return effect; }
+    public int getDuration() { return duration; }
+    public int getAmplifier() { return amplifier; }
+    public EntityType getSummonType() { return summonType; }
+    public int getCount() { return count; }
+}
@@ -0,0 +1,406 @@
+package com.nightslayer.mmorpg.mobs;
+
+import com.nightslayer.mmorpg.MMORPGPlugin;
+import com.nightslayer.mmorpg.spawns.SpawnQueue;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.SmallFireball;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.scheduler.BukkitTask;
+import org.bukkit.util.Vector;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Executes custom mob abilities for every living custom mob from one task
+ *
+ * Features:
+ * - Mobs live in flat slot arrays; per-ability cooldowns are a long[] per slot
+ * - Slots are bucketed by the tick of their next ready ability, so idle
+ *   mobs cost nothing until a cooldown expires
+ * - A mob is only evaluated while valid (chunk loaded) and a player is
+ *   within the activation range; otherwise it is re-checked later
+ * - Per-tick budget in evaluations and milliseconds; overflow rolls over
+ *   to the next tick
+ * - Summons are tagged with their caster as owner (summon:<uuid>), capped
+ *   per caster by live plus queued count and removed when the caster dies,
+ *   through a per-caster set of summon UUIDs
+ *
+ * Dead or unloaded mobs are dropped lazily when their bucket comes up.
+ */
+public class MobAbilityEngine {
+
+    private static final int RING_BITS = 7;
+    private static final int RING_SIZE = 1 << RING_BITS;
+    private static final int RING_MASK = RING_SIZE - 1;
+    private static final long FREE = -1L;
+    private static final int RETRY_TICKS = 10;
+
+    private final MMORPGPlugin plugin;
+    private final Location scratch;
+    private final Location targetScratch;
+
+    // Slot data
+    private LivingEntity[] entities;
+    private MobAbility[][] abilities;
+    private long[][] readyAt;
+    private long[] nextTick;
+    private Summons[] summons;
+    private int[] pendingSummons;
+    private int[] freeSlots;
+    private int freeCount;
+    private int slotCount;
+    private int liveCount;
+
+    // Buckets of slot ids keyed by tick
+    private final int[][] buckets;
+    private final int[] bucketSizes;
+
+    private BukkitTask task;
+    private long now;
+    private int maxEvaluationsPerTick;
+    private long maxNanosPerTick;
+    private double activationRangeSq;
+    private int idleRecheckTicks;
+    private int maxSummonsPerCaster;
+    private final Map<UUID, Summons> summonsByCaster;
+
+    public MobAbilityEngine(MMORPGPlugin plugin) {
+        this.plugin = plugin;
+        this.scratch = new Location(null, 0, 0, 0);
+        this.targetScratch = new Location(null, 0, 0, 0);
+        this.entities = new LivingEntity[64];
+        this.abilities = new MobAbility[64][];
+        this.readyAt = new long[64][];
+        this.nextTick = new long[64];
+        this.summons = new Summons[64];
+        this.summonsByCaster = new HashMap<>();
+        this.pendingSummons = new int[64];
+        this.freeSlots = new int[64];
+        this.buckets = new int[RING_SIZE][];
+        this.bucketSizes = new int[RING_SIZE];
+        for (int i = 0; i < RING_SIZE; i++) {
+            buckets[i] = new int[8];
+        }
+        Arrays.fill(nextTick, FREE);
+    }
+
+    /**
+     * Start the engine task with the configured budget
+     */
+    public void start() {
+        stop();
+        maxEvaluationsPerTick = Math.max(1, plugin.getConfig().getInt("mobs.abilities.max_evaluations_per_tick", 200));
+        maxNanosPerTick = (long) (plugin.getConfig().getDouble("mobs.abilities.max_millis_per_tick", 2.0) * 1_000_000L);
+        double range = plugin.getConfig().getDouble("mobs.abilities.activation_range", 32.0);
+        activationRangeSq = range * range;
+        idleRecheckTicks = Math.max(1, Math.min(RING_SIZE - 1,
+            plugin.getConfig().getInt("mobs.abilities.idle_recheck_ticks", 40)));
+        maxSummonsPerCaster = Math.max(0, plugin.getConfig().getInt("mobs.abilities.max_summons_per_caster", 6));
+        task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Start running a custom mob's abilities
+     */
+    public void register(LivingEntity entity, MobAbility[] mobAbilities) {
+        if (mobAbilities.length == 0) return;
+
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (slotCount == entities.length) {
+                grow();
+            }
+            slot = slotCount++;
+        }
+
+        entities[slot] = entity;
+        abilities[slot] = mobAbilities;
+        summons[slot] = null;
+        pendingSummons[slot] = 0;
+        long[] ready = readyAt[slot];
+        if (ready == null || ready.length < mobAbilities.length) {
+            ready = new long[mobAbilities.length];
+            readyAt[slot] = ready;
+        }
+        // Stagger the first use so a freshly spawned wave doesn't fire in unison
+        for (int i = 0; i < mobAbilities.length; i++) {
+            ready[i] = now + 1 + ThreadLocalRandom.current().nextInt(mobAbilities[i].getCooldown());
+        }
+        liveCount++;
+        schedule(slot, nextReady(slot));
+    }
+
+    /**
+     * Remove the loaded summons of a caster that died
+     */
+    public void removeSummons(LivingEntity caster) {
+        Summons casterSummons = summonsByCaster.remove(caster.getUniqueId());
+        if (casterSummons == null) return;
+
+        EntityOwnershipRegistry registry = plugin.getEntityOwnershipRegistry();
+        for (UUID id : casterSummons.ids) {
+            Entity summoned = plugin.getServer().getEntity(id);
+            if (summoned != null && registry.isOwnedBy(summoned, casterSummons.owner)) {
+                // Untag first so the count drops now rather than when the removal is processed
+                registry.untag(summoned);
+                summoned.remove();
+            }
+        }
+        registry.discard(casterSummons.owner);
+    }
+
+    /**
+     * Number of custom mobs with abilities currently tracked
+     */
+    public int getTrackedCount() {
+        return liveCount;
+    }
+
+    private void tick() {
+        now++;
+        int bucket = (int) (now & RING_MASK);
+        int size = bucketSizes[bucket];
+        if (size == 0) return;
+
+        // Re-scheduling always targets a later bucket, never this one
+        int[] slots = buckets[bucket];
+        long start = System.nanoTime();
+        int evaluated = 0;
+        for (int i = 0; i < size; i++) {
+            int slot = slots[i];
+            if (nextTick[slot] != now) continue; // Stale entry
+
+            if (evaluated >= maxEvaluationsPerTick || System.nanoTime() - start >= maxNanosPerTick) {
+                // Out of budget: roll the rest over to the next tick
+                schedule(slot, now + 1);
+                continue;
+            }
+            evaluated++;
+            evaluate(slot);
+        }
+        bucketSizes[bucket] = 0;
+    }
+
+    private void evaluate(int slot) {
+        LivingEntity entity = entities[slot];
+        if (!entity.isValid()) {
+            free(slot);
+            return;
+        }
+
+        entity.getLocation(scratch);
+        World world = scratch.getWorld();
+        Player nearest = null;
+        double nearestSq = activationRangeSq;
+        for (Player player : world.getPlayers()) {
+            if (player.isDead()) continue;
+            player.getLocation(targetScratch);
+            double distanceSq = targetScratch.distanceSquared(scratch);
+            if (distanceSq <= nearestSq) {
+                nearestSq = distanceSq;
+                nearest = player;
+            }
+        }
+        if (nearest == null) {
+            // Nobody around: check again later without touching cooldowns
+            schedule(slot, now + idleRecheckTicks);
+            return;
+        }
+
+        MobAbility[] mobAbilities = abilities[slot];
+        long[] ready = readyAt[slot];
+        for (int i = 0; i < mobAbilities.length; i++) {
+            if (ready[i] > now) continue;
+            MobAbility ability = mobAbilities[i];
+            boolean inRange = ability.getRange() <= 0 || nearestSq <= ability.getRange() * ability.getRange();
+
+            // Ready but conditions not met: retry shortly instead of every tick
+            ready[i] = inRange && execute(slot, entity, ability, nearest)
+                ? now + ability.getCooldown()
+                : now + RETRY_TICKS;
+        }
+        schedule(slot, nextReady(slot));
+    }
+
+    private boolean execute(int slot, LivingEntity entity, MobAbility ability, Player target) {
+        switch (ability.getType()) {
+            case FIREBALL: {
+                if (!entity.hasLineOfSight(target)) return false;
+                Vector direction = target.getEyeLocation().toVector()
+                    .subtract(entity.getEyeLocation().toVector()).normalize();
+                entity.launchProjectile(SmallFireball.class, direction);
+                return true;
+            }
+            case HEAL: {
+                AttributeInstance maxHealth = entity.getAttribute(Attribute.GENERIC_MAX_HEALTH);
+                if (maxHealth == null) return false;
+                double max = maxHealth.getValue();
+                if (entity.getHealth() >= max * ability.getBelowHealth()) return false;
+                entity.setHealth(Math.min(max, entity.getHealth() + ability.getAmount()));
+                return true;
+            }
+            case POTION: {
+                PotionEffect effect = new PotionEffect(ability.getEffect(), ability.getDuration(), ability.getAmplifier());
+                double rangeSq = ability.getRange() * ability.getRange();
+                for (Player player : scratch.getWorld().getPlayers()) {
+                    if (isInRange(player, rangeSq)) {
+                        player.addPotionEffect(effect);
+                    }
+                }
+                return true;
+            }
+            case AURA: {
+                double rangeSq = ability.getRange() * ability.getRange();
+                for (Player player : scratch.getWorld().getPlayers()) {
+                    if (isInRange(player, rangeSq)) {
+                        player.damage(ability.getAmount(), entity);
+                    }
+                }
+                return true;
+            }
+            case SUMMON:
+                return summon(slot, entity, ability);
+            default:
+                return false;
+        }
+    }
+
+    private boolean summon(int slot, LivingEntity caster, MobAbility ability) {
+        Summons casterSummons = summons[slot];
+        if (casterSummons == null) {
+            String ownerId = EntityOwnershipRegistry.owner("summon", caster.getUniqueId().toString());
+            casterSummons = new Summons(plugin.getEntityOwnershipRegistry().getHandle(ownerId));
+            summons[slot] = casterSummons;
+            summonsByCaster.put(caster.getUniqueId(), casterSummons);
+        }
+
+        // Queued summons are not loaded yet, so count them against the cap too
+        int count = Math.min(ability.getCount(),
+            maxSummonsPerCaster - casterSummons.owner.getLoadedCount() - pendingSummons[slot]);
+        if (count <= 0) return false;
+
+        Summons target = casterSummons;
+        for (int i = 0; i < count; i++) {
+            pendingSummons[slot]++;
+            plugin.getSpawnQueue().enqueue(SpawnQueue.Priority.AMBIENT, scratch, ability.getSummonType(),
+                summoned -> onSummoned(slot, caster, target, summoned));
+        }
+        return true;
+    }
+
+    private void onSummoned(int slot, LivingEntity caster, Summons casterSummons, LivingEntity summoned) {
+        // The slot may have been freed and reused while the spawn was queued
+        boolean current = entities[slot] == caster;
+        if (current) {
+            pendingSummons[slot]--;
+        }
+        if (summoned == null) return;
+
+        if (!current || caster.isDead()) {
+            summoned.remove();
+            return;
+        }
+        plugin.getEntityOwnershipRegistry().tag(summoned, casterSummons.owner);
+        if (casterSummons.ids.size() >= maxSummonsPerCaster * 2) {
+            // Summons that died on their own are only dropped here, so the set stays near the cap
+            casterSummons.ids.removeIf(id -> plugin.getServer().getEntity(id) == null);
+        }
+        casterSummons.ids.add(summoned.getUniqueId());
+    }
+
+    private boolean isInRange(Player player, double rangeSq) {
+        if (player.isDead()) return false;
+        player.getLocation(targetScratch);
+        return targetScratch.distanceSquared(scratch) <= rangeSq;
+    }
+
+    private long nextReady(int slot) {
+        long next = Long.MAX_VALUE;
+        MobAbility[] mobAbilities = abilities[slot];
+        long[] ready = readyAt[slot];
+        for (int i = 0; i < mobAbilities.length; i++) {
+            next = Math.min(next, ready[i]);
+        }
+        return next;
+    }
+
+    /**
+     * Put a slot in the bucket of a future tick (capped to one ring turn)
+     */
+    private void schedule(int slot, long tick) {
+        long due = Math.min(Math.max(tick, now + 1), now + RING_SIZE - 1);
+        nextTick[slot] = due;
+
+        int bucket = (int) (due & RING_MASK);
+        int size = bucketSizes[bucket];
+        if (size == buckets[bucket].length) {
+            buckets[bucket] = Arrays.copyOf(buckets[bucket], size * 2);
+        }
+        buckets[bucket][size] = slot;
+        bucketSizes[bucket] = size + 1;
+    }
+
+    private void free(int slot) {
+        Summons casterSummons = summons[slot];
+        if (casterSummons != null) {
+            // Caster unloaded: its loaded summons keep their tag but are no longer tracked for removal
+            summonsByCaster.remove(entities[slot].getUniqueId(), casterSummons);
+            plugin.getEntityOwnershipRegistry().discard(casterSummons.owner);
+            summons[slot] = null;
+        }
+        entities[slot] = null;
+        abilities[slot] = null;
+        nextTick[slot] = FREE;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+        liveCount--;
+    }
+
+    private void grow() {
+        int capacity = entities.length * 2;
+        entities = Arrays.copyOf(entities, capacity);
+        abilities = Arrays.copyOf(abilities, capacity);
+        readyAt = Arrays.copyOf(readyAt, capacity);
+        summons = Arrays.copyOf(summons, capacity);
+        pendingSummons = Arrays.copyOf(pendingSummons, capacity);
+        int oldLength = nextTick.length;
+        nextTick = Arrays.copyOf(nextTick, capacity);
+        Arrays.fill(nextTick, oldLength, capacity, FREE);
+    }
+
+    /**
+     * Owner handle and spawned summon ids of one caster
+     */
+    private static final class Summons {
+        private final EntityOwnershipRegistry.Owner owner;
+        private final Set<UUID> ids;
+
+        private Summons(EntityOwnershipRegistry.Owner owner) {
+            this.owner = owner;
+            this.ids = new HashSet<>();
+        }
+    }
+}
@@ -4,9 +4,13 @@ import org.bukkit.Material;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Manages custom drops for mobs
+ * 
+ * Drops are compiled into an immutable LootTable on first roll (and again
+ * after addDrop/removeDrop), so rolling never re-walks the Drop list.
  */
 public class MobDrops {
     
@@ -14,6 +18,7 @@ public class MobDrops {
     private final int minCoins;
     private final int maxCoins;
     private final int experienceMultiplier; // Percentage (100 = normal)
+    private LootTable lootTable;
     
     public MobDrops() {
         this.drops = new ArrayList<>();
@@ -33,30 +38,41 @@ public class MobDrops {
      * Rolls and generates drops based on probabilities
      */
     public List<ItemStack> generateDrops() {
+        return generateDrops(0);
+    }
+    
+    /**
+     * Rolls drops for a killer with the given luck (see ItemStats.getLuck())
+     */
+    public List<ItemStack> generateDrops(int luck) {
+        LootTable table = getLootTable();
         List<ItemStack> result = new ArrayList<>();
-        Random random = new Random();
-        
-        for (Drop drop : drops) {
-            // Roll for drop chance
-            if (random.nextDouble() * 100 <= drop.getChance()) {
-                int amount = random.nextInt(drop.getMaxAmount() - drop.getMinAmount() + 1) + drop.getMinAmount();
-                if (amount > 0) {
-                    ItemStack item = new ItemStack(drop.getMaterial(), amount);
-                    result.add(item);
-                }
-            }
-        }
-        
+        table.roll(ThreadLocalRandom.current(), luck,
+            (item, amount) -> result.add(new ItemStack(table.getItem(item), amount)));
         return result;
     }
     
     /**
-     * Gets the coins to drop (random between min and max)
+     * Gets the coins to drop, rolled by the compiled table like the items
      */
     public int getCoinsDropped() {
-        if (minCoins >= maxCoins) return minCoins;
-        Random random = new Random();
-        return random.nextInt(maxCoins - minCoins + 1) + minCoins;
+        return getLootTable().rollCoins(ThreadLocalRandom.current());
+    }
+    
+    /**
+     * Compiled form of these drops
+     */
+    public LootTable getLootTable() {
+        LootTable table = lootTable;
+        if (table == null) {
+            LootTable.Builder builder = new LootTable.Builder().coins(minCoins, maxCoins);
+            for (Drop drop : drops) {
+                builder.addDrop(drop.getMaterial(), drop.getMinAmount(), drop.getMaxAmount(), drop.getChance());
+            }
+            table = builder.build();
+            lootTable = table;
+        }
+        return table;
     }
     
     /**
@@ -71,13 +87,16 @@ public class MobDrops {
      */
     public void addDrop(Drop drop) {
         this.drops.add(drop);
+        this.lootTable = null;
     }
     
     /**
      * Removes all drops of a specific material
      */
     public void removeDrop(Material material) {
-        drops.removeIf(drop -> drop.getMaterial() == material);
+        if (drops.removeIf(drop -> drop.getMaterial() == material)) {
+            lootTable = null;
+        }
     }
     
     // Getters
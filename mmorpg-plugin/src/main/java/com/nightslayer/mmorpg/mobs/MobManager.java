@@ -2,30 +2,70 @@ package com.nightslayer.mmorpg.mobs;
 
 import com.nightslayer.mmorpg.MMORPGPlugin;
 import com.nightslayer.mmorpg.database.DatabaseManager;
-import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import com.nightslayer.mmorpg.spawns.SpawnQueue;
+import com.nightslayer.mmorpg.utils.AliasTable;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.attribute.Attribute;
+import org.bukkit.block.Biome;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.LivingEntity;
 
 import java.sql.ResultSet;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.logging.Level;
 
+/**
+ * Loads custom mobs and spawns them
+ *
+ * Random custom mob selection is weighted (mobs.spawn_table) and served
+ * from Vose alias tables per context: world, biome and the level band of
+ * the strongest nearby player. Tables are built on first use of a context
+ * and dropped on reload, so a pick is O(1) and allocation-free.
+ */
 public class MobManager {
+    private static final Biome[] BIOMES = Biome.values();
+    private static final MobTable EMPTY_TABLE = new MobTable(new CustomMob[0], null);
+    
     private final MMORPGPlugin plugin;
     private final DatabaseManager db;
     private final Map<String, CustomMob> customMobs;
-    private static final LegacyComponentSerializer LEGACY = LegacyComponentSerializer.legacySection();
+    private final Map<String, MobTable[][]> contextTables;
+    private final MobAbilityEngine abilityEngine;
+    private final MobNameplates nameplates;
+    private final MobStateStore stateStore;
+    private int levelBandSize;
+    private int bandCount;
+    private double levelRadius;
     
     public MobManager(MMORPGPlugin plugin) {
         this.plugin = plugin;
         this.db = plugin.getDatabaseManager();
         this.customMobs = new HashMap<>();
+        this.contextTables = new HashMap<>();
+        this.abilityEngine = new MobAbilityEngine(plugin);
+        this.nameplates = new MobNameplates(plugin);
+        this.stateStore = new MobStateStore(plugin, this);
+        loadCustomMobs();
+        abilityEngine.start();
+        stateStore.start();
+    }
+    
+    /**
+     * Reload custom mobs and spawn weights; selection tables are rebuilt lazily
+     */
+    public void reload() {
+        customMobs.clear();
+        nameplates.reload();
         loadCustomMobs();
     }
     
@@ -41,44 +81,194 @@ public class MobManager {
                 double damage = rs.getDouble("damage");
                 
                 CustomMob mob = new CustomMob(id, entityType, displayName, level, health, damage);
+                if (mob.type == null) {
+                    plugin.getLogger().warning("Custom mob " + id + " has an unspawnable type '" + entityType + "', skipping");
+                    continue;
+                }
+                try {
+                    mob.lootTable = LootTable.fromJson(rs.getString("drops_json"));
+                } catch (RuntimeException e) {
+                    plugin.getLogger().warning("Invalid drops_json for custom mob " + id + ": " + e.getMessage());
+                }
+                try {
+                    mob.abilities = MobAbility.compile(rs.getString("abilities_json"));
+                } catch (RuntimeException e) {
+                    plugin.getLogger().warning("Invalid abilities_json for custom mob " + id + ": " + e.getMessage());
+                }
                 customMobs.put(id, mob);
             }
             plugin.getLogger().info("Loaded " + customMobs.size() + " custom mobs");
         } catch (Exception e) {
             plugin.getLogger().log(Level.SEVERE, "Error loading custom mobs", e);
         }
+        loadSpawnTable();
+    }
+    
+    /**
+     * Apply mobs.spawn_table weights and context restrictions, e.g.
+     *   spawn_table:
+     *     forest_wolf: {weight: 3.0, worlds: [world], biomes: [FOREST]}
+     * Unlisted mobs have weight 1 everywhere.
+     */
+    private void loadSpawnTable() {
+        contextTables.clear();
+        levelBandSize = Math.max(1, plugin.getConfig().getInt("mobs.spawn_level_band", 10));
+        levelRadius = plugin.getConfig().getDouble("mobs.spawn_level_radius", 32.0);
+        
+        int maxLevel = 0;
+        for (CustomMob mob : customMobs.values()) {
+            maxLevel = Math.max(maxLevel, mob.level);
+        }
+        bandCount = maxLevel / levelBandSize + 1;
+        
+        ConfigurationSection table = plugin.getConfig().getConfigurationSection("mobs.spawn_table");
+        if (table == null) return;
+        
+        for (String id : table.getKeys(false)) {
+            CustomMob mob = customMobs.get(id);
+            ConfigurationSection section = table.getConfigurationSection(id);
+            if (mob == null || section == null) {
+                plugin.getLogger().warning("Unknown custom mob in mobs.spawn_table: " + id);
+                continue;
+            }
+            mob.weight = Math.max(0.0, section.getDouble("weight", 1.0));
+            
+            List<String> worlds = section.getStringList("worlds");
+            if (!worlds.isEmpty()) {
+                mob.worlds = new HashSet<>(worlds);
+            }
+            List<String> biomes = section.getStringList("biomes");
+            if (!biomes.isEmpty()) {
+                mob.biomes = new boolean[BIOMES.length];
+                for (String biomeName : biomes) {
+                    try {
+                        mob.biomes[Biome.valueOf(biomeName.toUpperCase()).ordinal()] = true;
+                    } catch (IllegalArgumentException e) {
+                        plugin.getLogger().warning("Invalid biome '" + biomeName + "' for custom mob " + id);
+                    }
+                }
+            }
+        }
     }
     
     public void applyCustomMob(LivingEntity entity, String mobId) {
         CustomMob mob = customMobs.get(mobId);
         if (mob != null) {
-            entity.customName(LEGACY.deserialize(mob.displayName));
-            entity.setCustomNameVisible(true);
             entity.getAttribute(Attribute.GENERIC_MAX_HEALTH).setBaseValue(mob.health);
             entity.setHealth(mob.health);
             if (entity.getAttribute(Attribute.GENERIC_ATTACK_DAMAGE) != null) {
                 entity.getAttribute(Attribute.GENERIC_ATTACK_DAMAGE).setBaseValue(mob.damage);
             }
+            stateStore.write(entity, mob.id, mob.level);
+            nameplates.apply(entity, mob, mob.level);
+            abilityEngine.register(entity, mob.abilities);
         }
     }
-
+    
+    /**
+     * Re-attach runtime state to a custom mob loaded from disk; attributes
+     * and health are already persisted with the entity
+     */
+    public void rehydrate(LivingEntity entity, String mobId, int level) {
+        CustomMob mob = customMobs.get(mobId);
+        if (mob == null) return;
+        nameplates.apply(entity, mob, level);
+        abilityEngine.register(entity, mob.abilities);
+    }
+    
     public void spawnRandomCustomMob(Location location) {
         if (customMobs.isEmpty() || location == null || location.getWorld() == null) {
             return;
         }
-        List<CustomMob> mobs = new ArrayList<>(customMobs.values());
-        CustomMob mob = mobs.get(new Random().nextInt(mobs.size()));
-        EntityType entityType;
-        try {
-            entityType = EntityType.valueOf(mob.entityType.toUpperCase());
-        } catch (Exception e) {
-            return;
+        spawnCustomMob(location, pickCustomMob(location));
+    }
+    
+    /**
+     * Weighted pick of a custom mob for a location, or null if none fits
+     */
+    public CustomMob pickCustomMob(Location location) {
+        World world = location.getWorld();
+        int biome = world.getBiome(location.getBlockX(), location.getBlockY(), location.getBlockZ()).ordinal();
+        
+        // Band of the strongest nearby player; slot 0 means any level
+        int playerLevel = plugin.getPlayerLevelIndex() != null
+            ? plugin.getPlayerLevelIndex().getHighestLevelNear(world, location.getX(), location.getY(),
+                location.getZ(), levelRadius)
+            : -1;
+        int slot = playerLevel < 0 ? 0 : Math.min(playerLevel / levelBandSize, bandCount - 1) + 1;
+        
+        MobTable table = getTable(world.getName(), biome, slot);
+        if (table.alias == null && slot != 0) {
+            // Nothing in this level band here, fall back to any level
+            table = getTable(world.getName(), biome, 0);
+        }
+        return table.alias == null ? null : table.mobs[table.alias.sample(ThreadLocalRandom.current())];
+    }
+    
+    private MobTable getTable(String worldName, int biome, int slot) {
+        MobTable[][] tables = contextTables.get(worldName);
+        if (tables == null) {
+            tables = new MobTable[BIOMES.length][bandCount + 1];
+            contextTables.put(worldName, tables);
         }
-        if (!entityType.isSpawnable() || !entityType.isAlive()) {
+        MobTable table = tables[biome][slot];
+        if (table == null) {
+            table = buildTable(worldName, biome, slot);
+            tables[biome][slot] = table;
+        }
+        return table;
+    }
+    
+    private MobTable buildTable(String worldName, int biome, int slot) {
+        List<CustomMob> candidates = new ArrayList<>();
+        for (CustomMob mob : customMobs.values()) {
+            if (mob.weight <= 0) continue;
+            if (mob.worlds != null && !mob.worlds.contains(worldName)) continue;
+            if (mob.biomes != null && !mob.biomes[biome]) continue;
+            if (slot != 0 && Math.min(mob.level / levelBandSize, bandCount - 1) != slot - 1) continue;
+            candidates.add(mob);
+        }
+        if (candidates.isEmpty()) {
+            return EMPTY_TABLE;
+        }
+        
+        CustomMob[] mobs = candidates.toArray(new CustomMob[0]);
+        double[] weights = new double[mobs.length];
+        for (int i = 0; i < mobs.length; i++) {
+            weights[i] = mobs[i].weight;
+        }
+        return new MobTable(mobs, new AliasTable(weights));
+    }
+    
+    public void spawnCustomMob(Location location, CustomMob mob) {
+        if (mob == null || location == null || location.getWorld() == null) {
             return;
         }
-        LivingEntity entity = (LivingEntity) location.getWorld().spawnEntity(location, entityType);
-        applyCustomMob(entity, mob.id);
+        plugin.getSpawnQueue().enqueue(SpawnQueue.Priority.AMBIENT, location, mob.type, entity -> {
+            if (entity != null) {
+                applyCustomMob(entity, mob.id);
+            }
+        });
+    }
+    
+    public MobStateStore getStateStore() {
+        return stateStore;
+    }
+    
+    public MobNameplates getNameplates() {
+        return nameplates;
+    }
+    
+    public MobAbilityEngine getAbilityEngine() {
+        return abilityEngine;
+    }
+    
+    public CustomMob getCustomMob(String mobId) {
+        return customMobs.get(mobId);
+    }
+    
+    public Collection<CustomMob> getCustomMobs() {
+        return Collections.unmodifiableCollection(customMobs.values());
     }
     
     public static class CustomMob {
@@ -88,6 +278,12 @@ public class MobManager {
         private final int level;
         private final double health;
         private final double damage;
+        private final EntityType type;
+        private double weight = 1.0;
+        private Set<String> worlds;
+        private boolean[] biomes;
+        private LootTable lootTable = LootTable.EMPTY;
+        private MobAbility[] abilities = MobAbility.NONE;
         
         public CustomMob(String id, String entityType, String displayName, int level, double health, double damage) {
             this.id = id;
@@ -96,10 +292,42 @@ public class MobManager {
             this.level = level;
             this.health = health;
             this.damage = damage;
+            this.type = resolveType(entityType);
+        }
+        
+        /**
+         * Validate the entity type once; null if it cannot be spawned as a living mob
+         */
+        private static EntityType resolveType(String entityType) {
+            if (entityType == null) return null;
+            try {
+                EntityType type = EntityType.valueOf(entityType.trim().toUpperCase());
+                return type.isSpawnable() && type.isAlive() ? type : null;
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
         }
         
         public String getId() { return id; }
+        public String getDisplayName() { return displayName; }
         public int getLevel() { return level; }
         public double getDamage() { return damage; }
+        public EntityType getEntityType() { return type; }
+        public double getWeight() { return weight; }
+        public LootTable getLootTable() { return lootTable; }
+        public MobAbility[] getAbilities() { return abilities.clone(); }
+    }
+    
+    /**
+     * Candidate mobs of one selection context with their alias table
+     */
+    private static final class MobTable {
+        private final CustomMob[] mobs;
+        private final AliasTable alias;
+        
+        private MobTable(CustomMob[] mobs, AliasTable alias) {
+            this.mobs = mobs;
+            this.alias = alias;
+        }
     }
 }
@@ -0,0 +1,174 @@
+package com.nightslayer.mmorpg.mobs;
+
+import com.destroystokyo.paper.event.entity.EntityRemoveFromWorldEvent;
+import com.nightslayer.mmorpg.MMORPGPlugin;
+import com.nightslayer.mmorpg.utils.IntObjectMap;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.entity.EntityRegainHealthEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pre-rendered nameplates with health bars for custom mobs
+ *
+ * Features:
+ * - One Component per (mob id, level, health bucket), rendered once and shared
+ * - An entity's name is only replaced when its health bucket changes
+ * - Damage and healing within a tick are coalesced into one update
+ *
+ * With mobs.nameplates.health_bar disabled, mobs just get their cached
+ * display name.
+ */
+public class MobNameplates implements Listener {
+
+    private static final LegacyComponentSerializer LEGACY = LegacyComponentSerializer.legacySection();
+
+    private final MMORPGPlugin plugin;
+    private final Map<String, Component[]> frameCache;
+    private final IntObjectMap<Plate> plates;
+    private final List<Plate> pending;
+    private boolean flushScheduled;
+    private boolean healthBar;
+    private int segments;
+
+    public MobNameplates(MMORPGPlugin plugin) {
+        this.plugin = plugin;
+        this.frameCache = new HashMap<>();
+        this.plates = new IntObjectMap<>(256);
+        this.pending = new ArrayList<>();
+        reload();
+    }
+
+    /**
+     * Re-read settings and drop rendered frames
+     */
+    public void reload() {
+        healthBar = plugin.getConfig().getBoolean("mobs.nameplates.health_bar", true);
+        segments = Math.max(1, plugin.getConfig().getInt("mobs.nameplates.segments", 10));
+        frameCache.clear();
+    }
+
+    /**
+     * Give a custom mob its nameplate and follow its health from now on
+     */
+    public void apply(LivingEntity entity, MobManager.CustomMob mob, int level) {
+        Component[] frames = getFrames(mob, level);
+        if (!healthBar) {
+            entity.customName(frames[0]);
+            entity.setCustomNameVisible(true);
+            return;
+        }
+
+        Plate plate = new Plate(entity, frames);
+        plate.bucket = bucketOf(entity, frames.length - 1);
+        plates.put(entity.getEntityId(), plate);
+        entity.customName(frames[plate.bucket]);
+        entity.setCustomNameVisible(true);
+    }
+
+    /**
+     * Rendered frames for a mob at a level: index 0..segments by health bucket
+     */
+    private Component[] getFrames(MobManager.CustomMob mob, int level) {
+        String key = mob.getId() + ":" + level;
+        Component[] frames = frameCache.get(key);
+        if (frames != null) return frames;
+
+        Component name = LEGACY.deserialize(mob.getDisplayName());
+        if (!healthBar) {
+            frames = new Component[] {name};
+        } else {
+            Component label = name.append(Component.text(" [Lv." + level + "] ", NamedTextColor.GRAY));
+            frames = new Component[segments + 1];
+            for (int filled = 0; filled <= segments; filled++) {
+                frames[filled] = label
+                    .append(Component.text("|".repeat(filled), NamedTextColor.RED))
+                    .append(Component.text("|".repeat(segments - filled), NamedTextColor.DARK_GRAY));
+            }
+        }
+        frameCache.put(key, frames);
+        return frames;
+    }
+
+    private static int bucketOf(LivingEntity entity, int segments) {
+        AttributeInstance maxHealth = entity.getAttribute(Attribute.GENERIC_MAX_HEALTH);
+        double max = maxHealth != null ? maxHealth.getValue() : entity.getHealth();
+        if (max <= 0) return 0;
+        // Round up so a living mob always shows at least one segment
+        int bucket = (int) Math.ceil(entity.getHealth() / max * segments);
+        return Math.max(0, Math.min(segments, bucket));
+    }
+
+    private void markDirty(Entity entity) {
+        Plate plate = plates.get(entity.getEntityId());
+        if (plate == null || plate.dirty) return;
+
+        plate.dirty = true;
+        pending.add(plate);
+        if (!flushScheduled) {
+            flushScheduled = true;
+            // Health is final after the event, so render next tick once for all hits
+            plugin.getServer().getScheduler().runTask(plugin, this::flush);
+        }
+    }
+
+    private void flush() {
+        flushScheduled = false;
+        for (int i = 0; i < pending.size(); i++) {
+            Plate plate = pending.get(i);
+            plate.dirty = false;
+            LivingEntity entity = plate.entity;
+            if (!entity.isValid()) continue;
+
+            int bucket = bucketOf(entity, plate.frames.length - 1);
+            if (bucket != plate.bucket) {
+                plate.bucket = bucket;
+                entity.customName(plate.frames[bucket]);
+            }
+        }
+        pending.clear();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDamage(EntityDamageEvent event) {
+        markDirty(event.getEntity());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onRegainHealth(EntityRegainHealthEvent event) {
+        markDirty(event.getEntity());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityRemove(EntityRemoveFromWorldEvent event) {
+        plates.remove(event.getEntity().getEntityId());
+    }
+
+    /**
+     * Nameplate state of one tracked entity
+     */
+    private static final class Plate {
+        private final LivingEntity entity;
+        private final Component[] frames;
+        private int bucket;
+        private boolean dirty;
+
+        private Plate(LivingEntity entity, Component[] frames) {
+            this.entity = entity;
+            this.frames = frames;
+        }
+    }
+}
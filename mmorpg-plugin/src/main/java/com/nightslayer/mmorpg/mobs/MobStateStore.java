@@ -0,0 +1,154 @@
+package com.nightslayer.mmorpg.mobs;
+
+import com.nightslayer.mmorpg.MMORPGPlugin;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.EntitiesLoadEvent;
+import org.bukkit.event.world.EntitiesUnloadEvent;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.UUID;
+
+/**
+ * Persists custom mob state in entity PDC and restores it on load
+ *
+ * Features:
+ * - Custom mob id and level stored under one key as "level:id"
+ *   (ownership is persisted separately by EntityOwnershipRegistry)
+ * - Entities loaded with a chunk are queued and rehydrated in batches,
+ *   re-attaching abilities and nameplates without touching attributes
+ * - Dungeon and invasion mobs whose instance no longer exists are culled
+ *   when their chunk loads or unloads; loaded ones are removed by their
+ *   manager when the instance ends, so no world scan is needed
+ */
+public class MobStateStore implements Listener {
+
+    private static final String DUNGEON_OWNER = "dungeon:";
+    private static final String INVASION_OWNER = "invasion:";
+
+    private final MMORPGPlugin plugin;
+    private final MobManager mobManager;
+    private final NamespacedKey stateKey;
+    private final ArrayDeque<LivingEntity> pending;
+    private BukkitTask rehydrateTask;
+    private int batchSize;
+
+    public MobStateStore(MMORPGPlugin plugin, MobManager mobManager) {
+        this.plugin = plugin;
+        this.mobManager = mobManager;
+        this.stateKey = new NamespacedKey(plugin, "custom_mob");
+        this.pending = new ArrayDeque<>();
+    }
+
+    /**
+     * Start the rehydration task, queueing already loaded entities
+     */
+    public void start() {
+        stop();
+        batchSize = Math.max(1, plugin.getConfig().getInt("mobs.rehydrate_batch_size", 50));
+        rehydrateTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::rehydrateBatch, 1L, 1L);
+
+        for (World world : plugin.getServer().getWorlds()) {
+            pending.addAll(world.getLivingEntities());
+        }
+    }
+
+    public void stop() {
+        if (rehydrateTask != null) {
+            rehydrateTask.cancel();
+            rehydrateTask = null;
+        }
+        pending.clear();
+    }
+
+    /**
+     * Record which custom mob an entity is
+     */
+    public void write(LivingEntity entity, String mobId, int level) {
+        entity.getPersistentDataContainer().set(stateKey, PersistentDataType.STRING, level + ":" + mobId);
+    }
+
+    /**
+     * Custom mob id of an entity, or null if it is not a custom mob
+     */
+    public String getMobId(Entity entity) {
+        String state = entity.getPersistentDataContainer().get(stateKey, PersistentDataType.STRING);
+        if (state == null) return null;
+        int separator = state.indexOf(':');
+        return separator >= 0 ? state.substring(separator + 1) : null;
+    }
+
+    /**
+     * Queue custom and owned mobs as their chunks load
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntitiesLoad(EntitiesLoadEvent event) {
+        for (Entity entity : event.getEntities()) {
+            if (entity instanceof LivingEntity living) {
+                pending.add(living);
+            }
+        }
+    }
+
+    /**
+     * Cull orphans as their chunk unloads, so they are not saved with it
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntitiesUnload(EntitiesUnloadEvent event) {
+        for (Entity entity : event.getEntities()) {
+            if (entity instanceof LivingEntity living && isOrphan(living)) {
+                living.remove();
+            }
+        }
+    }
+
+    private void rehydrateBatch() {
+        for (int i = 0; i < batchSize && !pending.isEmpty(); i++) {
+            LivingEntity entity = pending.poll();
+            if (!entity.isValid()) continue;
+
+            if (isOrphan(entity)) {
+                entity.remove();
+                continue;
+            }
+
+            String state = entity.getPersistentDataContainer().get(stateKey, PersistentDataType.STRING);
+            if (state == null) continue;
+
+            int separator = state.indexOf(':');
+            if (separator <= 0) continue;
+            try {
+                int level = Integer.parseInt(state, 0, separator, 10);
+                mobManager.rehydrate(entity, state.substring(separator + 1), level);
+            } catch (NumberFormatException e) {
+                plugin.getLogger().warning("Corrupt custom mob state '" + state + "' on entity " + entity.getUniqueId());
+            }
+        }
+    }
+
+    private boolean isOrphan(LivingEntity entity) {
+        String owner = plugin.getEntityOwnershipRegistry().getOwner(entity);
+        if (owner == null) return false;
+
+        if (owner.startsWith(DUNGEON_OWNER)) {
+            if (plugin.getDungeonManager() == null) return false;
+            try {
+                UUID instanceId = UUID.fromString(owner.substring(DUNGEON_OWNER.length()));
+                return !plugin.getDungeonManager().isInstanceActive(instanceId);
+            } catch (IllegalArgumentException e) {
+                return true;
+            }
+        }
+        if (owner.startsWith(INVASION_OWNER)) {
+            return plugin.getInvasionManager() != null && !plugin.getInvasionManager().isActiveOwner(owner);
+        }
+        return false;
+    }
+}
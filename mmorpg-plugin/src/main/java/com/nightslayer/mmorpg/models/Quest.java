@@ -1,29 +1,59 @@
 package com.nightslayer.mmorpg.models;
 
+import com.nightslayer.mmorpg.quests.QuestObjective;
+import com.nightslayer.mmorpg.quests.QuestReward;
+
+import java.util.List;
+
+/**
+ * Immutable quest definition, built by QuestRegistry
+ *
+ * The objectives are templates: progress is tracked on copies, never on
+ * these instances.
+ */
 public class Quest {
-    private int id;
-    private String name;
-    private String description;
-    private int minLevel;
-    private String type;
-    private int coinReward;
-    private int expReward;
-    
-    public Quest(int id, String name, String description, int minLevel, String type, int coinReward, int expReward) {
+    private final String id;
+    private final int index;
+    private final String name;
+    private final String description;
+    private final int minLevel;
+    private final int maxLevel;
+    private final String type;
+    private final List<QuestObjective> objectives;
+    private final QuestReward reward;
+    private final List<String> prerequisites;
+
+    public Quest(String id, int index, String name, String description, int minLevel, int maxLevel, String type,
+                 List<QuestObjective> objectives, QuestReward reward, List<String> prerequisites) {
         this.id = id;
+        this.index = index;
         this.name = name;
         this.description = description;
         this.minLevel = minLevel;
+        this.maxLevel = maxLevel;
         this.type = type;
-        this.coinReward = coinReward;
-        this.expReward = expReward;
+        this.objectives = List.copyOf(objectives);
+        this.reward = reward;
+        this.prerequisites = List.copyOf(prerequisites);
     }
-    
-    public int getId() { return id; }
+
+    public String getId() { return id; }
+    /** Dense index in the registry; prerequisites always have a lower index */
+    public int getIndex() { return index; }
     public String getName() { return name; }
     public String getDescription() { return description; }
     public int getMinLevel() { return minLevel; }
+    /** Highest level the quest is offered at, or 0 for no limit */
+    public int getMaxLevel() { return maxLevel; }
     public String getType() { return type; }
-    public int getCoinReward() { return coinReward; }
-    public int getExpReward() { return expReward; }
+    public List<QuestObjective> getObjectives() { return objectives; }
+    public QuestReward getReward() { return reward; }
+    /** Ids of the quests that must be completed first */
+    public List<String> getPrerequisites() { return prerequisites; }
+    public int getCoinReward() { return reward.getCoins(); }
+    public int getExpReward() { return reward.getExperience(); }
+
+    public boolean isInLevelRange(int level) {
+        return level >= minLevel && (maxLevel <= 0 || level <= maxLevel);
+    }
 }
@@ -2,16 +2,15 @@ package com.nightslayer.mmorpg.npcs;
 
 import com.nightslayer.mmorpg.MMORPGPlugin;
 import com.nightslayer.mmorpg.economy.EconomyManager;
-import com.nightslayer.mmorpg.utils.ItemBuilder;
+import com.nightslayer.mmorpg.gui.GuiTemplate;
+import com.nightslayer.mmorpg.gui.PagedGuiView;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextDecoration;
-import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
-import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.Sound;
 import org.bukkit.entity.Player;
-import org.bukkit.inventory.Inventory;
+import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.*;
@@ -26,6 +25,11 @@ public class NPCTrade {
     private final List<TradeOffer> offers;
     private final EconomyManager economyManager;
     private final MMORPGPlugin plugin;
+    private GuiTemplate template;
+    private int templateOfferCount;
+    private int[] contentSlots;
+    private int previousSlot;
+    private int nextSlot;
     
     public NPCTrade(String tradeId, String npcName, EconomyManager economyManager, MMORPGPlugin plugin) {
         this.tradeId = tradeId;
@@ -51,22 +55,58 @@ public class NPCTrade {
             return;
         }
         
-        // Create inventory with size based on offers (multiple of 9)
-        int size = Math.min(54, ((offers.size() / 9) + 1) * 9);
-        Inventory tradeInv = Bukkit.createInventory(null, size, 
-                Component.text("Tienda de " + npcName, NamedTextColor.DARK_PURPLE, TextDecoration.BOLD));
+        new TradeView(getTemplate()).open(player);
+        player.playSound(player.getLocation(), Sound.BLOCK_CHEST_OPEN, 1.0f, 1.0f);
+    }
+    
+    /**
+     * Template for the current number of offers; one page when they fit,
+     * otherwise 45 offers per page above a navigation row
+     */
+    private GuiTemplate getTemplate() {
+        if (template != null && templateOfferCount == offers.size()) {
+            return template;
+        }
         
-        // Populate with offers
-        int slot = 0;
-        for (TradeOffer offer : offers) {
-            if (slot >= size) break;
-            
-            ItemStack displayItem = offer.getDisplayItem().clone();
-            
+        Component title = Component.text("Tienda de " + npcName, NamedTextColor.DARK_PURPLE, TextDecoration.BOLD);
+        if (offers.size() <= 54) {
+            int size = Math.max(9, (offers.size() + 8) / 9 * 9);
+            template = GuiTemplate.builder(size, title).build();
+            contentSlots = new int[size];
+            previousSlot = -1;
+            nextSlot = -1;
+        } else {
+            GuiTemplate.Builder builder = GuiTemplate.builder(54, title);
+            ItemStack border = new ItemStack(Material.GRAY_STAINED_GLASS_PANE);
+            for (int slot = 45; slot < 54; slot++) {
+                builder.set(slot, border);
+            }
+            template = builder.build();
+            contentSlots = new int[45];
+            previousSlot = 45;
+            nextSlot = 53;
+        }
+        for (int i = 0; i < contentSlots.length; i++) {
+            contentSlots[i] = i;
+        }
+        templateOfferCount = offers.size();
+        return template;
+    }
+    
+    /**
+     * Display item with price and stock, rebuilt only when the stock changed
+     */
+    private ItemStack getIcon(TradeOffer offer) {
+        if (offer.icon != null && offer.iconStock == offer.getStock()) {
+            return offer.icon;
+        }
+        
+        ItemStack displayItem = offer.getDisplayItem().clone();
+        displayItem.editMeta(meta -> {
             // Add lore with price and stock
-                List<Component> lore = new ArrayList<>();
-                lore.add(Component.text(""));
-                lore.add(Component.text("Precio: ", NamedTextColor.GRAY)
+            List<Component> lore = new ArrayList<>();
+            lore.add(Component.text(""));
+            lore.add(Component.text("Precio: ", NamedTextColor.GRAY)
                     .append(Component.text(offer.getPrice() + " coins", NamedTextColor.GOLD)));
             
             if (offer.getStock() > 0) {
@@ -79,24 +119,46 @@ public class NPCTrade {
                         .append(Component.text("Ilimitado", NamedTextColor.AQUA)));
             }
             
-                lore.add(Component.text(""));
-                lore.add(Component.text("Click izquierdo para comprar", NamedTextColor.YELLOW));
-            
-            // Build item with lore
-                List<String> legacyLore = new ArrayList<>();
-                for (Component line : lore) {
-                legacyLore.add(PlainTextComponentSerializer.plainText().serialize(line));
-                }
-                ItemStack finalItem = new ItemBuilder(displayItem, plugin)
-                    .setLore(legacyLore)
-                    .build();
-            
-            tradeInv.setItem(slot, finalItem);
-            slot++;
+            lore.add(Component.text(""));
+            lore.add(Component.text("Click izquierdo para comprar", NamedTextColor.YELLOW));
+            meta.lore(lore);
+        });
+        
+        offer.icon = displayItem;
+        offer.iconStock = offer.getStock();
+        return displayItem;
+    }
+    
+    /**
+     * One player's view of this shop
+     */
+    private class TradeView extends PagedGuiView<TradeOffer> {
+        
+        TradeView(GuiTemplate template) {
+            super(template, contentSlots, previousSlot, nextSlot);
         }
         
-        player.openInventory(tradeInv);
-        player.playSound(player.getLocation(), Sound.BLOCK_CHEST_OPEN, 1.0f, 1.0f);
+        @Override
+        protected int getEntryCount() {
+            return offers.size();
+        }
+        
+        @Override
+        protected TradeOffer getEntry(int index) {
+            return offers.get(index);
+        }
+        
+        @Override
+        protected ItemStack renderEntry(TradeOffer offer, int index) {
+            return getIcon(offer);
+        }
+        
+        @Override
+        protected void onEntryClick(InventoryClickEvent event, TradeOffer offer, int index) {
+            if (event.isLeftClick() && purchase((Player) event.getWhoClicked(), index)) {
+                refresh();
+            }
+        }
     }
     
     /**
@@ -199,6 +261,8 @@ public class NPCTrade {
         private final ItemStack displayItem;
         private final int price;
         private int stock; // -1 for unlimited
+        private ItemStack icon;
+        private int iconStock;
         
         public TradeOffer(ItemStack item, int price) {
             this(item, price, -1);
@@ -0,0 +1,218 @@
+package com.nightslayer.mmorpg.pets;
+
+import com.nightslayer.mmorpg.MMORPGPlugin;
+import org.bukkit.Location;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Mob;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.Sittable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Arrays;
+
+/**
+ * Moves every summoned pet towards its owner from one task
+ *
+ * Features:
+ * - Pets and owners live in flat arrays; removal swaps the last slot in
+ * - Updates are staggered: each tick handles the next 1/interval of the
+ *   pets, so every pet is visited once per update interval
+ * - Only distance squared is computed per visit; pathfinding is issued when
+ *   a pet falls behind (or its owner moved away from the last path target)
+ *   and stopped once it is close again, teleporting only past a far threshold
+ *   or across worlds
+ * - Pets in unloaded chunks, sitting or carrying a rider are skipped
+ */
+public class PetController {
+
+    private final MMORPGPlugin plugin;
+    private final Location petScratch;
+    private final Location ownerScratch;
+
+    // Slot data
+    private LivingEntity[] pets;
+    private Player[] owners;
+    private boolean[] following;
+    private double[] targetX;
+    private double[] targetY;
+    private double[] targetZ;
+    private int count;
+    private int cursor;
+
+    private BukkitTask task;
+    private int updateInterval;
+    private double followDistanceSq;
+    private double stopDistanceSq;
+    private double teleportDistanceSq;
+    private double repathDistanceSq;
+    private double followSpeed;
+
+    public PetController(MMORPGPlugin plugin) {
+        this.plugin = plugin;
+        this.petScratch = new Location(null, 0, 0, 0);
+        this.ownerScratch = new Location(null, 0, 0, 0);
+        this.pets = new LivingEntity[16];
+        this.owners = new Player[16];
+        this.following = new boolean[16];
+        this.targetX = new double[16];
+        this.targetY = new double[16];
+        this.targetZ = new double[16];
+    }
+
+    /**
+     * Start the controller task with the configured thresholds
+     */
+    public void start() {
+        stop();
+        updateInterval = Math.max(1, plugin.getConfig().getInt("pets.update_interval_ticks", 5));
+        double follow = plugin.getConfig().getDouble("pets.follow_distance", 6.0);
+        double stop = Math.min(follow, plugin.getConfig().getDouble("pets.stop_distance", 3.0));
+        double teleport = Math.max(follow, plugin.getConfig().getDouble("pets.teleport_distance", 24.0));
+        followDistanceSq = follow * follow;
+        stopDistanceSq = stop * stop;
+        teleportDistanceSq = teleport * teleport;
+        repathDistanceSq = stop * stop;
+        followSpeed = plugin.getConfig().getDouble("pets.follow_speed", 1.2);
+        task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Start controlling a summoned pet
+     */
+    public void track(Player owner, LivingEntity pet) {
+        untrack(pet);
+        if (count == pets.length) {
+            grow();
+        }
+        pets[count] = pet;
+        owners[count] = owner;
+        following[count] = false;
+        count++;
+    }
+
+    /**
+     * Stop controlling a pet (despawned or abandoned)
+     */
+    public void untrack(LivingEntity pet) {
+        for (int i = 0; i < count; i++) {
+            if (pets[i] == pet) {
+                remove(i);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Number of pets currently controlled
+     */
+    public int getTrackedCount() {
+        return count;
+    }
+
+    private void tick() {
+        if (count == 0) return;
+
+        int batch = (count + updateInterval - 1) / updateInterval;
+        for (int i = 0; i < batch && count > 0; i++) {
+            if (cursor >= count) {
+                cursor = 0;
+            }
+            // update() may swap the last slot into this one; it is visited on the next pass
+            if (update(cursor)) {
+                cursor++;
+            }
+        }
+    }
+
+    /**
+     * @return false if the slot was removed
+     */
+    private boolean update(int slot) {
+        LivingEntity pet = pets[slot];
+        Player owner = owners[slot];
+        if (pet.isDead() || !owner.isOnline()) {
+            remove(slot);
+            return false;
+        }
+        if (!pet.isValid()) return true; // Chunk unloaded, check again next pass
+        if (!pet.isEmpty() || (pet instanceof Sittable sittable && sittable.isSitting())) return true;
+
+        pet.getLocation(petScratch);
+        owner.getLocation(ownerScratch);
+        if (petScratch.getWorld() != ownerScratch.getWorld()) {
+            teleport(slot, pet);
+            return true;
+        }
+
+        double distanceSq = petScratch.distanceSquared(ownerScratch);
+        if (distanceSq > teleportDistanceSq) {
+            teleport(slot, pet);
+        } else if (distanceSq > followDistanceSq) {
+            if (!following[slot] || ownerMovedFromTarget(slot)) {
+                moveTowardsOwner(slot, pet, owner);
+            }
+        } else if (following[slot] && distanceSq <= stopDistanceSq) {
+            following[slot] = false;
+            if (pet instanceof Mob mob) {
+                mob.getPathfinder().stopPathfinding();
+            }
+        }
+        return true;
+    }
+
+    private boolean ownerMovedFromTarget(int slot) {
+        double dx = ownerScratch.getX() - targetX[slot];
+        double dy = ownerScratch.getY() - targetY[slot];
+        double dz = ownerScratch.getZ() - targetZ[slot];
+        return dx * dx + dy * dy + dz * dz > repathDistanceSq;
+    }
+
+    private void moveTowardsOwner(int slot, LivingEntity pet, Player owner) {
+        if (!(pet instanceof Mob mob)) {
+            // No pathfinder (e.g. armor stands): fall back to teleporting
+            teleport(slot, pet);
+            return;
+        }
+        following[slot] = mob.getPathfinder().moveTo(owner, followSpeed);
+        targetX[slot] = ownerScratch.getX();
+        targetY[slot] = ownerScratch.getY();
+        targetZ[slot] = ownerScratch.getZ();
+    }
+
+    private void teleport(int slot, LivingEntity pet) {
+        following[slot] = false;
+        if (pet instanceof Mob mob) {
+            mob.getPathfinder().stopPathfinding();
+        }
+        pet.teleport(ownerScratch);
+    }
+
+    private void remove(int slot) {
+        count--;
+        pets[slot] = pets[count];
+        owners[slot] = owners[count];
+        following[slot] = following[count];
+        targetX[slot] = targetX[count];
+        targetY[slot] = targetY[count];
+        targetZ[slot] = targetZ[count];
+        pets[count] = null;
+        owners[count] = null;
+    }
+
+    private void grow() {
+        int size = pets.length * 2;
+        pets = Arrays.copyOf(pets, size);
+        owners = Arrays.copyOf(owners, size);
+        following = Arrays.copyOf(following, size);
+        targetX = Arrays.copyOf(targetX, size);
+        targetY = Arrays.copyOf(targetY, size);
+        targetZ = Arrays.copyOf(targetZ, size);
+    }
+}
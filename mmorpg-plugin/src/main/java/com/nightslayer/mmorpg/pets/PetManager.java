@@ -7,6 +7,10 @@ import org.bukkit.entity.EntityType;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.entity.Tameable;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
 
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -23,19 +27,38 @@ import java.util.logging.Level;
  * - Pet training and leveling
  * - Mount functionality
  * - Pet abilities
+ * - Summoned pets follow their owner through one shared PetController task
+ *   and are despawned when the owner leaves
  */
-public class PetManager {
+public class PetManager implements Listener {
     
     private final DatabaseManager dbManager;
     private final LanguageManager langManager;
     private final Map<String, PetDefinition> petDefinitions;
     private final Map<UUID, LivingEntity> activePets; // player UUID -> pet entity
+    private final PetController controller;
     
-    public PetManager(DatabaseManager dbManager, LanguageManager langManager) {
+    public PetManager(DatabaseManager dbManager, LanguageManager langManager, PetController controller) {
         this.dbManager = dbManager;
         this.langManager = langManager;
         this.petDefinitions = new HashMap<>();
         this.activePets = new HashMap<>();
+        this.controller = controller;
+        controller.start();
+    }
+    
+    /**
+     * Stop the controller and remove every summoned pet
+     */
+    public void shutdown() {
+        controller.stop();
+        for (LivingEntity pet : activePets.values()) {
+            controller.untrack(pet);
+            if (!pet.isDead()) {
+                pet.remove();
+            }
+        }
+        activePets.clear();
     }
     
     /**
@@ -84,27 +107,27 @@ public class PetManager {
     public boolean adoptPet(Player player, String petId) {
         PetDefinition petDef = petDefinitions.get(petId);
         if (petDef == null) {
-            player.sendMessage(langManager.getMessage("pet.not_found"));
+            player.sendMessage(langManager.getMessage(player, "pet.not_found"));
             return false;
         }
         
         // Check player level
         int playerLevel = getPlayerLevel(player);
         if (playerLevel < petDef.getUnlockLevel()) {
-            player.sendMessage(langManager.getMessage("pet.level_too_low", petDef.getUnlockLevel()));
+            player.sendMessage(langManager.getMessage(player, "pet.level_too_low", petDef.getUnlockLevel()));
             return false;
         }
         
         // Check if player already owns this pet
         if (hasPlayerPet(player, petId)) {
-            player.sendMessage(langManager.getMessage("pet.already_owned"));
+            player.sendMessage(langManager.getMessage(player, "pet.already_owned"));
             return false;
         }
         
         // Check balance
         int balance = getPlayerBalance(player);
         if (balance < petDef.getCoinCost()) {
-            player.sendMessage(langManager.getMessage("pet.insufficient_coins"));
+            player.sendMessage(langManager.getMessage(player, "pet.insufficient_coins"));
             return false;
         }
         
@@ -120,7 +143,7 @@ public class PetManager {
             stmt.setString(3, petDef.getName());
             stmt.executeUpdate();
             
-            player.sendMessage(langManager.getMessage("pet.adopted", petDef.getName()));
+            player.sendMessage(langManager.getMessage(player, "pet.adopted", petDef.getName()));
             return true;
             
         } catch (SQLException e) {
@@ -145,7 +168,7 @@ public class PetManager {
             int rows = stmt.executeUpdate();
             
             if (rows > 0) {
-                player.sendMessage(langManager.getMessage("pet.abandoned"));
+                player.sendMessage(langManager.getMessage(player, "pet.abandoned"));
                 return true;
             }
             
@@ -170,7 +193,7 @@ public class PetManager {
         
         // Check if player owns this pet
         if (!hasPlayerPet(player, petId)) {
-            player.sendMessage(langManager.getMessage("pet.not_owned"));
+            player.sendMessage(langManager.getMessage(player, "pet.not_owned"));
             return false;
         }
         
@@ -204,7 +227,8 @@ public class PetManager {
         }
         
         activePets.put(player.getUniqueId(), entity);
-        player.sendMessage(langManager.getMessage("pet.summoned", petDef.getName()));
+        controller.track(player, entity);
+        player.sendMessage(langManager.getMessage(player, "pet.summoned", petDef.getName()));
         
         return true;
     }
@@ -214,11 +238,23 @@ public class PetManager {
      */
     public void despawnPet(Player player) {
         LivingEntity pet = activePets.remove(player.getUniqueId());
-        if (pet != null && !pet.isDead()) {
+        if (pet == null) return;
+        
+        controller.untrack(pet);
+        if (!pet.isDead()) {
             pet.remove();
         }
     }
     
+    public PetController getController() {
+        return controller;
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        despawnPet(event.getPlayer());
+    }
+    
     /**
      * Get player's active pet
      */
@@ -286,7 +322,7 @@ public class PetManager {
             
             PetDefinition petDef = petDefinitions.get(petId);
             if (petDef != null) {
-                player.sendMessage(langManager.getMessage("pet.level_up", 
+                player.sendMessage(langManager.getMessage(player, "pet.level_up", 
                     petDef.getName(), newLevel));
             }
             
@@ -3,127 +3,310 @@ package com.nightslayer.mmorpg.quests;
 import com.nightslayer.mmorpg.MMORPGPlugin;
 import com.nightslayer.mmorpg.database.DatabaseManager;
 import com.nightslayer.mmorpg.models.Quest;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.bukkit.Bukkit;
+import org.bukkit.Sound;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 
 import java.sql.ResultSet;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.logging.Level;
 
-public class QuestManager {
+/**
+ * Quest definitions and the quest state of online players
+ *
+ * Features:
+ * - Definitions compiled into an immutable QuestRegistry
+ * - Each online player's active quests (with per-objective progress) and
+ *   completed quest ids held in memory, loaded once at join
+ * - Every change goes through a coalescing QuestWriteQueue, so objective
+ *   ticks never write to the database directly
+ * - Available quests answered from memory with the registry's level and
+ *   prerequisite indexes
+ */
+public class QuestManager implements Listener {
     private final MMORPGPlugin plugin;
     private final DatabaseManager db;
-    private final Map<Integer, Quest> quests;
+    private final QuestWriteQueue writeQueue;
+    private final Map<UUID, PlayerQuests> players;
+    private volatile QuestRegistry registry;
     
     public QuestManager(MMORPGPlugin plugin) {
         this.plugin = plugin;
         this.db = plugin.getDatabaseManager();
-        this.quests = new HashMap<>();
+        this.writeQueue = new QuestWriteQueue(plugin, db);
+        this.players = new HashMap<>();
+        this.registry = QuestRegistry.EMPTY;
         loadQuests();
     }
     
-    private void loadQuests() {
+    /**
+     * Start the write queue and load players already online (plugin reloads)
+     */
+    public void start() {
+        writeQueue.start(plugin.getConfig().getLong("quests.save_interval_seconds", 30L) * 20L);
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            players.put(player.getUniqueId(), loadPlayer(player.getUniqueId()));
+        }
+    }
+    
+    /**
+     * Write all pending quest state
+     */
+    public void stop() {
+        writeQueue.stop();
+    }
+    
+    /**
+     * Compile every enabled quest into a new registry; malformed rows are
+     * skipped with a warning and the previous registry stays in use on errors
+     */
+    public void loadQuests() {
         String sql = "SELECT * FROM quests WHERE enabled = 1";
+        QuestRegistry.Builder builder = new QuestRegistry.Builder();
         try (ResultSet rs = db.executeQuery(sql)) {
-            while (rs.next()) {
-                int id = parseQuestId(rs.getString("id"));
-                String name = rs.getString("name");
-                String description = rs.getString("description");
-                int minLevel = rs.getInt("min_level");
-                String type = rs.getString("difficulty");
-                int coinReward = 0;
-                int expReward = 0;
-                
-                Quest quest = new Quest(id, name, description, minLevel, type, coinReward, expReward);
-                quests.put(id, quest);
+            while (rs != null && rs.next()) {
+                String id = rs.getString("id");
+                try {
+                    builder.add(id, rs.getString("name"), rs.getString("description"), rs.getString("difficulty"),
+                        rs.getInt("min_level"), rs.getInt("max_level"), rs.getString("objectives_json"),
+                        rs.getString("rewards_json"), rs.getString("requirements_json"));
+                } catch (IllegalArgumentException | IllegalStateException e) {
+                    plugin.getLogger().warning("Skipping quest " + id + ": " + e.getMessage());
+                }
             }
-            plugin.getLogger().info("Loaded " + quests.size() + " quests");
         } catch (Exception e) {
             plugin.getLogger().log(Level.SEVERE, "Error loading quests", e);
+            return;
         }
+        registry = builder.build(plugin.getLogger());
+        plugin.getLogger().info("Loaded " + registry.size() + " quests");
+    }
+    
+    public QuestRegistry getRegistry() {
+        return registry;
     }
     
-    public Quest getQuest(int id) {
-        return quests.get(id);
+    public Quest getQuest(String id) {
+        return registry.get(id);
     }
 
-    public Quest getQuestById(int id) {
+    public Quest getQuestById(String id) {
         return getQuest(id);
     }
 
     public Collection<Quest> getAllQuests() {
-        return quests.values();
+        return registry.getAll();
     }
-    
-    public boolean acceptQuest(UUID playerId, int questId) {
-        String sql = "INSERT INTO player_quests (player_uuid, quest_id, status, progress) VALUES (?, ?, 'active', 0)";
-        return db.executeUpdate(sql, playerId.toString(), questId) > 0;
+
+    /**
+     * Start a quest if it is available to the player right now
+     */
+    public boolean startQuest(Player player, String questId) {
+        PlayerQuests state = players.get(player.getUniqueId());
+        QuestRegistry quests = registry;
+        Quest quest = quests.get(questId);
+        if (state == null || quest == null) {
+            return false;
+        }
+        
+        int maxActive = plugin.getConfig().getInt("quests.max_active_quests", 5);
+        if (maxActive > 0 && state.active.size() >= maxActive) {
+            return false;
+        }
+        if (!quests.isAvailable(quest, getPlayerLevel(player), state.getCompleted(quests), state.getActive(quests))) {
+            return false;
+        }
+        
+        QuestProgress progress = QuestProgress.start(quest, System.currentTimeMillis());
+        state.active.put(questId, progress);
+        state.invalidate();
+        writeQueue.save(player.getUniqueId(), progress);
+        return true;
     }
-    
-    public boolean completeQuest(UUID playerId, int questId) {
-        String sql = "UPDATE player_quests SET status = 'completed', completed_at = CURRENT_TIMESTAMP WHERE player_uuid = ? AND quest_id = ?";
-        return db.executeUpdate(sql, playerId.toString(), questId) > 0;
+
+    public boolean abandonQuest(UUID playerId, String questId) {
+        PlayerQuests state = players.get(playerId);
+        if (state == null || state.active.remove(questId) == null) {
+            return false;
+        }
+        state.invalidate();
+        writeQueue.delete(playerId, questId);
+        return true;
     }
 
-    public boolean startQuest(Player player, int questId) {
-        return acceptQuest(player.getUniqueId(), questId);
+    /**
+     * Advance the player's active quests; quests whose objectives are all done
+     * are completed and rewarded
+     *
+     * @param target Entity type, material or NPC name the action was performed on
+     */
+    public void addProgress(Player player, QuestObjective.ObjectiveType type, String target, int amount) {
+        PlayerQuests state = players.get(player.getUniqueId());
+        if (state == null || state.active.isEmpty()) {
+            return;
+        }
+        
+        List<QuestProgress> finished = null;
+        for (QuestProgress progress : state.active.values()) {
+            if (!progress.addProgress(type, target, amount)) continue;
+            
+            writeQueue.save(player.getUniqueId(), progress);
+            if (progress.isReadyToComplete()) {
+                if (finished == null) finished = new ArrayList<>(1);
+                finished.add(progress);
+            }
+        }
+        
+        if (finished != null) {
+            for (QuestProgress progress : finished) {
+                completeQuest(player, state, progress);
+            }
+        }
     }
 
-    public boolean abandonQuest(UUID playerId, int questId) {
-        String sql = "DELETE FROM player_quests WHERE player_uuid = ? AND quest_id = ?";
-        return db.executeUpdate(sql, playerId.toString(), questId) > 0;
+    private void completeQuest(Player player, PlayerQuests state, QuestProgress progress) {
+        Quest quest = progress.getQuest();
+        progress.complete(System.currentTimeMillis());
+        state.active.remove(quest.getId());
+        state.completed.add(quest.getId());
+        state.invalidate();
+        // Stored before the rewards, so a crash cannot reload the quest as active and reward it twice
+        writeQueue.saveNow(player.getUniqueId(), progress);
+        
+        player.sendMessage(Component.text("✓ ", NamedTextColor.GREEN, TextDecoration.BOLD)
+                .append(Component.text("Quest completada: ", NamedTextColor.GREEN))
+                .append(Component.text(quest.getName(), NamedTextColor.GOLD, TextDecoration.BOLD)));
+        player.playSound(player.getLocation(), Sound.UI_TOAST_CHALLENGE_COMPLETE, 1.0f, 1.0f);
+        quest.getReward().giveRewards(player, plugin.getEconomyManager());
     }
 
+    /**
+     * Active quests of an online player, in the order they were started
+     */
     public List<Quest> getActiveQuests(UUID playerId) {
-        List<Quest> active = new ArrayList<>();
-        String sql = "SELECT quest_id FROM player_quests WHERE player_uuid = ? AND status = 'active'";
-        try (ResultSet rs = db.executeQuery(sql, playerId.toString())) {
-            while (rs != null && rs.next()) {
-                int questId = rs.getInt("quest_id");
-                Quest quest = quests.get(questId);
-                if (quest != null) {
-                    active.add(quest);
-                }
-            }
-        } catch (Exception e) {
-            plugin.getLogger().log(Level.SEVERE, "Error loading active quests", e);
+        PlayerQuests state = players.get(playerId);
+        if (state == null) {
+            return List.of();
+        }
+        List<Quest> active = new ArrayList<>(state.active.size());
+        for (QuestProgress progress : state.active.values()) {
+            active.add(progress.getQuest());
         }
         return active;
     }
 
-    public int getQuestProgress(UUID playerId, int questId) {
-        String sql = "SELECT progress FROM player_quests WHERE player_uuid = ? AND quest_id = ?";
-        try (ResultSet rs = db.executeQuery(sql, playerId.toString(), questId)) {
-            if (rs != null && rs.next()) {
-                return rs.getInt("progress");
-            }
-        } catch (Exception e) {
-            plugin.getLogger().log(Level.SEVERE, "Error loading quest progress", e);
-        }
-        return 0;
+    /**
+     * Progress of every active quest of an online player, in the order they were started
+     */
+    public Collection<QuestProgress> getActiveProgress(UUID playerId) {
+        PlayerQuests state = players.get(playerId);
+        return state != null ? state.active.values() : List.of();
+    }
+
+    /**
+     * Progress of an online player's active quest, or null
+     */
+    public QuestProgress getProgress(UUID playerId, String questId) {
+        PlayerQuests state = players.get(playerId);
+        return state != null ? state.active.get(questId) : null;
+    }
+
+    /**
+     * Overall progress (0-100) of an active quest
+     */
+    public int getQuestProgress(UUID playerId, String questId) {
+        QuestProgress progress = getProgress(playerId, questId);
+        return progress != null ? progress.getProgressPercentage() : 0;
+    }
+
+    public boolean hasCompleted(UUID playerId, String questId) {
+        PlayerQuests state = players.get(playerId);
+        return state != null && state.completed.contains(questId);
     }
 
+    /**
+     * Quests the player could start, from the registry's level index filtered
+     * by the player's in-memory active and completed sets
+     */
     public List<Quest> getAvailableQuests(Player player) {
-        int playerLevel = getPlayerLevel(player.getUniqueId());
-        List<Quest> available = new ArrayList<>();
-        List<Quest> active = getActiveQuests(player.getUniqueId());
+        PlayerQuests state = players.get(player.getUniqueId());
+        if (state == null) {
+            return List.of();
+        }
+        QuestRegistry quests = registry;
+        return quests.getAvailable(getPlayerLevel(player), state.getCompleted(quests), state.getActive(quests));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        UUID playerId = event.getPlayer().getUniqueId();
+        players.put(playerId, loadPlayer(playerId));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        // Pending writes keep their own reference to the progress
+        players.remove(event.getPlayer().getUniqueId());
+    }
+
+    private PlayerQuests loadPlayer(UUID playerId) {
+        // A quick rejoin must not read rows that are still queued
+        writeQueue.flush(playerId);
         
-        for (Quest quest : quests.values()) {
-            if (quest.getMinLevel() <= playerLevel && !active.contains(quest)) {
-                available.add(quest);
+        QuestRegistry quests = registry;
+        PlayerQuests state = new PlayerQuests();
+        String sql = "SELECT quest_id, status, objectives_json, started_at FROM player_quests WHERE player_uuid = ?";
+        try (ResultSet rs = db.executeQuery(sql, playerId.toString())) {
+            while (rs != null && rs.next()) {
+                String questId = rs.getString("quest_id");
+                String status = rs.getString("status");
+                if (QuestProgress.Status.COMPLETED.getDatabaseValue().equals(status)) {
+                    state.completed.add(questId);
+                    continue;
+                }
+                
+                Quest quest = quests.get(questId);
+                if (quest == null || !QuestProgress.Status.ACTIVE.getDatabaseValue().equals(status)) continue;
+                try {
+                    state.active.put(questId, QuestProgress.restore(quest, rs.getString("objectives_json"),
+                        rs.getLong("started_at")));
+                } catch (RuntimeException e) {
+                    // One bad row must not abort the loop and leave a partial completed set
+                    plugin.getLogger().warning("Resetting progress of quest " + questId + " for " + playerId + ": " + e.getMessage());
+                    state.active.put(questId, QuestProgress.start(quest, rs.getLong("started_at")));
+                }
             }
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Error loading quests of " + playerId, e);
         }
-        
-        return available;
+        return state;
     }
 
-    private int getPlayerLevel(UUID playerId) {
+    private int getPlayerLevel(Player player) {
+        int level = plugin.getPlayerLevelIndex().getLevel(player);
+        if (level >= 0) {
+            return level;
+        }
+        
         String sql = "SELECT level FROM players WHERE uuid = ?";
-        try (ResultSet rs = db.executeQuery(sql, playerId.toString())) {
+        try (ResultSet rs = db.executeQuery(sql, player.getUniqueId().toString())) {
             if (rs != null && rs.next()) {
                 return rs.getInt("level");
             }
@@ -133,14 +316,48 @@ public class QuestManager {
         return 1;
     }
 
-    private int parseQuestId(String idValue) {
-        if (idValue == null) {
-            return 0;
+    /**
+     * Quest state of one online player; the bitsets are derived from the id
+     * sets per registry and rebuilt only after a change or a reload
+     */
+    private static class PlayerQuests {
+        final Map<String, QuestProgress> active = new LinkedHashMap<>();
+        final Set<String> completed = new HashSet<>();
+        private QuestRegistry indexedBy;
+        private BitSet completedBits;
+        private BitSet activeBits;
+
+        BitSet getCompleted(QuestRegistry quests) {
+            index(quests);
+            return completedBits;
+        }
+
+        BitSet getActive(QuestRegistry quests) {
+            index(quests);
+            return activeBits;
         }
-        try {
-            return Integer.parseInt(idValue);
-        } catch (NumberFormatException ex) {
-            return 0;
+
+        void invalidate() {
+            indexedBy = null;
+        }
+
+        private void index(QuestRegistry quests) {
+            if (indexedBy == quests) return;
+
+            completedBits = toBits(quests, completed);
+            activeBits = toBits(quests, active.keySet());
+            indexedBy = quests;
+        }
+
+        private static BitSet toBits(QuestRegistry quests, Collection<String> ids) {
+            BitSet bits = new BitSet(quests.size());
+            for (String id : ids) {
+                Quest quest = quests.get(id);
+                if (quest != null) {
+                    bits.set(quest.getIndex());
+                }
+            }
+            return bits;
         }
     }
 }
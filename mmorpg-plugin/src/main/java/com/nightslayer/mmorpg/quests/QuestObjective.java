@@ -78,6 +78,13 @@ public class QuestObjective {
         return target.equalsIgnoreCase(targetToCheck);
     }
     
+    /**
+     * Fresh copy of this objective with no progress, for tracking one player's quest
+     */
+    public QuestObjective copy() {
+        return new QuestObjective(objectiveId, type, target, required, description);
+    }
+    
     /**
      * Resets the objective progress
      */
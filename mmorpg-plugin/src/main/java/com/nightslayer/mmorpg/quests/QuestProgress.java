@@ -0,0 +1,170 @@
+package com.nightslayer.mmorpg.quests;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.nightslayer.mmorpg.models.Quest;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One player's progress through one quest
+ *
+ * Features:
+ * - Objectives are private copies of the quest's templates, so several
+ *   objectives advance independently
+ * - ACTIVE until every objective is done, then COMPLETED with a timestamp
+ * - Objective progress round-trips through player_quests.objectives_json
+ *   as {"objective_id": current}
+ */
+public class QuestProgress {
+
+    public enum Status {
+        ACTIVE, COMPLETED;
+
+        public String getDatabaseValue() {
+            return name().toLowerCase();
+        }
+    }
+
+    private final Quest quest;
+    private final QuestObjective[] objectives;
+    private final long startedAt;
+    private Status status;
+    private long completedAt;
+
+    private QuestProgress(Quest quest, long startedAt) {
+        this.quest = quest;
+        List<QuestObjective> templates = quest.getObjectives();
+        this.objectives = new QuestObjective[templates.size()];
+        for (int i = 0; i < objectives.length; i++) {
+            objectives[i] = templates.get(i).copy();
+        }
+        this.startedAt = startedAt;
+        this.status = Status.ACTIVE;
+    }
+
+    public static QuestProgress start(Quest quest, long now) {
+        return new QuestProgress(quest, now);
+    }
+
+    /**
+     * Rebuild progress from a player_quests row; unknown objective ids are ignored
+     */
+    public static QuestProgress restore(Quest quest, String objectivesJson, long startedAt) {
+        QuestProgress progress = new QuestProgress(quest, startedAt);
+        if (objectivesJson == null || objectivesJson.isBlank()) {
+            return progress;
+        }
+
+        JsonElement root;
+        try {
+            root = JsonParser.parseString(objectivesJson);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed objective progress: " + e.getMessage(), e);
+        }
+        if (!root.isJsonObject()) {
+            throw new IllegalArgumentException("Objective progress must be an object");
+        }
+        for (Map.Entry<String, JsonElement> entry : root.getAsJsonObject().entrySet()) {
+            JsonElement value = entry.getValue();
+            if (!value.isJsonPrimitive() || !value.getAsJsonPrimitive().isNumber()) {
+                throw new IllegalArgumentException("Progress of objective " + entry.getKey() + " is not a number");
+            }
+            for (QuestObjective objective : progress.objectives) {
+                if (objective.getObjectiveId().equals(entry.getKey())) {
+                    objective.setProgress(value.getAsInt());
+                    break;
+                }
+            }
+        }
+        return progress;
+    }
+
+    /**
+     * Advance every matching objective
+     *
+     * @param target Entity type, material or NPC name; objectives without a target match anything
+     * @return Whether any objective changed
+     */
+    public boolean addProgress(QuestObjective.ObjectiveType type, String target, int amount) {
+        if (status != Status.ACTIVE || amount <= 0) {
+            return false;
+        }
+
+        boolean changed = false;
+        for (QuestObjective objective : objectives) {
+            if (objective.getType() != type || objective.isCompleted()) continue;
+            if (objective.getTarget() != null && !objective.matchesTarget(target)) continue;
+
+            objective.addProgress(amount);
+            changed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * Whether every objective is done (a quest without objectives is never done by itself)
+     */
+    public boolean isReadyToComplete() {
+        if (status != Status.ACTIVE || objectives.length == 0) {
+            return false;
+        }
+        for (QuestObjective objective : objectives) {
+            if (!objective.isCompleted()) return false;
+        }
+        return true;
+    }
+
+    public void complete(long now) {
+        status = Status.COMPLETED;
+        completedAt = now;
+    }
+
+    /**
+     * Overall progress (0-100), weighted by each objective's required amount
+     */
+    public int getProgressPercentage() {
+        if (status == Status.COMPLETED) return 100;
+
+        long current = 0;
+        long required = 0;
+        for (QuestObjective objective : objectives) {
+            current += objective.getCurrent();
+            required += objective.getRequired();
+        }
+        return required > 0 ? (int) (current * 100 / required) : 0;
+    }
+
+    public String encodeObjectives() {
+        JsonObject json = new JsonObject();
+        for (QuestObjective objective : objectives) {
+            json.addProperty(objective.getObjectiveId(), objective.getCurrent());
+        }
+        return json.toString();
+    }
+
+    public Quest getQuest() {
+        return quest;
+    }
+
+    public List<QuestObjective> getObjectives() {
+        return List.of(objectives);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * Completion time in epoch millis, or 0 while active
+     */
+    public long getCompletedAt() {
+        return completedAt;
+    }
+}
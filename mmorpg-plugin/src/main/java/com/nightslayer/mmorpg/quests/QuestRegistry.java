@@ -0,0 +1,351 @@
+package com.nightslayer.mmorpg.quests;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.nightslayer.mmorpg.models.Quest;
+import org.bukkit.Material;
+
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * Immutable, compiled set of quest definitions
+ *
+ * Features:
+ * - objectives_json, rewards_json and requirements_json parsed once into
+ *   QuestObjective / QuestReward / prerequisite ids
+ * - Quests indexed in topological order of their prerequisites, so a
+ *   prerequisite always has a lower index than its dependents
+ * - Quests with missing or cyclic prerequisites dropped at build time
+ * - Level range index: a NavigableMap from level breakpoints to the set of
+ *   quests offered at that level, so availability is one floorEntry plus a
+ *   BitSet filter against the player's active and completed quests
+ *
+ * JSON formats:
+ * objectives_json: [{"id": "zombies", "type": "KILL_MOBS", "target": "ZOMBIE",
+ *                    "amount": 10, "description": "Mata 10 zombies"}]
+ * rewards_json:    {"coins": 100, "exp": 50, "title": "Cazador",
+ *                   "items": [{"material": "DIAMOND", "amount": 2}],
+ *                   "custom": {"skill_points": 1}}
+ * requirements_json: {"quests": ["intro"]} or just ["intro"]
+ */
+public final class QuestRegistry {
+
+    public static final QuestRegistry EMPTY = new Builder().build(null);
+
+    private final Quest[] quests;
+    private final Map<String, Quest> byId;
+    private final int[][] prerequisites;
+    private final NavigableMap<Integer, BitSet> byLevel;
+
+    private QuestRegistry(Quest[] quests, int[][] prerequisites, NavigableMap<Integer, BitSet> byLevel) {
+        this.quests = quests;
+        this.prerequisites = prerequisites;
+        this.byLevel = byLevel;
+        Map<String, Quest> ids = new HashMap<>();
+        for (Quest quest : quests) {
+            ids.put(quest.getId(), quest);
+        }
+        this.byId = Map.copyOf(ids);
+    }
+
+    public int size() {
+        return quests.length;
+    }
+
+    public Quest get(String id) {
+        return id != null ? byId.get(id) : null;
+    }
+
+    public Quest get(int index) {
+        return quests[index];
+    }
+
+    /**
+     * Every quest, prerequisites first
+     */
+    public List<Quest> getAll() {
+        return List.of(quests);
+    }
+
+    /**
+     * Quests offered at a level, by index (do not modify)
+     */
+    public BitSet getQuestsForLevel(int level) {
+        Map.Entry<Integer, BitSet> entry = byLevel.floorEntry(level);
+        return entry != null ? entry.getValue() : EMPTY_SET;
+    }
+
+    /**
+     * Whether every prerequisite of a quest is in the completed set
+     */
+    public boolean hasPrerequisites(Quest quest, BitSet completed) {
+        for (int prerequisite : prerequisites[quest.getIndex()]) {
+            if (!completed.get(prerequisite)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Quests a player can start: in level range, not active or completed,
+     * with all prerequisites completed
+     *
+     * @param completed Indices of completed quests
+     * @param active Indices of active quests
+     */
+    public List<Quest> getAvailable(int level, BitSet completed, BitSet active) {
+        BitSet candidates = (BitSet) getQuestsForLevel(level).clone();
+        candidates.andNot(completed);
+        candidates.andNot(active);
+
+        List<Quest> available = new ArrayList<>(candidates.cardinality());
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (hasPrerequisites(quests[i], completed)) {
+                available.add(quests[i]);
+            }
+        }
+        return available;
+    }
+
+    public boolean isAvailable(Quest quest, int level, BitSet completed, BitSet active) {
+        int index = quest.getIndex();
+        return quest.isInLevelRange(level) && !completed.get(index) && !active.get(index)
+            && hasPrerequisites(quest, completed);
+    }
+
+    private static final BitSet EMPTY_SET = new BitSet(0);
+
+    /**
+     * Collects quest rows and resolves them into a registry
+     */
+    public static final class Builder {
+        private final Map<String, Definition> definitions = new LinkedHashMap<>();
+
+        /**
+         * Parse one quest row
+         *
+         * @param maxLevel Highest level the quest is offered at, or 0 for no limit
+         * @throws IllegalArgumentException on malformed JSON, unknown objective types or materials
+         */
+        public Builder add(String id, String name, String description, String difficulty, int minLevel, int maxLevel,
+                           String objectivesJson, String rewardsJson, String requirementsJson) {
+            if (id == null || id.isBlank()) {
+                throw new IllegalArgumentException("Quest without id");
+            }
+            if (maxLevel > 0 && maxLevel < minLevel) {
+                throw new IllegalArgumentException("max_level " + maxLevel + " is below min_level " + minLevel);
+            }
+            definitions.put(id, new Definition(id, name, description, difficulty, minLevel, maxLevel,
+                parseObjectives(objectivesJson), parseReward(rewardsJson), parsePrerequisites(requirementsJson)));
+            return this;
+        }
+
+        /**
+         * Resolve prerequisites and build the indexes
+         *
+         * @param logger Receives a warning per dropped quest (may be null)
+         */
+        public QuestRegistry build(Logger logger) {
+            List<Definition> ordered = sortByPrerequisites(logger);
+
+            Map<String, Integer> indices = new HashMap<>();
+            Quest[] quests = new Quest[ordered.size()];
+            int[][] prerequisites = new int[ordered.size()][];
+            for (int i = 0; i < quests.length; i++) {
+                Definition def = ordered.get(i);
+                quests[i] = new Quest(def.id, i, def.name, def.description, def.minLevel, def.maxLevel,
+                    def.difficulty, def.objectives, def.reward, def.prerequisites);
+                indices.put(def.id, i);
+                prerequisites[i] = new int[def.prerequisites.size()];
+                for (int p = 0; p < prerequisites[i].length; p++) {
+                    prerequisites[i][p] = indices.get(def.prerequisites.get(p));
+                }
+            }
+
+            return new QuestRegistry(quests, prerequisites, buildLevelIndex(quests));
+        }
+
+        /**
+         * Kahn's algorithm in definition order; whatever is left over has a
+         * missing prerequisite or sits on (or behind) a cycle
+         */
+        private List<Definition> sortByPrerequisites(Logger logger) {
+            Map<String, Integer> pending = new HashMap<>();
+            Map<String, List<Definition>> dependents = new HashMap<>();
+            Deque<Definition> ready = new ArrayDeque<>();
+            for (Definition def : definitions.values()) {
+                int missing = 0;
+                for (String prerequisite : def.prerequisites) {
+                    missing++;
+                    dependents.computeIfAbsent(prerequisite, k -> new ArrayList<>()).add(def);
+                }
+                pending.put(def.id, missing);
+                if (missing == 0) {
+                    ready.add(def);
+                }
+            }
+
+            List<Definition> ordered = new ArrayList<>(definitions.size());
+            while (!ready.isEmpty()) {
+                Definition def = ready.poll();
+                ordered.add(def);
+                for (Definition dependent : dependents.getOrDefault(def.id, List.of())) {
+                    if (pending.merge(dependent.id, -1, Integer::sum) == 0) {
+                        ready.add(dependent);
+                    }
+                }
+            }
+
+            if (ordered.size() < definitions.size() && logger != null) {
+                Set<String> resolved = new HashSet<>();
+                for (Definition def : ordered) {
+                    resolved.add(def.id);
+                }
+                for (Definition def : definitions.values()) {
+                    if (!resolved.contains(def.id)) {
+                        logger.warning("Skipping quest " + def.id + ": unresolvable prerequisites " + def.prerequisites);
+                    }
+                }
+            }
+            return ordered;
+        }
+
+        /**
+         * One entry per level where the set of offered quests changes
+         */
+        private static NavigableMap<Integer, BitSet> buildLevelIndex(Quest[] quests) {
+            TreeSet<Integer> breakpoints = new TreeSet<>();
+            for (Quest quest : quests) {
+                breakpoints.add(quest.getMinLevel());
+                if (quest.getMaxLevel() > 0) {
+                    breakpoints.add(quest.getMaxLevel() + 1);
+                }
+            }
+
+            NavigableMap<Integer, BitSet> byLevel = new TreeMap<>();
+            for (int level : breakpoints) {
+                BitSet offered = new BitSet(quests.length);
+                for (Quest quest : quests) {
+                    if (quest.isInLevelRange(level)) {
+                        offered.set(quest.getIndex());
+                    }
+                }
+                byLevel.put(level, offered);
+            }
+            return Collections.unmodifiableNavigableMap(byLevel);
+        }
+    }
+
+    private static List<QuestObjective> parseObjectives(String json) {
+        JsonElement root = parse(json);
+        if (root == null) {
+            return List.of();
+        }
+        if (!root.isJsonArray()) {
+            throw new IllegalArgumentException("objectives_json must be an array");
+        }
+
+        List<QuestObjective> objectives = new ArrayList<>();
+        for (JsonElement element : root.getAsJsonArray()) {
+            JsonObject object = element.getAsJsonObject();
+            String typeName = getString(object, "type", null);
+            QuestObjective.ObjectiveType type;
+            try {
+                type = QuestObjective.ObjectiveType.valueOf(String.valueOf(typeName).toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown objective type: " + typeName);
+            }
+            int required = getInt(object, "amount", getInt(object, "required", 1));
+            String target = getString(object, "target", null);
+            objectives.add(new QuestObjective.Builder(getString(object, "id", "objective_" + objectives.size()))
+                .type(type)
+                .target(target)
+                .required(required)
+                .description(getString(object, "description",
+                    type.getDisplayName() + (target != null ? " " + target.toLowerCase(Locale.ROOT).replace('_', ' ') : "")
+                        + " x" + required))
+                .build());
+        }
+        return objectives;
+    }
+
+    private static QuestReward parseReward(String json) {
+        QuestReward.Builder builder = new QuestReward.Builder();
+        JsonElement root = parse(json);
+        if (root == null) {
+            return builder.build();
+        }
+        if (!root.isJsonObject()) {
+            throw new IllegalArgumentException("rewards_json must be an object");
+        }
+
+        JsonObject object = root.getAsJsonObject();
+        builder.coins(getInt(object, "coins", 0));
+        builder.experience(getInt(object, "exp", getInt(object, "experience", 0)));
+        builder.title(getString(object, "title", null));
+        if (object.has("items")) {
+            for (JsonElement element : object.getAsJsonArray("items")) {
+                JsonObject item = element.getAsJsonObject();
+                String name = getString(item, "material", null);
+                Material material = name != null ? Material.matchMaterial(name) : null;
+                if (material == null || !material.isItem()) {
+                    throw new IllegalArgumentException("Unknown item material: " + name);
+                }
+                builder.addItem(material, getInt(item, "amount", 1));
+            }
+        }
+        if (object.has("custom")) {
+            for (Map.Entry<String, JsonElement> entry : object.getAsJsonObject("custom").entrySet()) {
+                builder.addCustomReward(entry.getKey(), entry.getValue().getAsInt());
+            }
+        }
+        return builder.build();
+    }
+
+    private static List<String> parsePrerequisites(String json) {
+        JsonElement root = parse(json);
+        if (root == null) {
+            return List.of();
+        }
+        if (root.isJsonObject()) {
+            root = root.getAsJsonObject().get("quests");
+            if (root == null) {
+                return List.of();
+            }
+        }
+        if (!root.isJsonArray()) {
+            throw new IllegalArgumentException("requirements_json must be an array or {\"quests\": [...]}");
+        }
+
+        List<String> prerequisites = new ArrayList<>();
+        for (JsonElement element : root.getAsJsonArray()) {
+            prerequisites.add(element.getAsString());
+        }
+        return prerequisites;
+    }
+
+    private static JsonElement parse(String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        try {
+            return JsonParser.parseString(json);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed quest JSON: " + e.getMessage(), e);
+        }
+    }
+
+    private static int getInt(JsonObject object, String key, int def) {
+        return object.has(key) ? object.get(key).getAsInt() : def;
+    }
+
+    private static String getString(JsonObject object, String key, String def) {
+        return object.has(key) ? object.get(key).getAsString() : def;
+    }
+
+    private record Definition(String id, String name, String description, String difficulty, int minLevel,
+                              int maxLevel, List<QuestObjective> objectives, QuestReward reward,
+                              List<String> prerequisites) {
+    }
+}
@@ -0,0 +1,194 @@
+package com.nightslayer.mmorpg.quests;
+
+import com.nightslayer.mmorpg.MMORPGPlugin;
+import com.nightslayer.mmorpg.database.DatabaseManager;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Coalescing write-behind queue for player_quests
+ *
+ * Features:
+ * - At most one pending write per (player, quest): repeated progress ticks
+ *   replace each other and the row is written with its state at flush time
+ * - A save is DELETE + INSERT of the row, which also drops duplicate rows
+ *   left by older versions; an abandon is just the DELETE
+ * - All pending writes flushed in one transaction per interval and on stop;
+ *   only a player's own writes are flushed before their rows are read back
+ * - Completions are written through immediately (see saveNow)
+ * - A failed batch is retried row by row; rows that still fail are logged
+ *   and dropped, unless every row failed, in which case all are re-queued
+ *   (unless newer writes superseded them)
+ */
+public class QuestWriteQueue {
+
+    private static final String DELETE =
+        "DELETE FROM player_quests WHERE player_uuid = ? AND quest_id = ?";
+    private static final String INSERT =
+        "INSERT INTO player_quests (player_uuid, quest_id, status, progress, objectives_json, started_at, completed_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final MMORPGPlugin plugin;
+    private final DatabaseManager db;
+    private Map<String, PendingWrite> pending;
+    private BukkitTask task;
+
+    public QuestWriteQueue(MMORPGPlugin plugin, DatabaseManager db) {
+        this.plugin = plugin;
+        this.db = db;
+        this.pending = new LinkedHashMap<>();
+    }
+
+    public void start(long intervalTicks) {
+        stop();
+        if (intervalTicks > 0) {
+            task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::flush, intervalTicks, intervalTicks);
+        }
+    }
+
+    /**
+     * Cancel the flush task and write everything still queued
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        flush();
+    }
+
+    /**
+     * Queue the current state of a quest for writing
+     */
+    public void save(UUID playerId, QuestProgress progress) {
+        String questId = progress.getQuest().getId();
+        pending.put(key(playerId, questId), new PendingWrite(playerId, questId, progress));
+    }
+
+    /**
+     * Queue removal of a quest row
+     */
+    public void delete(UUID playerId, String questId) {
+        pending.put(key(playerId, questId), new PendingWrite(playerId, questId, null));
+    }
+
+    public boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<String, PendingWrite> writes = pending;
+        pending = new LinkedHashMap<>();
+        write(writes);
+    }
+
+    /**
+     * Write only one player's pending rows, leaving everyone else's queued
+     */
+    public void flush(UUID playerId) {
+        Map<String, PendingWrite> writes = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, PendingWrite>> it = pending.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, PendingWrite> entry = it.next();
+            if (entry.getValue().playerId.equals(playerId)) {
+                writes.put(entry.getKey(), entry.getValue());
+                it.remove();
+            }
+        }
+        if (!writes.isEmpty()) {
+            write(writes);
+        }
+    }
+
+    /**
+     * Write one quest's state now, replacing anything queued for it. Used for
+     * completions, which must be stored before rewards are handed out.
+     *
+     * @return false if the write failed and was queued for a retry instead
+     */
+    public boolean saveNow(UUID playerId, QuestProgress progress) {
+        String questId = progress.getQuest().getId();
+        String key = key(playerId, questId);
+        PendingWrite write = new PendingWrite(playerId, questId, progress);
+        pending.remove(key);
+
+        List<DatabaseManager.BatchStatement> batch = new ArrayList<>(2);
+        addStatements(batch, write);
+        if (db.executeBatch(batch)) {
+            return true;
+        }
+        plugin.getLogger().warning("Failed to save completion of quest " + questId + " for " + playerId
+            + ", retrying next flush");
+        pending.putIfAbsent(key, write);
+        return false;
+    }
+
+    private void write(Map<String, PendingWrite> writes) {
+        List<DatabaseManager.BatchStatement> batch = new ArrayList<>(writes.size() * 2);
+        for (PendingWrite write : writes.values()) {
+            addStatements(batch, write);
+        }
+        if (db.executeBatch(batch)) {
+            return;
+        }
+
+        // One bad row (e.g. a foreign key violation) fails the whole batch, so retry row by row
+        List<Map.Entry<String, PendingWrite>> failed = new ArrayList<>();
+        for (Map.Entry<String, PendingWrite> entry : writes.entrySet()) {
+            List<DatabaseManager.BatchStatement> single = new ArrayList<>(2);
+            addStatements(single, entry.getValue());
+            if (!db.executeBatch(single)) {
+                failed.add(entry);
+            }
+        }
+        if (failed.isEmpty()) {
+            return;
+        }
+
+        if (failed.size() == writes.size()) {
+            // Nothing could be written: most likely the database itself, keep everything for the next flush
+            plugin.getLogger().warning("Failed to save " + writes.size() + " quest states, retrying next flush");
+            for (Map.Entry<String, PendingWrite> entry : failed) {
+                pending.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+            return;
+        }
+        for (Map.Entry<String, PendingWrite> entry : failed) {
+            PendingWrite write = entry.getValue();
+            plugin.getLogger().warning("Dropping unsavable state of quest " + write.questId + " for " + write.playerId);
+        }
+    }
+
+    private static void addStatements(List<DatabaseManager.BatchStatement> batch, PendingWrite write) {
+        String uuid = write.playerId.toString();
+        batch.add(new DatabaseManager.BatchStatement(DELETE, uuid, write.questId));
+
+        QuestProgress progress = write.progress;
+        if (progress != null) {
+            batch.add(new DatabaseManager.BatchStatement(INSERT, uuid, write.questId,
+                progress.getStatus().getDatabaseValue(), progress.getProgressPercentage(),
+                progress.encodeObjectives(), progress.getStartedAt(),
+                progress.getCompletedAt() > 0 ? progress.getCompletedAt() : null));
+        }
+    }
+
+    private static String key(UUID playerId, String questId) {
+        return playerId + ":" + questId;
+    }
+
+    /**
+     * @param progress State to write, or null to delete the row
+     */
+    private record PendingWrite(UUID playerId, String questId, QuestProgress progress) {
+    }
+}
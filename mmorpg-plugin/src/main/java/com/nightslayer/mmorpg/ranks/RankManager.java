@@ -2,14 +2,19 @@ package com.nightslayer.mmorpg.ranks;
 
 import com.nightslayer.mmorpg.database.DatabaseManager;
 import com.nightslayer.mmorpg.i18n.LanguageManager;
-import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
 /**
@@ -20,88 +25,125 @@ import java.util.logging.Level;
  * - Benefits per rank
  * - Rank ascension system
  * - Prestige levels
+ * - Ranks of online players cached as indices into an immutable rank array,
+ *   loaded at join, so damage and exp multipliers never query the database
+ * - Multipliers precomputed into primitive arrays for the combat path
  */
-public class RankManager {
+public class RankManager implements Listener {
     
     private final DatabaseManager dbManager;
     private final LanguageManager langManager;
-    private final List<Rank> ranks;
-    private static final LegacyComponentSerializer LEGACY = LegacyComponentSerializer.legacySection();
+    private final Rank[] ranks;
+    private final Map<String, Integer> rankIndices;
+    private final NavigableMap<Integer, Integer> ranksByLevel;
+    private final double[] damageMultipliers;
+    private final double[] expMultipliers;
+    private final Map<UUID, Integer> playerRanks;
     
     public RankManager(DatabaseManager dbManager, LanguageManager langManager) {
         this.dbManager = dbManager;
         this.langManager = langManager;
-        this.ranks = new ArrayList<>();
-        initializeRanks();
+        this.ranks = initializeRanks();
+        this.rankIndices = new HashMap<>();
+        this.ranksByLevel = new TreeMap<>();
+        this.damageMultipliers = new double[ranks.length];
+        this.expMultipliers = new double[ranks.length];
+        for (int i = 0; i < ranks.length; i++) {
+            rankIndices.put(ranks[i].getRankId(), i);
+            ranksByLevel.put(ranks[i].getLevelRequired(), i);
+            damageMultipliers[i] = ranks[i].getDamageMultiplier();
+            expMultipliers[i] = ranks[i].getExpMultiplier();
+        }
+        this.playerRanks = new ConcurrentHashMap<>();
+        
+        Bukkit.getLogger().info("[MMORPG] Initialized " + ranks.length + " ranks");
     }
     
     /**
-     * Initialize rank definitions
+     * Initialize rank definitions, lowest first
      */
-    private void initializeRanks() {
-        ranks.clear();
-        
+    private static Rank[] initializeRanks() {
         // Define ranks with requirements and benefits
-        ranks.add(new Rank("novice", "Novato", 1, "§f", 0, 0, 1.0, 1.0));
-        ranks.add(new Rank("apprentice", "Aprendiz", 10, "§a", 500, 1000, 1.05, 1.05));
-        ranks.add(new Rank("adept", "Adepto", 20, "§2", 2000, 5000, 1.10, 1.10));
-        ranks.add(new Rank("expert", "Experto", 30, "§b", 5000, 10000, 1.15, 1.15));
-        ranks.add(new Rank("master", "Maestro", 40, "§9", 10000, 20000, 1.20, 1.20));
-        ranks.add(new Rank("grandmaster", "Gran Maestro", 50, "§5", 20000, 50000, 1.30, 1.30));
-        ranks.add(new Rank("legend", "Leyenda", 60, "§6", 50000, 100000, 1.50, 1.50));
-        ranks.add(new Rank("mythic", "Mítico", 75, "§c", 100000, 250000, 2.0, 2.0));
-        ranks.add(new Rank("divine", "Divino", 100, "§d", 500000, 1000000, 3.0, 3.0));
-        
-        Bukkit.getLogger().info("[MMORPG] Initialized " + ranks.size() + " ranks");
+        return new Rank[] {
+            new Rank("novice", "Novato", 1, "§f", 0, 0, 1.0, 1.0),
+            new Rank("apprentice", "Aprendiz", 10, "§a", 500, 1000, 1.05, 1.05),
+            new Rank("adept", "Adepto", 20, "§2", 2000, 5000, 1.10, 1.10),
+            new Rank("expert", "Experto", 30, "§b", 5000, 10000, 1.15, 1.15),
+            new Rank("master", "Maestro", 40, "§9", 10000, 20000, 1.20, 1.20),
+            new Rank("grandmaster", "Gran Maestro", 50, "§5", 20000, 50000, 1.30, 1.30),
+            new Rank("legend", "Leyenda", 60, "§6", 50000, 100000, 1.50, 1.50),
+            new Rank("mythic", "Mítico", 75, "§c", 100000, 250000, 2.0, 2.0),
+            new Rank("divine", "Divino", 100, "§d", 500000, 1000000, 3.0, 3.0)
+        };
+    }
+    
+    /**
+     * Cache the rank of every player already online (plugin reloads)
+     */
+    public void loadOnline() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            playerRanks.put(player.getUniqueId(), loadRankIndex(player.getUniqueId()));
+        }
     }
     
     /**
      * Get rank by ID
      */
     public Rank getRank(String rankId) {
-        for (Rank rank : ranks) {
-            if (rank.getRankId().equals(rankId)) {
-                return rank;
-            }
-        }
-        return ranks.get(0); // Default to novice
+        Integer index = rankId != null ? rankIndices.get(rankId) : null;
+        return ranks[index != null ? index : 0]; // Default to novice
     }
     
     /**
      * Get player's current rank
      */
     public Rank getPlayerRank(Player player) {
+        return ranks[getRankIndex(player)];
+    }
+    
+    /**
+     * Index of a player's rank, from the cache for online players
+     */
+    private int getRankIndex(Player player) {
+        Integer index = playerRanks.get(player.getUniqueId());
+        return index != null ? index : loadRankIndex(player.getUniqueId());
+    }
+    
+    private int loadRankIndex(UUID playerId) {
         String sql = "SELECT rank_id FROM player_ranks WHERE uuid = ?";
         
         try (PreparedStatement stmt = dbManager.getConnection().prepareStatement(sql)) {
-            stmt.setString(1, player.getUniqueId().toString());
+            stmt.setString(1, playerId.toString());
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return getRank(rs.getString("rank_id"));
+                    Integer index = rankIndices.get(rs.getString("rank_id"));
+                    return index != null ? index : 0;
                 }
             }
         } catch (SQLException e) {
             Bukkit.getLogger().log(Level.SEVERE, "[MMORPG] Error getting player rank", e);
         }
         
-        return ranks.get(0); // Default to novice
+        return 0; // Default to novice
     }
     
     /**
      * Check if player can ascend to next rank
      */
     public boolean canAscend(Player player) {
-        Rank currentRank = getPlayerRank(player);
-        Rank nextRank = getNextRank(currentRank);
-        
-        if (nextRank == null) {
+        return canAscend(player, getRankIndex(player));
+    }
+    
+    private boolean canAscend(Player player, int currentIndex) {
+        if (currentIndex >= ranks.length - 1) {
             return false; // Already at max rank
         }
+        Rank nextRank = ranks[currentIndex + 1];
         
-        // Check level requirement
-        int playerLevel = getPlayerLevel(player);
-        if (playerLevel < nextRank.getLevelRequired()) {
+        // Check level requirement: the highest rank the level unlocks must be above the current one
+        Map.Entry<Integer, Integer> unlocked = ranksByLevel.floorEntry(getPlayerLevel(player));
+        if (unlocked == null || unlocked.getValue() <= currentIndex) {
             return false;
         }
         
@@ -124,71 +166,85 @@ public class RankManager {
      * Ascend player to next rank
      */
     public boolean ascendPlayer(Player player) {
-        if (!canAscend(player)) {
-            player.sendMessage(langManager.getMessage("rank.cannot_ascend"));
+        UUID playerId = player.getUniqueId();
+        int currentIndex = getRankIndex(player);
+        if (!canAscend(player, currentIndex)) {
+            player.sendMessage(langManager.getMessage(player, "rank.cannot_ascend"));
             return false;
         }
         
-        Rank currentRank = getPlayerRank(player);
-        Rank nextRank = getNextRank(currentRank);
-        
-        if (nextRank == null) {
+        // Claim the step in the cache first so two ascensions can't both pay for the same rank
+        int nextIndex = currentIndex + 1;
+        if (playerRanks.containsKey(playerId) && !playerRanks.replace(playerId, currentIndex, nextIndex)) {
             return false;
         }
-        
-        // Charge costs
-        chargeCoins(player, nextRank.getCoinCost());
-        chargeExp(player, nextRank.getExpCost());
+        Rank nextRank = ranks[nextIndex];
         
         // Update rank
         String sql = "INSERT OR REPLACE INTO player_ranks (uuid, rank_id, ascension_date) VALUES (?, ?, datetime('now'))";
         
         try (PreparedStatement stmt = dbManager.getConnection().prepareStatement(sql)) {
-            stmt.setString(1, player.getUniqueId().toString());
+            stmt.setString(1, playerId.toString());
             stmt.setString(2, nextRank.getRankId());
             stmt.executeUpdate();
-            
-            // Announce ascension
-            Bukkit.broadcast(LEGACY.deserialize(langManager.getMessage("rank.ascended",
-                player.getName(), nextRank.getColorCode() + nextRank.getName())));
-            
-            player.sendMessage(langManager.getMessage("rank.benefits",
-                (int)((nextRank.getDamageMultiplier() - 1) * 100),
-                (int)((nextRank.getExpMultiplier() - 1) * 100)));
-            
-            return true;
-            
         } catch (SQLException e) {
             Bukkit.getLogger().log(Level.SEVERE, "[MMORPG] Error ascending player", e);
+            playerRanks.replace(playerId, nextIndex, currentIndex);
             return false;
         }
+        
+        // Charge costs
+        chargeCoins(player, nextRank.getCoinCost());
+        chargeExp(player, nextRank.getExpCost());
+        
+        // Announce ascension
+        langManager.broadcast("rank.ascended",
+            player.getName(), nextRank.getColorCode() + nextRank.getName());
+        
+        player.sendMessage(langManager.getMessage(player, "rank.benefits",
+            (int)((nextRank.getDamageMultiplier() - 1) * 100),
+            (int)((nextRank.getExpMultiplier() - 1) * 100)));
+        
+        return true;
     }
     
     /**
-     * Get next rank after current
+     * Damage multiplier of a player's rank
      */
-    private Rank getNextRank(Rank current) {
-        int currentIndex = ranks.indexOf(current);
-        if (currentIndex >= 0 && currentIndex < ranks.size() - 1) {
-            return ranks.get(currentIndex + 1);
-        }
-        return null;
+    public double getDamageMultiplier(Player player) {
+        return damageMultipliers[getRankIndex(player)];
+    }
+    
+    /**
+     * Exp multiplier of a player's rank
+     */
+    public double getExpMultiplier(Player player) {
+        return expMultipliers[getRankIndex(player)];
     }
     
     /**
      * Apply rank multipliers to damage
      */
     public double applyDamageMultiplier(Player player, double baseDamage) {
-        Rank rank = getPlayerRank(player);
-        return baseDamage * rank.getDamageMultiplier();
+        return baseDamage * getDamageMultiplier(player);
     }
     
     /**
      * Apply rank multipliers to exp
      */
     public int applyExpMultiplier(Player player, int baseExp) {
-        Rank rank = getPlayerRank(player);
-        return (int)(baseExp * rank.getExpMultiplier());
+        return (int)(baseExp * getExpMultiplier(player));
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        UUID playerId = event.getPlayer().getUniqueId();
+        playerRanks.put(playerId, loadRankIndex(playerId));
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        playerRanks.remove(event.getPlayer().getUniqueId());
     }
     
     // Helper methods
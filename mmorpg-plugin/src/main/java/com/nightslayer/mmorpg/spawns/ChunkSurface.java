@@ -0,0 +1,132 @@
+package com.nightslayer.mmorpg.spawns;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Immutable table of safe standing positions for the 16x16 columns of a chunk
+ *
+ * A column is safe when its top solid block has two non-solid, non-liquid
+ * blocks above it. Built off-thread from a {@link ChunkSnapshot}; lookups and
+ * random picks are O(1) and never touch the world.
+ */
+public final class ChunkSurface {
+
+    /** Marker for columns without a safe standing position */
+    public static final int NONE = Integer.MIN_VALUE;
+
+    /** How far below the heightmap we look for solid ground (grass, flowers, snow...) */
+    private static final int MAX_GROUND_SEARCH = 4;
+
+    private final int chunkX;
+    private final int chunkZ;
+    private final int[] standY;
+    private final short[] safeColumns;
+
+    private ChunkSurface(int chunkX, int chunkZ, int[] standY, short[] safeColumns) {
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.standY = standY;
+        this.safeColumns = safeColumns;
+    }
+
+    /**
+     * Scan a chunk snapshot taken with its height map. Safe to call off the main thread.
+     */
+    public static ChunkSurface scan(ChunkSnapshot snapshot, int minY, int maxY) {
+        int[] standY = new int[256];
+        short[] safe = new short[256];
+        int safeCount = 0;
+
+        for (int lz = 0; lz < 16; lz++) {
+            for (int lx = 0; lx < 16; lx++) {
+                int column = (lz << 4) | lx;
+                int y = findStandY(snapshot, lx, lz, minY, maxY);
+                standY[column] = y;
+                if (y != NONE) {
+                    safe[safeCount++] = (short) column;
+                }
+            }
+        }
+
+        return new ChunkSurface(snapshot.getX(), snapshot.getZ(), standY, Arrays.copyOf(safe, safeCount));
+    }
+
+    private static int findStandY(ChunkSnapshot snapshot, int lx, int lz, int minY, int maxY) {
+        int y = Math.min(snapshot.getHighestBlockYAt(lx, lz), maxY - 1);
+
+        // Step down through air and passable cover until we hit ground
+        for (int steps = 0; y > minY && steps <= MAX_GROUND_SEARCH; steps++, y--) {
+            Material ground = snapshot.getBlockType(lx, y, lz);
+            if (isLiquid(ground)) {
+                return NONE;
+            }
+            if (ground.isSolid()) {
+                if (y + 2 >= maxY) {
+                    return NONE;
+                }
+                Material feet = snapshot.getBlockType(lx, y + 1, lz);
+                Material head = snapshot.getBlockType(lx, y + 2, lz);
+                if (feet.isSolid() || head.isSolid() || isLiquid(feet) || isLiquid(head)) {
+                    return NONE;
+                }
+                return y + 1;
+            }
+        }
+        return NONE;
+    }
+
+    private static boolean isLiquid(Material material) {
+        return material == Material.WATER || material == Material.LAVA;
+    }
+
+    /**
+     * Standing y for a world column inside this chunk, or {@link #NONE}
+     */
+    public int getStandY(int blockX, int blockZ) {
+        return standY[((blockZ & 15) << 4) | (blockX & 15)];
+    }
+
+    /**
+     * Check if a block position is a precomputed safe standing position
+     */
+    public boolean isSafe(int blockX, int blockY, int blockZ) {
+        int y = getStandY(blockX, blockZ);
+        return y != NONE && y == blockY;
+    }
+
+    /**
+     * Number of safe columns in this chunk
+     */
+    public int getSafeCount() {
+        return safeColumns.length;
+    }
+
+    /**
+     * Packed column index (z << 4 | x) of the i-th safe column
+     */
+    int getSafeColumn(int i) {
+        return safeColumns[i];
+    }
+
+    /**
+     * Pick a random safe standing location in this chunk, or null if there is none
+     */
+    public Location pick(World world, Random random) {
+        if (safeColumns.length == 0) {
+            return null;
+        }
+        int column = safeColumns[random.nextInt(safeColumns.length)];
+        int x = (chunkX << 4) | (column & 15);
+        int z = (chunkZ << 4) | (column >> 4);
+        return new Location(world, x + 0.5, standY[column], z + 0.5);
+    }
+
+    public int getChunkX() { return chunkX; }
+    public int getChunkZ() { return chunkZ; }
+}
@@ -0,0 +1,242 @@
+package com.nightslayer.mmorpg.spawns;
+
+import com.destroystokyo.paper.event.entity.EntityAddToWorldEvent;
+import com.destroystokyo.paper.event.entity.EntityRemoveFromWorldEvent;
+import com.nightslayer.mmorpg.MMORPGPlugin;
+import com.nightslayer.mmorpg.utils.IntObjectMap;
+import com.nightslayer.mmorpg.utils.LongObjectMap;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.SpawnCategory;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Incremental living-entity counters per world, per chunk and per spawn category
+ *
+ * Features:
+ * - Counts maintained from entity add/remove events (spawns, deaths,
+ *   despawns and chunk load/unload all go through them)
+ * - O(1) reads for world, chunk and category limits
+ * - Periodic recount moves entities that walked into another chunk
+ */
+public class EntityCounters implements Listener {
+
+    private static final SpawnCategory[] CATEGORIES = SpawnCategory.values();
+
+    private final MMORPGPlugin plugin;
+    private final Map<UUID, WorldCounts> worlds;
+    private final IntObjectMap<Tracked> tracked;
+    private final Location scratch;
+
+    public EntityCounters(MMORPGPlugin plugin) {
+        this.plugin = plugin;
+        this.worlds = new HashMap<>();
+        this.tracked = new IntObjectMap<>(1024);
+        this.scratch = new Location(null, 0, 0, 0);
+    }
+
+    /**
+     * Rebuild all counters from the loaded worlds and start the chunk recount task
+     */
+    public void start(long recountIntervalTicks) {
+        worlds.clear();
+        tracked.clear();
+        for (World world : plugin.getServer().getWorlds()) {
+            for (LivingEntity entity : world.getLivingEntities()) {
+                add(entity);
+            }
+        }
+
+        if (recountIntervalTicks > 0) {
+            plugin.getServer().getScheduler().runTaskTimer(plugin, this::recountChunks,
+                recountIntervalTicks, recountIntervalTicks);
+        }
+    }
+
+    /**
+     * Living entities currently loaded in a world
+     */
+    public int getWorldCount(World world) {
+        WorldCounts counts = worlds.get(world.getUID());
+        return counts != null ? counts.total : 0;
+    }
+
+    /**
+     * Living entities of a spawn category currently loaded in a world
+     */
+    public int getWorldCount(World world, SpawnCategory category) {
+        WorldCounts counts = worlds.get(world.getUID());
+        return counts != null ? counts.byCategory[category.ordinal()] : 0;
+    }
+
+    /**
+     * Living entities in a chunk
+     */
+    public int getChunkCount(World world, int chunkX, int chunkZ) {
+        ChunkCounts counts = getChunk(world, chunkX, chunkZ);
+        return counts != null ? counts.total : 0;
+    }
+
+    /**
+     * Living entities of a spawn category in a chunk
+     */
+    public int getChunkCount(World world, int chunkX, int chunkZ, SpawnCategory category) {
+        ChunkCounts counts = getChunk(world, chunkX, chunkZ);
+        return counts != null ? counts.byCategory[category.ordinal()] : 0;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityAdd(EntityAddToWorldEvent event) {
+        if (event.getEntity() instanceof LivingEntity living) {
+            add(living);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityRemove(EntityRemoveFromWorldEvent event) {
+        Tracked entry = tracked.remove(event.getEntity().getEntityId());
+        if (entry != null) {
+            entry.chunk.decrement(entry.category);
+            entry.chunk.world.decrement(entry.category);
+            if (entry.chunk.total == 0) {
+                entry.chunk.world.chunks.remove(entry.chunk.key);
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        WorldCounts counts = worlds.remove(event.getWorld().getUID());
+        if (counts == null) return;
+
+        // Entities are normally removed first; drop any stragglers from the index
+        int[] stale = new int[tracked.size()];
+        int[] staleCount = {0};
+        tracked.forEach((id, entry) -> {
+            if (entry.chunk.world == counts) {
+                stale[staleCount[0]++] = id;
+            }
+        });
+        for (int i = 0; i < staleCount[0]; i++) {
+            tracked.remove(stale[i]);
+        }
+    }
+
+    private void add(LivingEntity entity) {
+        int id = entity.getEntityId();
+        if (tracked.containsKey(id)) return;
+
+        World world = entity.getWorld();
+        WorldCounts worldCounts = worlds.computeIfAbsent(world.getUID(), k -> new WorldCounts());
+        entity.getLocation(scratch);
+        ChunkCounts chunkCounts = worldCounts.chunk(scratch.getBlockX() >> 4, scratch.getBlockZ() >> 4);
+
+        int category = entity.getSpawnCategory().ordinal();
+        chunkCounts.increment(category);
+        worldCounts.increment(category);
+        tracked.put(id, new Tracked(entity, chunkCounts, category));
+    }
+
+    private ChunkCounts getChunk(World world, int chunkX, int chunkZ) {
+        WorldCounts counts = worlds.get(world.getUID());
+        return counts != null ? counts.chunks.get(Chunk.getChunkKey(chunkX, chunkZ)) : null;
+    }
+
+    /**
+     * Move entities that walked across chunk borders since the last pass
+     */
+    private void recountChunks() {
+        tracked.forEach((id, entry) -> {
+            entry.entity.getLocation(scratch);
+            long key = Chunk.getChunkKey(scratch.getBlockX() >> 4, scratch.getBlockZ() >> 4);
+            if (key == entry.chunk.key) return;
+
+            WorldCounts worldCounts = entry.chunk.world;
+            entry.chunk.decrement(entry.category);
+            if (entry.chunk.total == 0) {
+                worldCounts.chunks.remove(entry.chunk.key);
+            }
+            entry.chunk = worldCounts.chunk(scratch.getBlockX() >> 4, scratch.getBlockZ() >> 4);
+            entry.chunk.increment(entry.category);
+        });
+    }
+
+    /**
+     * Counts for one world
+     */
+    private static final class WorldCounts {
+        private final LongObjectMap<ChunkCounts> chunks = new LongObjectMap<>(256);
+        private final int[] byCategory = new int[CATEGORIES.length];
+        private int total;
+
+        private ChunkCounts chunk(int chunkX, int chunkZ) {
+            long key = Chunk.getChunkKey(chunkX, chunkZ);
+            ChunkCounts counts = chunks.get(key);
+            if (counts == null) {
+                counts = new ChunkCounts(this, key);
+                chunks.put(key, counts);
+            }
+            return counts;
+        }
+
+        private void increment(int category) {
+            byCategory[category]++;
+            total++;
+        }
+
+        private void decrement(int category) {
+            byCategory[category]--;
+            total--;
+        }
+    }
+
+    /**
+     * Counts for one chunk
+     */
+    private static final class ChunkCounts {
+        private final WorldCounts world;
+        private final long key;
+        private final int[] byCategory = new int[CATEGORIES.length];
+        private int total;
+
+        private ChunkCounts(WorldCounts world, long key) {
+            this.world = world;
+            this.key = key;
+        }
+
+        private void increment(int category) {
+            byCategory[category]++;
+            total++;
+        }
+
+        private void decrement(int category) {
+            byCategory[category]--;
+            total--;
+        }
+    }
+
+    /**
+     * Entity currently counted, with the chunk it was last seen in
+     */
+    private static final class Tracked {
+        private final LivingEntity entity;
+        private final int category;
+        private ChunkCounts chunk;
+
+        private Tracked(LivingEntity entity, ChunkCounts chunk, int category) {
+            this.entity = entity;
+            this.chunk = chunk;
+            this.category = category;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.nightslayer.mmorpg.spawns;
+
+import com.nightslayer.mmorpg.MMORPGPlugin;
+import com.nightslayer.mmorpg.database.DatabaseManager;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * RPG levels of online players kept in flat arrays
+ *
+ * Loaded once per join, off the main thread, so spawn decisions can ask
+ * "highest player level near here" without a database query or an
+ * allocation per event. A player is not indexed until the load returns.
+ * Anything that writes players.level must call setLevel (or updateLevel)
+ * so spawn rules, mob bands and quest availability see the new level.
+ */
+public class PlayerLevelIndex implements Listener {
+
+    private final MMORPGPlugin plugin;
+    private final DatabaseManager db;
+    private final Location scratch;
+    private final Map<UUID, Integer> slots;
+    private Player[] players;
+    private int[] levels;
+    private int count;
+
+    public PlayerLevelIndex(MMORPGPlugin plugin, DatabaseManager db) {
+        this.plugin = plugin;
+        this.db = db;
+        this.scratch = new Location(null, 0, 0, 0);
+        this.slots = new HashMap<>();
+        this.players = new Player[32];
+        this.levels = new int[32];
+    }
+
+    /**
+     * Index every player already online (plugin reloads)
+     */
+    public void loadOnline() {
+        count = 0;
+        slots.clear();
+        Arrays.fill(players, null);
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            setLevel(player, loadLevel(player.getUniqueId()));
+        }
+    }
+
+    /**
+     * Update the cached level of an online player
+     */
+    public void setLevel(Player player, int level) {
+        Integer slot = slots.get(player.getUniqueId());
+        if (slot != null) {
+            players[slot] = player;
+            levels[slot] = level;
+            return;
+        }
+        if (count == players.length) {
+            players = Arrays.copyOf(players, count * 2);
+            levels = Arrays.copyOf(levels, count * 2);
+        }
+        players[count] = player;
+        levels[count] = level;
+        slots.put(player.getUniqueId(), count);
+        count++;
+    }
+
+    /**
+     * Update the cached level of a player if they are online; no-op otherwise
+     */
+    public void updateLevel(UUID playerId, int level) {
+        Integer slot = slots.get(playerId);
+        if (slot != null) {
+            levels[slot] = level;
+        }
+    }
+
+    /**
+     * Cached level of an online player, or -1 if not indexed
+     */
+    public int getLevel(Player player) {
+        Integer slot = slots.get(player.getUniqueId());
+        return slot != null ? levels[slot] : -1;
+    }
+
+    /**
+     * Highest RPG level among players within radius of a location, or -1 if nobody is near
+     */
+    public int getHighestLevelNear(World world, double x, double y, double z, double radius) {
+        double radiusSq = radius * radius;
+        int highest = -1;
+        for (int i = 0; i < count; i++) {
+            Player player = players[i];
+            if (player.getWorld() != world) continue;
+
+            player.getLocation(scratch);
+            double dx = scratch.getX() - x;
+            double dy = scratch.getY() - y;
+            double dz = scratch.getZ() - z;
+            if (dx * dx + dy * dy + dz * dz <= radiusSq && levels[i] > highest) {
+                highest = levels[i];
+            }
+        }
+        return highest;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        UUID playerId = event.getPlayer().getUniqueId();
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            int level = loadLevel(playerId);
+            if (!plugin.isEnabled()) return;
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                // Looked up again: the player may have quit or rejoined meanwhile
+                Player player = Bukkit.getPlayer(playerId);
+                if (player != null) {
+                    setLevel(player, level);
+                }
+            });
+        });
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        Integer slot = slots.remove(event.getPlayer().getUniqueId());
+        if (slot == null) return;
+
+        count--;
+        if (slot != count) {
+            players[slot] = players[count];
+            levels[slot] = levels[count];
+            slots.put(players[slot].getUniqueId(), slot);
+        }
+        players[count] = null;
+    }
+
+    private int loadLevel(UUID playerId) {
+        int[] level = {1};
+        db.executeQueryWithCallback("SELECT level FROM players WHERE uuid = ?", rs -> {
+            if (rs.next()) {
+                level[0] = rs.getInt("level");
+            }
+        }, playerId.toString());
+        return level[0];
+    }
+}
@@ -0,0 +1,303 @@
+package com.nightslayer.mmorpg.spawns;
+
+import com.nightslayer.mmorpg.MMORPGPlugin;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.world.ChunkLoadEvent;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Precomputes safe spawn positions for spawn points
+ *
+ * Features:
+ * - Chunk surfaces scanned off-thread from ChunkSnapshots and the height map
+ * - Per spawn point pool of standing positions, picked in O(1)
+ * - Chunks rescanned when blocks change in a covered area or the chunk reloads
+ *
+ * All bookkeeping happens on the main thread; only the scan itself is async.
+ */
+public class SafeLocationService implements Listener {
+
+    /** Delay before rescanning a chunk after a block change, to coalesce edits */
+    private static final long BLOCK_CHANGE_RESCAN_DELAY = 40L;
+
+    private final MMORPGPlugin plugin;
+    private final Map<String, Map<Long, CoveredChunk>> coverage;
+    private final Map<String, Pool> pools;
+
+    public SafeLocationService(MMORPGPlugin plugin) {
+        this.plugin = plugin;
+        this.coverage = new HashMap<>();
+        this.pools = new HashMap<>();
+    }
+
+    /**
+     * Replace the tracked spawn points and schedule scans for their loaded chunks
+     */
+    public void track(Collection<SpawnManager.SpawnPoint> spawnPoints) {
+        coverage.clear();
+        pools.clear();
+
+        for (SpawnManager.SpawnPoint sp : spawnPoints) {
+            Map<Long, CoveredChunk> worldCoverage = coverage.computeIfAbsent(sp.getWorldName(), k -> new HashMap<>());
+            int radius = sp.getRadius();
+            int minChunkX = (int) Math.floor(sp.getX() - radius) >> 4;
+            int maxChunkX = (int) Math.floor(sp.getX() + radius) >> 4;
+            int minChunkZ = (int) Math.floor(sp.getZ() - radius) >> 4;
+            int maxChunkZ = (int) Math.floor(sp.getZ() + radius) >> 4;
+
+            for (int cx = minChunkX; cx <= maxChunkX; cx++) {
+                for (int cz = minChunkZ; cz <= maxChunkZ; cz++) {
+                    worldCoverage.computeIfAbsent(Chunk.getChunkKey(cx, cz), k -> new CoveredChunk())
+                        .spawnPoints.add(sp);
+                }
+            }
+            pools.put(sp.getSpawnId(), Pool.EMPTY);
+        }
+
+        for (Map.Entry<String, Map<Long, CoveredChunk>> worldEntry : coverage.entrySet()) {
+            World world = plugin.getServer().getWorld(worldEntry.getKey());
+            if (world == null) continue;
+
+            for (Map.Entry<Long, CoveredChunk> chunkEntry : worldEntry.getValue().entrySet()) {
+                long key = chunkEntry.getKey();
+                int cx = (int) key;
+                int cz = (int) (key >> 32);
+                if (world.isChunkLoaded(cx, cz)) {
+                    scheduleRescan(world, cx, cz, chunkEntry.getValue(), 1L);
+                }
+            }
+        }
+    }
+
+    /**
+     * Pick a random safe location for a spawn point, or null if none is known yet
+     */
+    public Location pick(SpawnManager.SpawnPoint sp, Random random) {
+        Pool pool = pools.get(sp.getSpawnId());
+        if (pool == null || pool.size == 0) {
+            return null;
+        }
+        World world = plugin.getServer().getWorld(sp.getWorldName());
+        if (world == null) {
+            return null;
+        }
+        int i = random.nextInt(pool.size);
+        return new Location(world, pool.xs[i] + 0.5, pool.ys[i], pool.zs[i] + 0.5);
+    }
+
+    /**
+     * Number of safe positions currently pooled for a spawn point
+     */
+    public int getPoolSize(String spawnId) {
+        Pool pool = pools.get(spawnId);
+        return pool != null ? pool.size : 0;
+    }
+
+    /**
+     * Get the cached surface of a covered chunk, or null if it has not been scanned
+     */
+    public ChunkSurface getSurface(World world, int chunkX, int chunkZ) {
+        CoveredChunk covered = getCovered(world, chunkX, chunkZ);
+        return covered != null ? covered.surface : null;
+    }
+
+    /**
+     * Scan any loaded chunk off-thread and hand the result to the callback on the main thread.
+     * Uses the cached surface directly when the chunk is already covered and scanned.
+     */
+    public void scanChunk(Chunk chunk, Consumer<ChunkSurface> callback) {
+        World world = chunk.getWorld();
+        ChunkSurface cached = getSurface(world, chunk.getX(), chunk.getZ());
+        if (cached != null) {
+            callback.accept(cached);
+            return;
+        }
+
+        ChunkSnapshot snapshot = chunk.getChunkSnapshot(true, false, false);
+        int minY = world.getMinHeight();
+        int maxY = world.getMaxHeight();
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            ChunkSurface surface = ChunkSurface.scan(snapshot, minY, maxY);
+            plugin.getServer().getScheduler().runTask(plugin, () -> callback.accept(surface));
+        });
+    }
+
+    /**
+     * Refresh covered chunks when they load
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        Chunk chunk = event.getChunk();
+        CoveredChunk covered = getCovered(chunk.getWorld(), chunk.getX(), chunk.getZ());
+        if (covered != null) {
+            scheduleRescan(chunk.getWorld(), chunk.getX(), chunk.getZ(), covered, 1L);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent event) {
+        invalidate(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        invalidate(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        for (Block block : event.blockList()) {
+            invalidate(block);
+        }
+    }
+
+    private void invalidate(Block block) {
+        int cx = block.getX() >> 4;
+        int cz = block.getZ() >> 4;
+        CoveredChunk covered = getCovered(block.getWorld(), cx, cz);
+        if (covered != null) {
+            scheduleRescan(block.getWorld(), cx, cz, covered, BLOCK_CHANGE_RESCAN_DELAY);
+        }
+    }
+
+    private CoveredChunk getCovered(World world, int chunkX, int chunkZ) {
+        Map<Long, CoveredChunk> worldCoverage = coverage.get(world.getName());
+        if (worldCoverage == null) return null;
+        return worldCoverage.get(Chunk.getChunkKey(chunkX, chunkZ));
+    }
+
+    /**
+     * Snapshot a covered chunk, scan it async and rebuild the affected pools.
+     * Repeated requests while one is pending are coalesced.
+     */
+    private void scheduleRescan(World world, int chunkX, int chunkZ, CoveredChunk covered, long delay) {
+        if (covered.rescanPending) {
+            covered.rescanRequested = true;
+            return;
+        }
+        covered.rescanPending = true;
+
+        plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
+            if (!world.isChunkLoaded(chunkX, chunkZ)) {
+                covered.rescanPending = false;
+                return;
+            }
+            ChunkSnapshot snapshot = world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(true, false, false);
+            covered.rescanRequested = false;
+            int minY = world.getMinHeight();
+            int maxY = world.getMaxHeight();
+
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+                ChunkSurface surface = ChunkSurface.scan(snapshot, minY, maxY);
+                plugin.getServer().getScheduler().runTask(plugin, () -> {
+                    covered.rescanPending = false;
+                    // Ignore results for coverage replaced by a reload in the meantime
+                    if (getCovered(world, chunkX, chunkZ) != covered) return;
+                    covered.surface = surface;
+                    for (SpawnManager.SpawnPoint sp : covered.spawnPoints) {
+                        rebuildPool(world, sp);
+                    }
+                    // Blocks changed after the snapshot was taken
+                    if (covered.rescanRequested) {
+                        scheduleRescan(world, chunkX, chunkZ, covered, BLOCK_CHANGE_RESCAN_DELAY);
+                    }
+                });
+            });
+        }, delay);
+    }
+
+    /**
+     * Collect every scanned safe column within the spawn point's radius
+     */
+    private void rebuildPool(World world, SpawnManager.SpawnPoint sp) {
+        Map<Long, CoveredChunk> worldCoverage = coverage.get(world.getName());
+        if (worldCoverage == null) return;
+
+        int radius = sp.getRadius();
+        double radiusSq = (double) radius * radius;
+        int minChunkX = (int) Math.floor(sp.getX() - radius) >> 4;
+        int maxChunkX = (int) Math.floor(sp.getX() + radius) >> 4;
+        int minChunkZ = (int) Math.floor(sp.getZ() - radius) >> 4;
+        int maxChunkZ = (int) Math.floor(sp.getZ() + radius) >> 4;
+
+        int capacity = 0;
+        for (int cx = minChunkX; cx <= maxChunkX; cx++) {
+            for (int cz = minChunkZ; cz <= maxChunkZ; cz++) {
+                CoveredChunk covered = worldCoverage.get(Chunk.getChunkKey(cx, cz));
+                if (covered != null && covered.surface != null) {
+                    capacity += covered.surface.getSafeCount();
+                }
+            }
+        }
+
+        int[] xs = new int[capacity];
+        int[] ys = new int[capacity];
+        int[] zs = new int[capacity];
+        int size = 0;
+
+        for (int cx = minChunkX; cx <= maxChunkX; cx++) {
+            for (int cz = minChunkZ; cz <= maxChunkZ; cz++) {
+                CoveredChunk covered = worldCoverage.get(Chunk.getChunkKey(cx, cz));
+                if (covered == null || covered.surface == null) continue;
+
+                ChunkSurface surface = covered.surface;
+                for (int i = 0; i < surface.getSafeCount(); i++) {
+                    int column = surface.getSafeColumn(i);
+                    int x = (cx << 4) | (column & 15);
+                    int z = (cz << 4) | (column >> 4);
+                    double dx = x + 0.5 - sp.getX();
+                    double dz = z + 0.5 - sp.getZ();
+                    if (dx * dx + dz * dz <= radiusSq) {
+                        xs[size] = x;
+                        ys[size] = surface.getStandY(x, z);
+                        zs[size] = z;
+                        size++;
+                    }
+                }
+            }
+        }
+
+        pools.put(sp.getSpawnId(), new Pool(xs, ys, zs, size));
+    }
+
+    /**
+     * Chunk overlapped by one or more spawn point radii
+     */
+    private static final class CoveredChunk {
+        private final List<SpawnManager.SpawnPoint> spawnPoints = new ArrayList<>(1);
+        private ChunkSurface surface;
+        private boolean rescanPending;
+        private boolean rescanRequested;
+    }
+
+    /**
+     * Immutable pool of standing positions for one spawn point
+     */
+    private static final class Pool {
+        private static final Pool EMPTY = new Pool(new int[0], new int[0], new int[0], 0);
+
+        private final int[] xs;
+        private final int[] ys;
+        private final int[] zs;
+        private final int size;
+
+        private Pool(int[] xs, int[] ys, int[] zs, int size) {
+            this.xs = xs;
+            this.ys = ys;
+            this.zs = zs;
+            this.size = size;
+        }
+    }
+}
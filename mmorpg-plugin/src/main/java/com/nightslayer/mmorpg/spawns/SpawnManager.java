@@ -1,6 +1,7 @@
 package com.nightslayer.mmorpg.spawns;
 
 import com.nightslayer.mmorpg.database.DatabaseManager;
+import com.nightslayer.mmorpg.mobs.EntityOwnershipRegistry;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
@@ -8,6 +9,7 @@ import org.bukkit.entity.EntityType;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.CreatureSpawnEvent;
+import org.bukkit.plugin.Plugin;
 
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -23,15 +25,28 @@ import java.util.logging.Level;
  * - Biome-based spawning
  * - Spawn rate control
  * - Custom mob spawning
+ * - Live per-point populations tracked through entity ownership tags
+ * - Safe spawn positions precomputed off-thread (see SafeLocationService)
+ * - One timing-wheel task for all spawn points, active only near players
+ * - Spawns go through the shared SpawnQueue at ambient priority
  */
 public class SpawnManager implements Listener {
     
     private final DatabaseManager dbManager;
+    private final EntityOwnershipRegistry ownershipRegistry;
+    private final SafeLocationService safeLocations;
+    private final SpawnScheduler scheduler;
+    private final SpawnQueue spawnQueue;
     private final Map<String, SpawnPoint> spawnPoints;
     private final Random random;
     
-    public SpawnManager(DatabaseManager dbManager) {
+    public SpawnManager(DatabaseManager dbManager, EntityOwnershipRegistry ownershipRegistry,
+                        SafeLocationService safeLocations, SpawnQueue spawnQueue) {
         this.dbManager = dbManager;
+        this.ownershipRegistry = ownershipRegistry;
+        this.safeLocations = safeLocations;
+        this.scheduler = new SpawnScheduler(this::trySpawn);
+        this.spawnQueue = spawnQueue;
         this.spawnPoints = new HashMap<>();
         this.random = new Random();
     }
@@ -47,51 +62,68 @@ public class SpawnManager implements Listener {
              ResultSet rs = stmt.executeQuery()) {
             
             while (rs.next()) {
+                String spawnId = rs.getString("spawn_id");
+                String mobType = rs.getString("mob_type");
+                
+                // Resolve the entity type once; skip rows that can never spawn
+                EntityType type;
+                try {
+                    type = EntityType.valueOf(mobType.trim().toUpperCase());
+                } catch (IllegalArgumentException | NullPointerException e) {
+                    Bukkit.getLogger().warning("[MMORPG] Invalid mob type '" + mobType + "' for spawn point " + spawnId);
+                    continue;
+                }
+                if (!type.isSpawnable() || !type.isAlive()) {
+                    Bukkit.getLogger().warning("[MMORPG] Mob type " + type + " cannot be spawned at spawn point " + spawnId);
+                    continue;
+                }
+                
                 SpawnPoint sp = new SpawnPoint(
-                    rs.getString("spawn_id"),
+                    spawnId,
                     rs.getString("world"),
                     rs.getDouble("x"),
                     rs.getDouble("y"),
                     rs.getDouble("z"),
                     rs.getInt("radius"),
-                    rs.getString("mob_type"),
+                    mobType,
+                    type,
                     rs.getInt("max_mobs"),
                     rs.getInt("spawn_interval"),
-                    rs.getBoolean("active")
+                    rs.getBoolean("active"),
+                    ownershipRegistry.getHandle(EntityOwnershipRegistry.owner("spawn", spawnId))
                 );
                 spawnPoints.put(sp.getSpawnId(), sp);
             }
             
             Bukkit.getLogger().info("[MMORPG] Loaded " + spawnPoints.size() + " spawn points");
             
+            // Precompute safe positions for the new set of spawn points
+            safeLocations.track(spawnPoints.values());
+            scheduler.setSpawnPoints(spawnPoints.values());
+            
         } catch (SQLException e) {
             Bukkit.getLogger().log(Level.SEVERE, "[MMORPG] Error loading spawn points", e);
         }
     }
     
     /**
-     * Start spawn timers for all active spawn points
+     * Start the shared spawn scheduler for all spawn points.
+     * Spawn points only tick while a player is within the activation range.
      */
     public void startSpawnTimers() {
-        for (SpawnPoint sp : spawnPoints.values()) {
-            if (sp.isActive()) {
-                scheduleSpawn(sp);
-            }
-        }
+        Plugin plugin = Bukkit.getPluginManager().getPlugin("MMORPGPlugin");
+        scheduler.start(
+            plugin,
+            plugin.getConfig().getInt("spawn-control.activation-range", 64),
+            plugin.getConfig().getInt("spawn-control.activation-check-ticks", 20)
+        );
     }
     
     /**
-     * Schedule spawn for a spawn point
+     * Stop the shared spawn scheduler
      */
-    private void scheduleSpawn(SpawnPoint sp) {
-        long interval = sp.getSpawnInterval() * 20L; // Convert seconds to ticks
-        
-        Bukkit.getScheduler().runTaskTimer(
-            Bukkit.getPluginManager().getPlugin("MMORPGPlugin"),
-            () -> trySpawn(sp),
-            interval,
-            interval
-        );
+    public void stopSpawnTimers() {
+        scheduler.stop();
     }
     
     /**
@@ -102,78 +134,25 @@ public class SpawnManager implements Listener {
             return;
         }
         
-        // Check if max mobs reached
-        int currentMobs = countMobsNear(sp);
-        if (currentMobs >= sp.getMaxMobs()) {
+        // Check if max mobs reached, counting spawns still in the queue
+        if (sp.getPopulation() + sp.pending >= sp.getMaxMobs()) {
             return;
         }
         
-        // Get random location within radius
-        Location center = sp.getLocation();
-        if (center == null) {
-            return;
-        }
-        
-        double angle = random.nextDouble() * 2 * Math.PI;
-        double distance = random.nextDouble() * sp.getRadius();
-        double x = center.getX() + distance * Math.cos(angle);
-        double z = center.getZ() + distance * Math.sin(angle);
-        
-        Location spawnLoc = new Location(center.getWorld(), x, center.getY(), z);
-        
-        // Find safe y coordinate
-        spawnLoc = findSafeLocation(spawnLoc);
+        // Pick a precomputed safe location within radius
+        Location spawnLoc = safeLocations.pick(sp, random);
         if (spawnLoc == null) {
             return;
         }
         
-        // Spawn mob
-        EntityType type = EntityType.valueOf(sp.getMobType().toUpperCase());
-        center.getWorld().spawnEntity(spawnLoc, type);
-    }
-    
-    /**
-     * Count mobs near spawn point
-     */
-    private int countMobsNear(SpawnPoint sp) {
-        Location center = sp.getLocation();
-        if (center == null) {
-            return 0;
-        }
-        
-        EntityType type = EntityType.valueOf(sp.getMobType().toUpperCase());
-        double radius = sp.getRadius();
-        
-        return (int) center.getWorld().getNearbyEntities(center, radius, radius, radius).stream()
-            .filter(entity -> entity.getType() == type)
-            .count();
-    }
-    
-    /**
-     * Find safe location for spawning
-     */
-    private Location findSafeLocation(Location loc) {
-        World world = loc.getWorld();
-        int x = loc.getBlockX();
-        int z = loc.getBlockZ();
-        
-        // Find highest solid block
-        for (int y = world.getMaxHeight() - 1; y > world.getMinHeight(); y--) {
-            Location checkLoc = new Location(world, x, y, z);
-            
-            if (checkLoc.getBlock().getType().isSolid()) {
-                // Check if there's space above
-                Location aboveLoc = checkLoc.clone().add(0, 1, 0);
-                Location above2Loc = checkLoc.clone().add(0, 2, 0);
-                
-                if (!aboveLoc.getBlock().getType().isSolid() && 
-                    !above2Loc.getBlock().getType().isSolid()) {
-                    return aboveLoc;
-                }
+        // Spawn mob and tag it so the spawn point's population follows it
+        sp.pending++;
+        spawnQueue.enqueue(SpawnQueue.Priority.AMBIENT, spawnLoc, sp.getEntityType(), entity -> {
+            sp.pending--;
+            if (entity != null) {
+                ownershipRegistry.tag(entity, sp.getOwner());
             }
-        }
-        
-        return null;
+        });
     }
     
     /**
@@ -215,6 +194,8 @@ public class SpawnManager implements Listener {
             stmt.executeUpdate();
             
             spawnPoints.remove(spawnId);
+            safeLocations.track(spawnPoints.values());
+            scheduler.setSpawnPoints(spawnPoints.values());
             
         } catch (SQLException e) {
             Bukkit.getLogger().log(Level.SEVERE, "[MMORPG] Error deleting spawn point", e);
@@ -242,6 +223,20 @@ public class SpawnManager implements Listener {
         }
     }
     
+    /**
+     * Get the shared spawn scheduler
+     */
+    public SpawnScheduler getScheduler() {
+        return scheduler;
+    }
+    
+    /**
+     * Get the safe location service backing spawn points
+     */
+    public SafeLocationService getSafeLocationService() {
+        return safeLocations;
+    }
+    
     /**
      * Handle natural spawns - can be used to control spawn rates
      */
@@ -262,12 +257,16 @@ public class SpawnManager implements Listener {
         private final double z;
         private final int radius;
         private final String mobType;
+        private final EntityType entityType;
         private final int maxMobs;
         private final int spawnInterval;
         private boolean active;
+        private final EntityOwnershipRegistry.Owner owner;
+        private int pending;
         
         public SpawnPoint(String spawnId, String worldName, double x, double y, double z,
-                         int radius, String mobType, int maxMobs, int spawnInterval, boolean active) {
+                         int radius, String mobType, EntityType entityType, int maxMobs, int spawnInterval,
+                         boolean active, EntityOwnershipRegistry.Owner owner) {
             this.spawnId = spawnId;
             this.worldName = worldName;
             this.x = x;
@@ -275,9 +274,11 @@ public class SpawnManager implements Listener {
             this.z = z;
             this.radius = radius;
             this.mobType = mobType;
+            this.entityType = entityType;
             this.maxMobs = maxMobs;
             this.spawnInterval = spawnInterval;
             this.active = active;
+            this.owner = owner;
         }
         
         public Location getLocation() {
@@ -296,6 +297,9 @@ public class SpawnManager implements Listener {
         public double getZ() { return z; }
         public int getRadius() { return radius; }
         public String getMobType() { return mobType; }
+        public EntityType getEntityType() { return entityType; }
+        public EntityOwnershipRegistry.Owner getOwner() { return owner; }
+        public int getPopulation() { return owner.getLoadedCount(); }
         public int getMaxMobs() { return maxMobs; }
         public int getSpawnInterval() { return spawnInterval; }
         public boolean isActive() { return active; }
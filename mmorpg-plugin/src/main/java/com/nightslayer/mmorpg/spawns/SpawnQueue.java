@@ -0,0 +1,223 @@
+package com.nightslayer.mmorpg.spawns;
+
+import com.nightslayer.mmorpg.MMORPGPlugin;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Central, time-sliced queue for plugin entity spawns
+ *
+ * Features:
+ * - Per-tick budget in milliseconds and entity count
+ * - Strict priorities: boss > dungeon > invasion > ambient
+ * - Bursts (waves, chunk pre-spawns) spread over the following ticks
+ * - Queue depth and spawn latency metrics
+ *
+ * Callbacks run on the main thread right after the entity spawns, or with
+ * null if the spawn could not happen (world unloaded, non-living type,
+ * spawn event cancelled...).
+ * Requests still queued when the queue stops never get a callback.
+ */
+public class SpawnQueue {
+
+    /**
+     * Spawn priority, highest first
+     */
+    public enum Priority {
+        BOSS,
+        DUNGEON,
+        INVASION,
+        AMBIENT
+    }
+
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private final MMORPGPlugin plugin;
+    private final ArrayDeque<Request>[] queues;
+    private BukkitTask task;
+    private BukkitTask metricsTask;
+    private int maxEntitiesPerTick;
+    private long maxNanosPerTick;
+
+    // Metrics for the current reporting window
+    private long spawnedCount;
+    private long totalLatencyNanos;
+    private long maxLatencyNanos;
+    private int maxDepth;
+
+    @SuppressWarnings("unchecked")
+    public SpawnQueue(MMORPGPlugin plugin) {
+        this.plugin = plugin;
+        this.queues = new ArrayDeque[PRIORITIES.length];
+        for (int i = 0; i < queues.length; i++) {
+            queues[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Start draining the queue every tick with the configured budget
+     */
+    public void start() {
+        stop();
+        maxEntitiesPerTick = Math.max(1, plugin.getConfig().getInt("spawn-queue.max-entities-per-tick", 10));
+        maxNanosPerTick = (long) (plugin.getConfig().getDouble("spawn-queue.max-millis-per-tick", 5.0) * 1_000_000L);
+        task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::drain, 1L, 1L);
+
+        long metricsInterval = plugin.getConfig().getLong("spawn-queue.metrics-interval-seconds", 60L) * 20L;
+        if (metricsInterval > 0) {
+            metricsTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::recordMetrics,
+                metricsInterval, metricsInterval);
+        }
+    }
+
+    /**
+     * Stop the queue; pending requests are dropped without running their
+     * callbacks, which could otherwise schedule tasks on a disabled plugin
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        if (metricsTask != null) {
+            metricsTask.cancel();
+            metricsTask = null;
+        }
+        for (ArrayDeque<Request> queue : queues) {
+            queue.clear();
+        }
+    }
+
+    /**
+     * Queue an entity spawn
+     */
+    public void enqueue(Priority priority, Location location, EntityType type, Consumer<LivingEntity> onSpawn) {
+        queues[priority.ordinal()].add(new Request(location.clone(), type, onSpawn, System.nanoTime()));
+        int depth = getDepth();
+        if (depth > maxDepth) {
+            maxDepth = depth;
+        }
+    }
+
+    /**
+     * Total queued requests across all priorities
+     */
+    public int getDepth() {
+        int depth = 0;
+        for (ArrayDeque<Request> queue : queues) {
+            depth += queue.size();
+        }
+        return depth;
+    }
+
+    /**
+     * Queued requests of one priority
+     */
+    public int getDepth(Priority priority) {
+        return queues[priority.ordinal()].size();
+    }
+
+    /**
+     * Average spawn latency (enqueue to spawn) in milliseconds for the current window
+     */
+    public double getAverageLatencyMillis() {
+        return spawnedCount == 0 ? 0 : totalLatencyNanos / (double) spawnedCount / 1_000_000.0;
+    }
+
+    /**
+     * Worst spawn latency in milliseconds for the current window
+     */
+    public double getMaxLatencyMillis() {
+        return maxLatencyNanos / 1_000_000.0;
+    }
+
+    private void drain() {
+        long start = System.nanoTime();
+        int spawned = 0;
+
+        for (ArrayDeque<Request> queue : queues) {
+            while (!queue.isEmpty()) {
+                if (spawned >= maxEntitiesPerTick || System.nanoTime() - start >= maxNanosPerTick) {
+                    return;
+                }
+                spawn(queue.poll());
+                spawned++;
+            }
+        }
+    }
+
+    private void spawn(Request request) {
+        World world = request.location.getWorld();
+        if (world == null || !request.type.isAlive() || !request.type.isSpawnable()) {
+            complete(request, null);
+            return;
+        }
+
+        LivingEntity living = null;
+        try {
+            Entity entity = world.spawnEntity(request.location, request.type);
+            // A cancelled CreatureSpawnEvent still returns the entity, just never added to the world
+            if (entity instanceof LivingEntity && entity.isValid()) {
+                living = (LivingEntity) entity;
+            }
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().log(Level.WARNING, "Queued spawn of " + request.type + " failed", e);
+        }
+
+        long latency = System.nanoTime() - request.enqueuedAt;
+        spawnedCount++;
+        totalLatencyNanos += latency;
+        if (latency > maxLatencyNanos) {
+            maxLatencyNanos = latency;
+        }
+
+        complete(request, living);
+    }
+
+    private void complete(Request request, LivingEntity entity) {
+        if (request.onSpawn == null) return;
+        try {
+            request.onSpawn.accept(entity);
+        } catch (RuntimeException e) {
+            plugin.getLogger().log(Level.SEVERE, "Error in spawn callback for " + request.type, e);
+        }
+    }
+
+    private void recordMetrics() {
+        if (plugin.getOptimizationManager() != null) {
+            plugin.getOptimizationManager().recordMetric("spawn_queue.depth_max", maxDepth);
+            plugin.getOptimizationManager().recordMetric("spawn_queue.spawned", spawnedCount);
+            plugin.getOptimizationManager().recordMetric("spawn_queue.latency_avg_ms", getAverageLatencyMillis());
+            plugin.getOptimizationManager().recordMetric("spawn_queue.latency_max_ms", getMaxLatencyMillis());
+        }
+        maxDepth = getDepth();
+        spawnedCount = 0;
+        totalLatencyNanos = 0;
+        maxLatencyNanos = 0;
+    }
+
+    /**
+     * A pending spawn
+     */
+    private static final class Request {
+        private final Location location;
+        private final EntityType type;
+        private final Consumer<LivingEntity> onSpawn;
+        private final long enqueuedAt;
+
+        private Request(Location location, EntityType type, Consumer<LivingEntity> onSpawn, long enqueuedAt) {
+            this.location = location;
+            this.type = type;
+            this.onSpawn = onSpawn;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.nightslayer.mmorpg.spawns;
+
+import com.nightslayer.mmorpg.mobs.MobManager;
+import com.nightslayer.mmorpg.utils.AliasTable;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Biome;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.EntityType;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Logger;
+
+/**
+ * Declarative rules deciding when natural spawns become custom mobs
+ *
+ * Rules are read from spawn-control.rules and compiled on load/reload into
+ * per-world tables indexed by biome and time-of-day bucket. A spawn event
+ * only indexes the table and checks the remaining primitive conditions
+ * (y-range, light, nearby player level) of the few candidate rules.
+ *
+ * Example:
+ *   rules:
+ *     forest_night:
+ *       worlds: [world]
+ *       biomes: [FOREST, BIRCH_FOREST]
+ *       time: {from: 13000, to: 23000}
+ *       light: {min: 0, max: 7}
+ *       y: {min: 40, max: 120}
+ *       player-level: {min: 10, max: 30, radius: 32}
+ *       mob-level: {min: 10, max: 20}
+ *       replaces: [ZOMBIE, SKELETON]
+ *       chance: 0.3
+ *
+ * The first matching rule wins. The legacy custom-mob-chance (with its
+ * night multiplier) is appended as the final catch-all rule.
+ */
+public class SpawnRuleEngine {
+
+    private static final int DAY_TICKS = 24000;
+    private static final int TIME_BUCKETS = 24;
+    private static final int BUCKET_TICKS = DAY_TICKS / TIME_BUCKETS;
+    private static final Biome[] BIOMES = Biome.values();
+    private static final SpawnRule[] NO_RULES = new SpawnRule[0];
+
+    private final Logger logger;
+    private final PlayerLevelIndex playerLevels;
+    private Map<String, SpawnRule[][]> worldTables;
+    private SpawnRule[][] defaultTable;
+
+    public SpawnRuleEngine(Logger logger, PlayerLevelIndex playerLevels) {
+        this.logger = logger;
+        this.playerLevels = playerLevels;
+        this.worldTables = Collections.emptyMap();
+        this.defaultTable = emptyTable();
+    }
+
+    /**
+     * Compile rules from the spawn-control section against the loaded custom mobs
+     */
+    public void compile(ConfigurationSection config, Collection<MobManager.CustomMob> customMobs) {
+        List<SpawnRule> rules = new ArrayList<>();
+
+        ConfigurationSection rulesSection = config != null ? config.getConfigurationSection("rules") : null;
+        if (rulesSection != null) {
+            for (String ruleId : rulesSection.getKeys(false)) {
+                ConfigurationSection section = rulesSection.getConfigurationSection(ruleId);
+                if (section == null) continue;
+                SpawnRule rule = parseRule(ruleId, section, customMobs);
+                if (rule != null) {
+                    rules.add(rule);
+                }
+            }
+        }
+
+        // Legacy behaviour: flat chance everywhere, boosted at night
+        double chance = config != null ? config.getDouble("custom-mob-chance", 0.15) : 0.15;
+        double nightMultiplier = config != null ? config.getDouble("night-multiplier", 1.5) : 1.5;
+        if (chance > 0 && !customMobs.isEmpty()) {
+            MobManager.CustomMob[] allMobs = customMobs.toArray(new MobManager.CustomMob[0]);
+            SpawnRule night = new SpawnRule("default-night", Math.min(1.0, chance * nightMultiplier), allMobs);
+            night.timeFrom = 13000;
+            night.timeTo = 23000;
+            rules.add(night);
+            rules.add(new SpawnRule("default", chance, allMobs));
+        }
+
+        // Build one table per world named by a rule, plus a table for every other world
+        Set<String> namedWorlds = new HashSet<>();
+        for (SpawnRule rule : rules) {
+            if (rule.worlds != null) {
+                namedWorlds.addAll(rule.worlds);
+            }
+        }
+
+        Map<String, SpawnRule[][]> tables = new HashMap<>();
+        for (String worldName : namedWorlds) {
+            tables.put(worldName, buildTable(rules, worldName));
+        }
+
+        // Swap atomically so a reload never exposes a half-built table
+        this.defaultTable = buildTable(rules, null);
+        this.worldTables = tables;
+
+        logger.info("Compiled " + rules.size() + " spawn rules for " + (tables.size() + 1) + " world tables");
+    }
+
+    /**
+     * Find the first rule matching a natural spawn, or null
+     */
+    public SpawnRule match(Location location, EntityType replacedType) {
+        World world = location.getWorld();
+        int x = location.getBlockX();
+        int y = location.getBlockY();
+        int z = location.getBlockZ();
+        int time = (int) (world.getTime() % DAY_TICKS);
+
+        SpawnRule[][] table = worldTables.getOrDefault(world.getName(), defaultTable);
+        SpawnRule[] candidates = table[world.getBiome(x, y, z).ordinal()][time / BUCKET_TICKS];
+
+        for (SpawnRule rule : candidates) {
+            if (rule.matches(world, x, y, z, time, replacedType, playerLevels)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private SpawnRule[][] buildTable(List<SpawnRule> rules, String worldName) {
+        SpawnRule[][] table = new SpawnRule[BIOMES.length][TIME_BUCKETS];
+        List<SpawnRule> bucket = new ArrayList<>();
+
+        for (int biome = 0; biome < BIOMES.length; biome++) {
+            for (int timeBucket = 0; timeBucket < TIME_BUCKETS; timeBucket++) {
+                bucket.clear();
+                for (SpawnRule rule : rules) {
+                    if (rule.worlds != null && (worldName == null || !rule.worlds.contains(worldName))) continue;
+                    if (rule.biomes != null && !rule.biomes[biome]) continue;
+                    if (!rule.coversBucket(timeBucket)) continue;
+                    bucket.add(rule);
+                }
+                table[biome][timeBucket] = bucket.isEmpty() ? NO_RULES : bucket.toArray(NO_RULES);
+            }
+        }
+        return table;
+    }
+
+    private SpawnRule parseRule(String ruleId, ConfigurationSection section,
+                                Collection<MobManager.CustomMob> customMobs) {
+        // Candidate mobs: explicit ids and/or a mob-level band
+        Set<String> mobIds = new HashSet<>(section.getStringList("mobs"));
+        int minMobLevel = section.getInt("mob-level.min", Integer.MIN_VALUE);
+        int maxMobLevel = section.getInt("mob-level.max", Integer.MAX_VALUE);
+
+        List<MobManager.CustomMob> candidates = new ArrayList<>();
+        for (MobManager.CustomMob mob : customMobs) {
+            if (!mobIds.isEmpty() && !mobIds.contains(mob.getId())) continue;
+            if (mob.getLevel() < minMobLevel || mob.getLevel() > maxMobLevel) continue;
+            candidates.add(mob);
+        }
+        if (candidates.isEmpty()) {
+            logger.warning("Spawn rule '" + ruleId + "' has no matching custom mobs, skipping");
+            return null;
+        }
+
+        SpawnRule rule = new SpawnRule(ruleId, section.getDouble("chance", 0.15),
+            candidates.toArray(new MobManager.CustomMob[0]));
+
+        List<String> worlds = section.getStringList("worlds");
+        if (!worlds.isEmpty()) {
+            rule.worlds = new HashSet<>(worlds);
+        }
+
+        List<String> biomes = section.getStringList("biomes");
+        if (!biomes.isEmpty()) {
+            rule.biomes = new boolean[BIOMES.length];
+            for (String biomeName : biomes) {
+                try {
+                    rule.biomes[Biome.valueOf(biomeName.toUpperCase()).ordinal()] = true;
+                } catch (IllegalArgumentException e) {
+                    logger.warning("Invalid biome '" + biomeName + "' in spawn rule " + ruleId);
+                }
+            }
+        }
+
+        List<String> replaces = section.getStringList("replaces");
+        if (!replaces.isEmpty()) {
+            rule.replaces = new boolean[EntityType.values().length];
+            for (String typeName : replaces) {
+                try {
+                    rule.replaces[EntityType.valueOf(typeName.toUpperCase()).ordinal()] = true;
+                } catch (IllegalArgumentException e) {
+                    logger.warning("Invalid mob type '" + typeName + "' in spawn rule " + ruleId);
+                }
+            }
+        }
+
+        if (section.isConfigurationSection("time")) {
+            rule.timeFrom = Math.floorMod(section.getInt("time.from", 0), DAY_TICKS);
+            rule.timeTo = Math.floorMod(section.getInt("time.to", DAY_TICKS - 1), DAY_TICKS);
+        }
+        if (section.isConfigurationSection("light")) {
+            rule.checkLight = true;
+            rule.minLight = section.getInt("light.min", 0);
+            rule.maxLight = section.getInt("light.max", 15);
+        }
+        rule.minY = section.getInt("y.min", Integer.MIN_VALUE);
+        rule.maxY = section.getInt("y.max", Integer.MAX_VALUE);
+        if (section.isConfigurationSection("player-level")) {
+            rule.checkPlayerLevel = true;
+            rule.minPlayerLevel = section.getInt("player-level.min", 0);
+            rule.maxPlayerLevel = section.getInt("player-level.max", Integer.MAX_VALUE);
+            rule.playerRadius = section.getDouble("player-level.radius", 32.0);
+        }
+
+        return rule;
+    }
+
+    private static SpawnRule[][] emptyTable() {
+        SpawnRule[][] table = new SpawnRule[BIOMES.length][TIME_BUCKETS];
+        for (SpawnRule[] row : table) {
+            Arrays.fill(row, NO_RULES);
+        }
+        return table;
+    }
+
+    /**
+     * A compiled spawn rule. Compile-time fields (worlds, biomes) are folded
+     * into the lookup tables; the rest are checked per event.
+     */
+    public static final class SpawnRule {
+        private final String id;
+        private final double chance;
+        private final MobManager.CustomMob[] mobs;
+
+        private Set<String> worlds;
+        private boolean[] biomes;
+        private boolean[] replaces;
+        private int timeFrom = -1;
+        private int timeTo = -1;
+        private boolean checkLight;
+        private int minLight;
+        private int maxLight;
+        private int minY;
+        private int maxY;
+        private boolean checkPlayerLevel;
+        private int minPlayerLevel;
+        private int maxPlayerLevel;
+        private double playerRadius;
+
+        private SpawnRule(String id, double chance, MobManager.CustomMob[] mobs) {
+            this.id = id;
+            this.chance = chance;
+            this.mobs = mobs;
+            this.mobWeights = buildWeights(mobs);
+            this.minY = Integer.MIN_VALUE;
+            this.maxY = Integer.MAX_VALUE;
+        }
+
+        private boolean matches(World world, int x, int y, int z, int time, EntityType replacedType,
+                                PlayerLevelIndex playerLevels) {
+            if (replaces != null && !replaces[replacedType.ordinal()]) return false;
+            if (y < minY || y > maxY) return false;
+            if (timeFrom >= 0 && !inWindow(time)) return false;
+            if (checkLight) {
+                int light = world.getBlockAt(x, y, z).getLightLevel();
+                if (light < minLight || light > maxLight) return false;
+            }
+            if (checkPlayerLevel) {
+                int level = playerLevels.getHighestLevelNear(world, x + 0.5, y, z + 0.5, playerRadius);
+                if (level < minPlayerLevel || level > maxPlayerLevel) return false;
+            }
+            return true;
+        }
+
+        private boolean inWindow(int time) {
+            return timeFrom <= timeTo
+                ? time >= timeFrom && time <= timeTo
+                : time >= timeFrom || time <= timeTo;
+        }
+
+        private boolean coversBucket(int bucket) {
+            if (timeFrom < 0) return true;
+            int start = bucket * BUCKET_TICKS;
+            int end = start + BUCKET_TICKS - 1;
+            // Either the bucket starts inside the window or the window starts inside the bucket
+            return inWindow(start) || (timeFrom >= start && timeFrom <= end);
+        }
+
+        /**
+         * Roll this rule's replacement chance
+         */
+        public boolean roll() {
+            return ThreadLocalRandom.current().nextDouble() < chance;
+        }
+
+        /**
+         * Pick one of the rule's candidate mobs by spawn weight
+         */
+        public MobManager.CustomMob pickMob() {
+            return mobs[mobWeights.sample(ThreadLocalRandom.current())];
+        }
+
+        private static AliasTable buildWeights(MobManager.CustomMob[] mobs) {
+            double[] weights = new double[mobs.length];
+            double total = 0;
+            for (int i = 0; i < mobs.length; i++) {
+                weights[i] = mobs[i].getWeight();
+                total += weights[i];
+            }
+            if (total <= 0) {
+                // Every candidate is weighted out; the rule still names them, so pick uniformly
+                Arrays.fill(weights, 1.0);
+            }
+            return new AliasTable(weights);
+        }
+
+        public String getId() { return id; }
+        public double getChance() { return chance; }
+    }
+}
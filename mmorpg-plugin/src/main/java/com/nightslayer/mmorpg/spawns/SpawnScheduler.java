@@ -0,0 +1,297 @@
+package com.nightslayer.mmorpg.spawns;
+
+import com.nightslayer.mmorpg.utils.LongObjectMap;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Single-task scheduler servicing every spawn point
+ *
+ * Features:
+ * - Hierarchical timing wheel (4 levels x 64 slots, tick resolution)
+ * - O(1) schedule and cancel through intrusive slot lists
+ * - Spawn points only run while a player is within the activation range
+ *   and the spawn point's chunk is loaded; otherwise they are suspended
+ *   and cost nothing
+ *
+ * Proximity is resolved through a coarse grid of activation-range cells,
+ * so each check costs O(players x nearby spawn points + active points)
+ * and an empty map costs nothing regardless of how many points exist.
+ */
+public class SpawnScheduler {
+
+    private static final int WHEEL_BITS = 6;
+    private static final int SLOTS = 1 << WHEEL_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final Consumer<SpawnManager.SpawnPoint> action;
+    private final Entry[][] wheels;
+    private final Map<String, LongObjectMap<List<Entry>>> grid;
+    private final List<Entry> entries;
+    private final List<Entry> activeEntries;
+    private final Location scratch;
+
+    private BukkitTask task;
+    private long now;
+    private int activationRange;
+    private int activationCheckTicks;
+    private int pass;
+
+    public SpawnScheduler(Consumer<SpawnManager.SpawnPoint> action) {
+        this.action = action;
+        this.wheels = new Entry[LEVELS][SLOTS];
+        this.grid = new HashMap<>();
+        this.entries = new ArrayList<>();
+        this.activeEntries = new ArrayList<>();
+        this.scratch = new Location(null, 0, 0, 0);
+    }
+
+    /**
+     * Replace the serviced spawn points. All of them start suspended.
+     */
+    public void setSpawnPoints(Collection<SpawnManager.SpawnPoint> spawnPoints) {
+        for (Entry[] wheel : wheels) {
+            Arrays.fill(wheel, null);
+        }
+        grid.clear();
+        entries.clear();
+        activeEntries.clear();
+
+        for (SpawnManager.SpawnPoint sp : spawnPoints) {
+            Entry entry = new Entry(sp);
+            entries.add(entry);
+            if (activationRange > 0) {
+                index(entry);
+            }
+        }
+    }
+
+    /**
+     * Start (or restart) the scheduler task
+     */
+    public void start(Plugin plugin, int activationRange, int activationCheckTicks) {
+        stop();
+        this.activationRange = Math.max(1, activationRange);
+        this.activationCheckTicks = Math.max(1, activationCheckTicks);
+
+        grid.clear();
+        for (Entry entry : entries) {
+            index(entry);
+        }
+
+        task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Number of spawn points currently near a player and scheduled
+     */
+    public int getActiveCount() {
+        return activeEntries.size();
+    }
+
+    /**
+     * Number of spawn points known to the scheduler
+     */
+    public int getTotalCount() {
+        return entries.size();
+    }
+
+    private void tick() {
+        now++;
+
+        if (now % activationCheckTicks == 0) {
+            updateActivation();
+        }
+
+        // Cascade higher levels whose slot boundary we just crossed, top-down
+        for (int level = LEVELS - 1; level > 0; level--) {
+            if ((now & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+                int slot = (int) ((now >>> (WHEEL_BITS * level)) & SLOT_MASK);
+                Entry head = detach(level, slot);
+                while (head != null) {
+                    Entry next = head.next;
+                    head.prev = head.next = null;
+                    insert(head);
+                    head = next;
+                }
+            }
+        }
+
+        // Fire everything due this tick
+        Entry head = detach(0, (int) (now & SLOT_MASK));
+        while (head != null) {
+            Entry next = head.next;
+            head.prev = head.next = null;
+            head.level = -1;
+            if (head.active) {
+                fire(head);
+            }
+            head = next;
+        }
+    }
+
+    private void fire(Entry entry) {
+        SpawnManager.SpawnPoint sp = entry.spawnPoint;
+        if (sp.isActive()) {
+            action.accept(sp);
+        }
+        schedule(entry, now + intervalTicks(sp));
+    }
+
+    /**
+     * Activate spawn points near players, suspend the rest
+     */
+    private void updateActivation() {
+        pass++;
+        long rangeSq = (long) activationRange * activationRange;
+
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            LongObjectMap<List<Entry>> cells = grid.get(player.getWorld().getName());
+            if (cells == null) continue;
+
+            player.getLocation(scratch);
+            int cellX = Math.floorDiv(scratch.getBlockX(), activationRange);
+            int cellZ = Math.floorDiv(scratch.getBlockZ(), activationRange);
+
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    List<Entry> cell = cells.get(Chunk.getChunkKey(cellX + dx, cellZ + dz));
+                    if (cell == null) continue;
+
+                    for (Entry entry : cell) {
+                        if (entry.seenPass == pass) continue;
+                        double ex = entry.spawnPoint.getX() - scratch.getX();
+                        double ez = entry.spawnPoint.getZ() - scratch.getZ();
+                        if (ex * ex + ez * ez > rangeSq) continue;
+
+                        entry.seenPass = pass;
+                        if (!entry.active && entry.spawnPoint.isActive() && isChunkLoaded(entry)) {
+                            entry.active = true;
+                            activeEntries.add(entry);
+                            schedule(entry, now + intervalTicks(entry.spawnPoint));
+                        }
+                    }
+                }
+            }
+        }
+
+        // Suspend active points nobody is near any more
+        for (int i = activeEntries.size() - 1; i >= 0; i--) {
+            Entry entry = activeEntries.get(i);
+            if (entry.seenPass == pass && entry.spawnPoint.isActive() && isChunkLoaded(entry)) continue;
+
+            entry.active = false;
+            cancel(entry);
+            int last = activeEntries.size() - 1;
+            activeEntries.set(i, activeEntries.get(last));
+            activeEntries.remove(last);
+        }
+    }
+
+    private boolean isChunkLoaded(Entry entry) {
+        World world = Bukkit.getWorld(entry.spawnPoint.getWorldName());
+        return world != null && world.isChunkLoaded(
+            (int) Math.floor(entry.spawnPoint.getX()) >> 4, (int) Math.floor(entry.spawnPoint.getZ()) >> 4);
+    }
+
+    private void index(Entry entry) {
+        SpawnManager.SpawnPoint sp = entry.spawnPoint;
+        int cellX = Math.floorDiv((int) Math.floor(sp.getX()), activationRange);
+        int cellZ = Math.floorDiv((int) Math.floor(sp.getZ()), activationRange);
+        LongObjectMap<List<Entry>> cells = grid.computeIfAbsent(sp.getWorldName(), k -> new LongObjectMap<>());
+        long key = Chunk.getChunkKey(cellX, cellZ);
+        List<Entry> cell = cells.get(key);
+        if (cell == null) {
+            cell = new ArrayList<>(2);
+            cells.put(key, cell);
+        }
+        cell.add(entry);
+    }
+
+    private static long intervalTicks(SpawnManager.SpawnPoint sp) {
+        return Math.max(1L, sp.getSpawnInterval() * 20L);
+    }
+
+    private void schedule(Entry entry, long deadline) {
+        cancel(entry);
+        entry.deadline = Math.max(deadline, now);
+        insert(entry);
+    }
+
+    /**
+     * Place an entry at the lowest level whose current span contains its deadline
+     */
+    private void insert(Entry entry) {
+        long deadline = Math.max(entry.deadline, now);
+        int level = 0;
+        while (level < LEVELS - 1 && (deadline >>> (WHEEL_BITS * (level + 1))) != (now >>> (WHEEL_BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = (int) ((deadline >>> (WHEEL_BITS * level)) & SLOT_MASK);
+
+        Entry head = wheels[level][slot];
+        entry.next = head;
+        entry.prev = null;
+        if (head != null) {
+            head.prev = entry;
+        }
+        wheels[level][slot] = entry;
+        entry.level = level;
+        entry.slot = slot;
+    }
+
+    private void cancel(Entry entry) {
+        if (entry.level < 0) return;
+
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            wheels[entry.level][entry.slot] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = entry.next = null;
+        entry.level = -1;
+    }
+
+    private Entry detach(int level, int slot) {
+        Entry head = wheels[level][slot];
+        wheels[level][slot] = null;
+        return head;
+    }
+
+    /**
+     * Spawn point slot in the wheel (intrusive doubly-linked list node)
+     */
+    private static final class Entry {
+        private final SpawnManager.SpawnPoint spawnPoint;
+        private Entry prev;
+        private Entry next;
+        private long deadline;
+        private int level = -1;
+        private int slot;
+        private int seenPass;
+        private boolean active;
+
+        private Entry(SpawnManager.SpawnPoint spawnPoint) {
+            this.spawnPoint = spawnPoint;
+        }
+    }
+}